@@ -0,0 +1,33 @@
+package com.crw.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 参数与 org.openjdk.jmh.Main 完全一致。未指定 -rf 时默认以 JSON 格式导出结果到 jmh-result.json，
+ * 便于在不同版本之间对比性能回退：
+ * <pre>
+ * mvn -Pjmh package
+ * java -jar target/benchmarks.jar SortBenchmark -p size=1000000
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> argList = new ArrayList<>(Arrays.asList(args));
+        if (!argList.contains("-rf")) {
+            argList.add("-rf");
+            argList.add("json");
+            if (!argList.contains("-rff")) {
+                argList.add("-rff");
+                argList.add(DEFAULT_RESULT_FILE);
+            }
+        }
+        org.openjdk.jmh.Main.main(argList.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,131 @@
+package com.crw.java.benchmark;
+
+import java.util.Random;
+
+/**
+ * 基准测试输入数据的分布
+ * <p>
+ * 所有生成的数据均为非负数，与早期只支持非负整数的 RadixSort 的测试结果保持可比。
+ * 相同的 n 与 seed 总是生成相同的数据，保证多次运行结果可比。
+ */
+public enum Distribution {
+    /**
+     * 均匀随机
+     */
+    RANDOM {
+        @Override
+        void fill(int[] arr, Random r) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = r.nextInt(Integer.MAX_VALUE);
+            }
+        }
+    },
+    /**
+     * 升序
+     */
+    SORTED {
+        @Override
+        void fill(int[] arr, Random r) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = i;
+            }
+        }
+    },
+    /**
+     * 近乎有序：升序数据中约 1% 的位置被替换为随机值，模拟追加写入中迟到的记录
+     */
+    NEARLY_SORTED {
+        @Override
+        void fill(int[] arr, Random r) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = i;
+            }
+            for (int k = arr.length / 100; k > 0; k--) {
+                arr[r.nextInt(arr.length)] = r.nextInt(arr.length);
+            }
+        }
+    },
+    /**
+     * 降序
+     */
+    REVERSED {
+        @Override
+        void fill(int[] arr, Random r) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = arr.length - i;
+            }
+        }
+    },
+    /**
+     * 大量重复值，只有 FEW_UNIQUE_KEYS 种不同的关键字
+     */
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] arr, Random r) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = r.nextInt(FEW_UNIQUE_KEYS);
+            }
+        }
+    },
+    /**
+     * 管风琴：先升后降 0,1,2...n/2...2,1,0
+     */
+    ORGAN_PIPE {
+        @Override
+        void fill(int[] arr, Random r) {
+            int half = arr.length / 2;
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = i < half ? i : arr.length - i - 1;
+            }
+        }
+    },
+    /**
+     * Zipf 分布(s = 1)：少数关键字出现频率极高，长尾关键字很少出现
+     */
+    ZIPF {
+        @Override
+        void fill(int[] arr, Random r) {
+            // 累积分布表，关键字个数上限为 ZIPF_MAX_KEYS，避免大数组时表过大
+            int keys = Math.max(1, Math.min(arr.length, ZIPF_MAX_KEYS));
+            double[] cdf = new double[keys];
+            double sum = 0;
+            for (int k = 0; k < keys; k++) {
+                sum += 1.0 / (k + 1);
+                cdf[k] = sum;
+            }
+            for (int i = 0; i < arr.length; i++) {
+                double u = r.nextDouble() * sum;
+                // 二分查找第一个 cdf[k] >= u 的 k
+                int low = 0;
+                int high = keys - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (cdf[mid] < u) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                arr[i] = low;
+            }
+        }
+    };
+
+    private static final int FEW_UNIQUE_KEYS = 16;
+    private static final int ZIPF_MAX_KEYS = 1 << 20;
+
+    abstract void fill(int[] arr, Random r);
+
+    /**
+     * 生成长度为 n 的测试数据
+     *
+     * @param n    数组长度
+     * @param seed 随机种子
+     * @return
+     */
+    public int[] generate(int n, long seed) {
+        int[] arr = new int[n];
+        fill(arr, new Random(seed));
+        return arr;
+    }
+}
@@ -0,0 +1,42 @@
+package com.crw.java.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * 吞掉 System.out 输出
+ * <p>
+ * 部分排序实现会打印每一趟的中间结果，基准测试期间将标准输出重定向到这里，
+ * 避免控制台 I/O 淹没 JMH 的输出。注意字符串拼接本身的开销仍会计入测量结果。
+ */
+public final class NullOutput {
+
+    private static final PrintStream NULL = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    private static PrintStream saved;
+
+    private NullOutput() {
+    }
+
+    public static synchronized void mute() {
+        if (saved == null) {
+            saved = System.out;
+            System.setOut(NULL);
+        }
+    }
+
+    public static synchronized void restore() {
+        if (saved != null) {
+            System.setOut(saved);
+            saved = null;
+        }
+    }
+}
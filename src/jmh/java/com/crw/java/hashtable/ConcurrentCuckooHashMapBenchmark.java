@@ -0,0 +1,219 @@
+package com.crw.java.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 布谷鸟散列在多线程读多写少时的扩展性
+ * <p>
+ * 每次调用由 threads 个线程合计完成 OPS 次操作，结果为平均每次操作的耗时，线程数增加时耗时下降说明能够扩展，
+ * 线程数超过核数之后耗时不再下降。
+ * 1.mixed：表中预先放入键空间的一半，readPercent% 的操作为 get，其余一半 put 一半 remove，元素个数基本不变。
+ * 2.fill：从空表开始各线程 put 互不相交的键，期间多次踢出和扩容。fill 不受 readPercent 影响。
+ * GlobalLock 为 BucketizedCuckooHashTable 外加一把全局锁，读也要加锁；ConcurrentHashMap 作为参照。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentCuckooHashMapBenchmark {
+
+    private static final int OPS = 1 << 18;
+
+    private static final int KEYS = 1 << 20;
+
+    private interface Map {
+        void put(Integer key, Integer value);
+
+        boolean get(Integer key);
+
+        void remove(Integer key);
+    }
+
+    /**
+     * 一个线程执行 [from, to) 的操作，返回命中次数
+     */
+    private interface Slice {
+        int run(int from, int to);
+    }
+
+    @Param({"ConcurrentCuckoo", "GlobalLock", "ConcurrentHashMap"})
+    public String map;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    @Param({"99", "90", "50"})
+    public int readPercent;
+
+    private ExecutorService pool;
+    private Map target;
+    private Integer[] keys;
+    private Integer[] fillKeys;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        pool = Executors.newFixedThreadPool(threads);
+        Random r = new Random(42L);
+        keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = r.nextInt();
+        }
+        fillKeys = new Integer[OPS];
+        for (int i = 0; i < OPS; i++) {
+            fillKeys[i] = i;
+        }
+        target = create(map);
+        for (int i = 0; i < KEYS; i += 2) {
+            target.put(keys[i], keys[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static Map create(String map) {
+        switch (map) {
+            case "ConcurrentCuckoo": {
+                ConcurrentCuckooHashMap<Integer, Integer> m =
+                        new ConcurrentCuckooHashMap<>(new HashTableBenchmark.MultiplyHashFamily());
+                return new Map() {
+                    public void put(Integer key, Integer value) {
+                        m.put(key, value);
+                    }
+
+                    public boolean get(Integer key) {
+                        return m.get(key) != null;
+                    }
+
+                    public void remove(Integer key) {
+                        m.remove(key);
+                    }
+                };
+            }
+            case "GlobalLock": {
+                BucketizedCuckooHashTable<Integer> t =
+                        new BucketizedCuckooHashTable<>(new HashTableBenchmark.MultiplyHashFamily());
+                return new Map() {
+                    public void put(Integer key, Integer value) {
+                        synchronized (t) {
+                            t.insert(key);
+                        }
+                    }
+
+                    public boolean get(Integer key) {
+                        synchronized (t) {
+                            return t.contains(key);
+                        }
+                    }
+
+                    public void remove(Integer key) {
+                        synchronized (t) {
+                            t.remove(key);
+                        }
+                    }
+                };
+            }
+            case "ConcurrentHashMap": {
+                ConcurrentHashMap<Integer, Integer> m = new ConcurrentHashMap<>();
+                return new Map() {
+                    public void put(Integer key, Integer value) {
+                        m.put(key, value);
+                    }
+
+                    public boolean get(Integer key) {
+                        return m.get(key) != null;
+                    }
+
+                    public void remove(Integer key) {
+                        m.remove(key);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(map);
+        }
+    }
+
+    /**
+     * 把 [0, OPS) 平均分给各线程执行，等待全部完成
+     */
+    private int runAll(Slice slice) throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) OPS * t / threads);
+            int to = (int) ((long) OPS * (t + 1) / threads);
+            tasks.add(() -> slice.run(from, to));
+        }
+        int hits = 0;
+        for (Future<Integer> f : pool.invokeAll(tasks)) {
+            hits += f.get();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int mixed() throws InterruptedException, ExecutionException {
+        Map m = target;
+        return runAll((from, to) -> {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            int hits = 0;
+            for (int i = from; i < to; i++) {
+                Integer key = keys[r.nextInt(KEYS)];
+                int p = r.nextInt(200);
+                if (p < 2 * readPercent) {
+                    if (m.get(key)) {
+                        hits++;
+                    }
+                } else if ((p & 1) == 0) {
+                    m.put(key, key);
+                } else {
+                    m.remove(key);
+                }
+            }
+            return hits;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int fill() throws InterruptedException, ExecutionException {
+        Map m = create(map);
+        runAll((from, to) -> {
+            for (int i = from; i < to; i++) {
+                m.put(fillKeys[i], fillKeys[i]);
+            }
+            return 0;
+        });
+        return m.get(fillKeys[OPS - 1]) ? 1 : 0;
+    }
+}
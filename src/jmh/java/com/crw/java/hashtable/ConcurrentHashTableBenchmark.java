@@ -0,0 +1,216 @@
+package com.crw.java.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程共享一张哈希表时的争用
+ * <p>
+ * 每次调用由 threads 个线程合计完成 OPS 次操作，结果为平均每次操作的耗时，线程数增加时耗时下降说明能够扩展。
+ * 1.mixed：表中预先放入键空间的一半，readPercent% 的操作为 contains，其余一半插入一半删除，元素个数基本不变。
+ * 2.fill：从空表开始各线程插入互不相交的键，期间多次扩容，衡量协作扩容。fill 不受 readPercent 影响。
+ * GlobalLock 为 SeparateChainingHashTable 外加一把全局锁，即改造前的做法；ConcurrentHashMap 作为参照。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentHashTableBenchmark {
+
+    private static final int OPS = 1 << 18;
+
+    private static final int KEYS = 1 << 16;
+
+    private interface Table {
+        void insert(Integer x);
+
+        boolean contains(Integer x);
+
+        void remove(Integer x);
+    }
+
+    /**
+     * 一个线程执行 [from, to) 的操作，返回命中次数
+     */
+    private interface Slice {
+        int run(int from, int to);
+    }
+
+    @Param({"Concurrent", "GlobalLock", "ConcurrentHashMap"})
+    public String table;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    @Param({"100", "90", "50"})
+    public int readPercent;
+
+    private ExecutorService pool;
+    private Table target;
+    private Integer[] keys;
+    private Integer[] fillKeys;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        pool = Executors.newFixedThreadPool(threads);
+        Random r = new Random(42L);
+        keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = r.nextInt();
+        }
+        fillKeys = new Integer[OPS];
+        for (int i = 0; i < OPS; i++) {
+            fillKeys[i] = i;
+        }
+        target = create(table);
+        for (int i = 0; i < KEYS; i += 2) {
+            target.insert(keys[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static Table create(String table) {
+        switch (table) {
+            case "Concurrent": {
+                ConcurrentSeparateChainingHashTable<Integer> t = new ConcurrentSeparateChainingHashTable<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            case "GlobalLock": {
+                SeparateChainingHashTable<Integer> t = new SeparateChainingHashTable<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        synchronized (t) {
+                            t.insert(x);
+                        }
+                    }
+
+                    public boolean contains(Integer x) {
+                        synchronized (t) {
+                            return t.contains(x);
+                        }
+                    }
+
+                    public void remove(Integer x) {
+                        synchronized (t) {
+                            t.remove(x);
+                        }
+                    }
+                };
+            }
+            case "ConcurrentHashMap": {
+                ConcurrentHashMap<Integer, Boolean> t = new ConcurrentHashMap<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.put(x, Boolean.TRUE);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.containsKey(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    /**
+     * 把 [0, OPS) 平均分给各线程执行，等待全部完成
+     */
+    private int runAll(Slice slice) throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) OPS * t / threads);
+            int to = (int) ((long) OPS * (t + 1) / threads);
+            tasks.add(() -> slice.run(from, to));
+        }
+        int hits = 0;
+        for (Future<Integer> f : pool.invokeAll(tasks)) {
+            hits += f.get();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int mixed() throws InterruptedException, ExecutionException {
+        Table t = target;
+        return runAll((from, to) -> {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            int hits = 0;
+            for (int i = from; i < to; i++) {
+                Integer x = keys[r.nextInt(KEYS)];
+                int p = r.nextInt(200);
+                if (p < 2 * readPercent) {
+                    if (t.contains(x)) {
+                        hits++;
+                    }
+                } else if ((p & 1) == 0) {
+                    t.insert(x);
+                } else {
+                    t.remove(x);
+                }
+            }
+            return hits;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int fill() throws InterruptedException, ExecutionException {
+        Table t = create(table);
+        runAll((from, to) -> {
+            for (int i = from; i < to; i++) {
+                t.insert(fillKeys[i]);
+            }
+            return 0;
+        });
+        return t.contains(fillKeys[OPS - 1]) ? 1 : 0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.crw.java.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CuckooHashTable 与 BucketizedCuckooHashTable 的对比
+ * <p>
+ * fill 从空表插入 size 个元素，包含扩容与再散列；其余为 size 个元素的表上的单次操作。
+ * churn 每次删除一个元素再插入一个新元素，元素个数不变，两种表都会反复踢出元素。
+ * 装填因子：CuckooHashTable 不超过 0.4，BucketizedCuckooHashTable 不超过 0.95，相同元素个数下后者的表小得多。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CuckooHashTableBenchmark {
+
+    private interface Table {
+        boolean insert(Integer x);
+
+        boolean contains(Integer x);
+
+        boolean remove(Integer x);
+    }
+
+    @Param({"Cuckoo", "Bucketized"})
+    public String table;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Table target;
+    /**
+     * keys[c...c+size-1](循环)为表中的元素
+     */
+    private Integer[] keys;
+    private Integer[] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random r = new Random(42L);
+        Set<Integer> distinct = new HashSet<>();
+        Integer[] all = new Integer[3 * size];
+        for (int i = 0; i < all.length; ) {
+            Integer x = r.nextInt();
+            if (distinct.add(x)) {
+                all[i++] = x;
+            }
+        }
+        keys = new Integer[2 * size];
+        misses = new Integer[size];
+        System.arraycopy(all, 0, keys, 0, 2 * size);
+        System.arraycopy(all, 2 * size, misses, 0, size);
+        target = create(table);
+        for (int i = 0; i < size; i++) {
+            target.insert(keys[i]);
+        }
+        cursor = 0;
+    }
+
+    private static Table create(String table) {
+        switch (table) {
+            case "Cuckoo": {
+                CuckooHashTable<Integer> t = new CuckooHashTable<>(new HashTableBenchmark.MultiplyHashFamily());
+                return new Table() {
+                    public boolean insert(Integer x) {
+                        return t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public boolean remove(Integer x) {
+                        return t.remove(x);
+                    }
+                };
+            }
+            case "Bucketized": {
+                BucketizedCuckooHashTable<Integer> t =
+                        new BucketizedCuckooHashTable<>(new HashTableBenchmark.MultiplyHashFamily());
+                return new Table() {
+                    public boolean insert(Integer x) {
+                        return t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public boolean remove(Integer x) {
+                        return t.remove(x);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object fill() {
+        Table t = create(table);
+        for (int i = 0; i < size; i++) {
+            t.insert(keys[i]);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        // churn 不在同一次运行中，表中元素始终是 keys[0...size-1]
+        int c = cursor;
+        cursor = c + 1 == size ? 0 : c + 1;
+        return target.contains(keys[c]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        int c = cursor;
+        cursor = c + 1 == size ? 0 : c + 1;
+        return target.contains(misses[c]);
+    }
+
+    @Benchmark
+    public boolean churn() {
+        int c = cursor;
+        int in = c + size;
+        target.remove(keys[c]);
+        cursor = c + 1 == 2 * size ? 0 : c + 1;
+        return target.insert(keys[in >= 2 * size ? in - 2 * size : in]);
+    }
+}
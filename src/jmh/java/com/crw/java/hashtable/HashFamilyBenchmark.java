@@ -0,0 +1,228 @@
+package com.crw.java.hashtable;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashFamily 实现的速度，以及用于布谷鸟散列时的再散列率
+ * <p>
+ * 1.hash：对前 HASH_KEYS 个键各计算一次第 0 个散列函数，结果为平均每个键的耗时。
+ * 键都在缓存中，衡量的是散列函数本身，而不是读取键时的缓存未命中。
+ * 2.fill：从空表开始插入 KEYS 个键，结果为平均每个键的耗时(含踢出、扩容与再散列)。
+ * 辅助计数 rehashes 为 generateNewFunctions 的调用次数，即插入失败后的再散列次数，fills 为填表次数，
+ * rehashes / fills 即每填一张表的再散列次数。Cuckoo 为 CuckooHashTable(两个散列函数，随机游走踢出)，
+ * 对散列函数的质量比 Bucketized(BucketizedCuckooHashTable)敏感得多。
+ * <p>
+ * 键都是有规律的：int 为连续整数，long 为高 32 位连续、低 32 位相同，String 为补零到 length 位的十进制数，
+ * byte[] 为它的 ASCII 编码。规律性的输入最容易暴露散列函数的缺陷。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashFamilyBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    private static final int HASH_KEYS = 1 << 10;
+
+    @Param({"Murmur3", "XxHash64", "Tabulation", "SipHash"})
+    public String family;
+
+    @Param({"int", "long", "String", "byte[]"})
+    public String keyType;
+
+    /**
+     * String 和 byte[] 键的长度
+     */
+    @Param({"16"})
+    public int length;
+
+    private HashFamily<Object> hashFamily;
+    private Object[] keys;
+
+    /**
+     * fill 使用的表
+     */
+    @State(Scope.Benchmark)
+    public static class Target {
+        @Param({"Cuckoo", "Bucketized"})
+        public String table;
+    }
+
+    /**
+     * 再散列次数与填表次数，每轮迭代清零
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rehashes {
+        public long rehashes;
+        public long fills;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rehashes = 0;
+            fills = 0;
+        }
+    }
+
+    /**
+     * 记录 generateNewFunctions 调用次数的包装
+     */
+    private static final class CountingHashFamily implements HashFamily<Object> {
+        private final HashFamily<Object> hf;
+        int rehashes;
+
+        CountingHashFamily(HashFamily<Object> hf) {
+            this.hf = hf;
+        }
+
+        @Override
+        public int hash(Object x, int which) {
+            return hf.hash(x, which);
+        }
+
+        @Override
+        public int getNumberOfFunctions() {
+            return hf.getNumberOfFunctions();
+        }
+
+        @Override
+        public void generateNewFunctions() {
+            rehashes++;
+            hf.generateNewFunctions();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        hashFamily = create(family, keyType);
+        keys = new Object[KEYS];
+        String format = "%0" + length + "d";
+        for (int i = 0; i < KEYS; i++) {
+            switch (keyType) {
+                case "int":
+                    keys[i] = i;
+                    break;
+                case "long":
+                    keys[i] = (long) i << 32 | 0x5bd1e995L;
+                    break;
+                case "String":
+                    keys[i] = String.format(format, i);
+                    break;
+                default:
+                    keys[i] = String.format(format, i).getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashFamily<Object> create(String family, String keyType) {
+        HashFamily<?> hf;
+        switch (family + " " + keyType) {
+            case "Murmur3 int":
+                hf = Murmur3Hash.forInts(2);
+                break;
+            case "Murmur3 long":
+                hf = Murmur3Hash.forLongs(2);
+                break;
+            case "Murmur3 String":
+                hf = Murmur3Hash.forStrings(2);
+                break;
+            case "Murmur3 byte[]":
+                hf = Murmur3Hash.forBytes(2);
+                break;
+            case "XxHash64 int":
+                hf = XxHash64.forInts(2);
+                break;
+            case "XxHash64 long":
+                hf = XxHash64.forLongs(2);
+                break;
+            case "XxHash64 String":
+                hf = XxHash64.forStrings(2);
+                break;
+            case "XxHash64 byte[]":
+                hf = XxHash64.forBytes(2);
+                break;
+            case "Tabulation int":
+                hf = TabulationHash.forInts(2);
+                break;
+            case "Tabulation long":
+                hf = TabulationHash.forLongs(2);
+                break;
+            case "Tabulation String":
+                hf = TabulationHash.forStrings(2);
+                break;
+            case "Tabulation byte[]":
+                hf = TabulationHash.forBytes(2);
+                break;
+            case "SipHash int":
+                hf = SipHash.forInts(2);
+                break;
+            case "SipHash long":
+                hf = SipHash.forLongs(2);
+                break;
+            case "SipHash String":
+                hf = SipHash.forStrings(2);
+                break;
+            case "SipHash byte[]":
+                hf = SipHash.forBytes(2);
+                break;
+            default:
+                throw new IllegalArgumentException(family + " " + keyType);
+        }
+        return (HashFamily<Object>) hf;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HASH_KEYS)
+    public int hash() {
+        HashFamily<Object> hf = hashFamily;
+        Object[] a = keys;
+        int sum = 0;
+        for (int i = 0; i < HASH_KEYS; i++) {
+            sum += hf.hash(a[i], 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Object fill(Target target, Rehashes counters) {
+        CountingHashFamily hf = new CountingHashFamily(hashFamily);
+        Object result;
+        if (target.table.equals("Cuckoo")) {
+            CuckooHashTable<Object> t = new CuckooHashTable<>(hf);
+            for (Object x : keys) {
+                t.insert(x);
+            }
+            result = t;
+        } else {
+            BucketizedCuckooHashTable<Object> t = new BucketizedCuckooHashTable<>(hf);
+            for (Object x : keys) {
+                t.insert(x);
+            }
+            result = t;
+        }
+        counters.rehashes += hf.rehashes;
+        counters.fills++;
+        return result;
+    }
+}
@@ -0,0 +1,230 @@
+package com.crw.java.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各哈希表的查找与插入删除对比
+ * <p>
+ * 表中元素个数为 loadFactor * capacity，RobinHoodHashTable 的容量恰为 capacity，装填因子即 loadFactor；
+ * 其余的表按各自的规则扩容(平方探测 < 0.5，布谷鸟 < 0.4，分离链接 <= 1)，装填因子不受 loadFactor 控制，
+ * 相同的元素个数下比较的是它们各自能达到的时间与空间。
+ * churn 每次删除一个元素再插入一个新元素，元素个数不变，衡量删除留下的墓碑或者后移回填的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashTableBenchmark {
+
+    /**
+     * 统一各表的接口，每次运行只加载一种实现，调用仍会被内联
+     */
+    private interface Table {
+        void insert(Integer x);
+
+        boolean contains(Integer x);
+
+        void remove(Integer x);
+    }
+
+    /**
+     * 布谷鸟散列的两个乘法散列函数，失败时换乘数
+     */
+    static final class MultiplyHashFamily implements HashFamily<Integer> {
+        private final Random random = new Random(42L);
+        private final int[] multipliers = {0x9E3779B9, 0x85EBCA6B};
+
+        @Override
+        public int hash(Integer x, int which) {
+            int h = x * multipliers[which];
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public int getNumberOfFunctions() {
+            return multipliers.length;
+        }
+
+        @Override
+        public void generateNewFunctions() {
+            for (int i = 0; i < multipliers.length; i++) {
+                multipliers[i] = random.nextInt() | 1;
+            }
+        }
+    }
+
+    @Param({"RobinHood", "QuadraticProbing", "SeparateChaining", "CompactChaining", "Cuckoo"})
+    public String table;
+
+    @Param({"0.5", "0.6", "0.7", "0.8", "0.9"})
+    public double loadFactor;
+
+    @Param({"65536", "1048576"})
+    public int capacity;
+
+    private Table target;
+    /**
+     * keys[c...c+n-1](循环)为表中的元素，其余 n 个不在表中
+     */
+    private Integer[] keys;
+    private Integer[] misses;
+    private int n;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        // 比 loadFactor * capacity 少一个，RobinHoodHashTable 恰好不扩容
+        n = (int) (loadFactor * capacity) - 1;
+        Random r = new Random(42L);
+        // 按生成顺序去重，不用 HashSet 的遍历顺序，那样元素在内存中是乱序的
+        Set<Integer> distinct = new HashSet<>();
+        Integer[] all = new Integer[3 * n];
+        for (int i = 0; i < all.length; ) {
+            Integer x = r.nextInt();
+            if (distinct.add(x)) {
+                all[i++] = x;
+            }
+        }
+        keys = new Integer[2 * n];
+        misses = new Integer[n];
+        System.arraycopy(all, 0, keys, 0, 2 * n);
+        System.arraycopy(all, 2 * n, misses, 0, n);
+        target = create(table, n, loadFactor);
+        for (int i = 0; i < n; i++) {
+            target.insert(keys[i]);
+        }
+        cursor = 0;
+    }
+
+    private static Table create(String table, int n, double loadFactor) {
+        switch (table) {
+            case "RobinHood": {
+                RobinHoodHashTable<Integer> t = new RobinHoodHashTable<>(n, loadFactor);
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            case "QuadraticProbing": {
+                QuadraticProbingHashTable<Integer> t = new QuadraticProbingHashTable<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            case "SeparateChaining": {
+                SeparateChainingHashTable<Integer> t = new SeparateChainingHashTable<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            case "CompactChaining": {
+                CompactChainingHashTable<Integer> t = new CompactChainingHashTable<>();
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            case "Cuckoo": {
+                CuckooHashTable<Integer> t = new CuckooHashTable<>(new MultiplyHashFamily());
+                return new Table() {
+                    public void insert(Integer x) {
+                        t.insert(x);
+                    }
+
+                    public boolean contains(Integer x) {
+                        return t.contains(x);
+                    }
+
+                    public void remove(Integer x) {
+                        t.remove(x);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    private int next() {
+        int c = cursor;
+        cursor = c + 1 == n ? 0 : c + 1;
+        return c;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        // churn 不在同一次运行中，表中元素始终是 keys[0...n-1]
+        return target.contains(keys[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return target.contains(misses[next()]);
+    }
+
+    @Benchmark
+    public Object churn() {
+        int c = cursor;
+        int in = c + n;
+        target.remove(keys[c]);
+        target.insert(keys[in >= 2 * n ? in - 2 * n : in]);
+        cursor = c + 1 == 2 * n ? 0 : c + 1;
+        return target;
+    }
+}
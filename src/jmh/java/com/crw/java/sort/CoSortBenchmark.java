@@ -0,0 +1,112 @@
+package com.crw.java.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 键值同步排序：long[] 关键字 + int[] 行号
+ * <p>
+ * boxedPairs 为改造前的做法，把键值对装进对象再按比较器排序，作为基线。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoSortBenchmark {
+
+    private static final class Pair {
+        final long key;
+        final int value;
+
+        Pair(long key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final Comparator<Pair> BY_KEY = Comparator.comparingLong(p -> p.key);
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private long[] source;
+    private long[] keys;
+    private int[] values;
+    private int[] payload;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random r = new Random(42L);
+        source = new long[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = r.nextLong();
+        }
+        keys = new long[size];
+        values = new int[size];
+        payload = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            payload[i] = i;
+        }
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        RadixSort.sort(keys, values);
+        return values;
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        QuickSort.sort(keys, values);
+        return values;
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        MergeSort.sort(keys, values);
+        return values;
+    }
+
+    @Benchmark
+    public int[] argsort() {
+        return ArgSort.argsort(keys);
+    }
+
+    @Benchmark
+    public int[] twoPayloads() {
+        ArgSort.sort(keys, values, payload);
+        return payload;
+    }
+
+    @Benchmark
+    public Pair[] boxedPairs() {
+        Pair[] pairs = new Pair[size];
+        for (int i = 0; i < size; i++) {
+            pairs[i] = new Pair(keys[i], values[i]);
+        }
+        TimSort.sort(pairs, BY_KEY);
+        return pairs;
+    }
+}
@@ -0,0 +1,121 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆排序各版本的对比：教科书版、自底向上、d 叉堆
+ * <p>
+ * 运行时间：java -jar target/benchmarks.jar HeapSortBenchmark
+ * <p>
+ * 比较次数(用计数比较器对 Integer[] 排序)：
+ * <pre>
+ * java -cp target/benchmarks.jar com.crw.java.sort.HeapSortBenchmark 1000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HeapSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] heapSort() {
+        HeapSort.heapSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] bottomUpHeapSort() {
+        HeapSort.bottomUpHeapSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort4Ary() {
+        HeapSort.dAryHeapSort(arr, 4);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort8Ary() {
+        HeapSort.dAryHeapSort(arr, 8);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort16Ary() {
+        HeapSort.dAryHeapSort(arr, 16);
+        return arr;
+    }
+
+    /**
+     * 输出各版本的比较次数
+     *
+     * @param args 规模，默认 1000000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int[] data = Distribution.RANDOM.generate(n, 42L);
+        Integer[] source = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            source[i] = data[i];
+        }
+        long[] count = new long[1];
+        Comparator<Integer> c = (a, b) -> {
+            count[0]++;
+            return Integer.compare(a, b);
+        };
+        double nlogn = n * (Math.log(n) / Math.log(2));
+
+        Integer[] arr = source.clone();
+        HeapSort.heapSort(arr, c);
+        System.out.printf("%-12s %,15d  %.2f n*log2(n)%n", "heapSort", count[0], count[0] / nlogn);
+        count[0] = 0;
+        arr = source.clone();
+        HeapSort.bottomUpHeapSort(arr, c);
+        System.out.printf("%-12s %,15d  %.2f n*log2(n)%n", "bottomUp", count[0], count[0] / nlogn);
+        for (int d = 4; d <= 16; d *= 2) {
+            count[0] = 0;
+            arr = source.clone();
+            HeapSort.dAryHeapSort(arr, d, c);
+            System.out.printf("%-12s %,15d  %.2f n*log2(n)%n", d + "-ary", count[0], count[0] / nlogn);
+        }
+    }
+}
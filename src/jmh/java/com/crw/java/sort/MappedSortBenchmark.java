@@ -0,0 +1,124 @@
+package com.crw.java.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆外排序映射文件与 读进堆数组排序再写回 的对比
+ * <p>
+ * 每次调用前从源文件拷贝出待排序的文件；文件在页缓存中，测的是排序本身而不是磁盘。
+ * heapRadixSort 需要与文件等大的堆(再加一个辅助数组)，size 较大时需要 -Xmx，这正是堆外排序要避免的。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MappedSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    private File source;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        source = File.createTempFile("mapped-sort-source", ".bin");
+        file = File.createTempFile("mapped-sort", ".bin");
+        try (RandomAccessFile raf = new RandomAccessFile(source, "rw")) {
+            raf.setLength((long) size * Long.BYTES);
+            MappedLongArray arr = MappedLongArray.map(raf.getChannel());
+            Random random = new Random(42L);
+            for (long i = 0; i < size; i++) {
+                arr.set(i, random.nextLong());
+            }
+            arr.force();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        try (FileChannel in = new RandomAccessFile(source, "r").getChannel();
+             FileChannel out = new RandomAccessFile(file, "rw").getChannel()) {
+            out.truncate(0);
+            long pos = 0;
+            long bytes = in.size();
+            while (pos < bytes) {
+                pos += in.transferTo(pos, bytes - pos, out);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        source.delete();
+        file.delete();
+    }
+
+    @Benchmark
+    public File mappedRadixSort() throws IOException {
+        MappedSort.radixSort(file);
+        return file;
+    }
+
+    @Benchmark
+    public File mappedQuickSort() throws IOException {
+        MappedSort.quickSort(file);
+        return file;
+    }
+
+    @Benchmark
+    public File heapRadixSort() throws IOException {
+        try (FileChannel channel = new RandomAccessFile(file, "rw").getChannel()) {
+            ByteBuffer bytes = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            long[] arr = new long[size];
+            int n = 0;
+            long pos = 0;
+            while (n < size) {
+                bytes.clear();
+                bytes.limit((int) Math.min(bytes.capacity(), (long) (size - n) * Long.BYTES));
+                while (bytes.hasRemaining()) {
+                    pos += channel.read(bytes, pos);
+                }
+                bytes.flip();
+                int count = bytes.remaining() / Long.BYTES;
+                bytes.asLongBuffer().get(arr, n, count);
+                n += count;
+            }
+            RadixSort.sort(arr);
+            for (n = 0, pos = 0; n < size; ) {
+                bytes.clear();
+                int count = Math.min(bytes.capacity() / Long.BYTES, size - n);
+                bytes.asLongBuffer().put(arr, n, count);
+                bytes.limit(count * Long.BYTES);
+                while (bytes.hasRemaining()) {
+                    pos += channel.write(bytes, pos);
+                }
+                n += count;
+            }
+        }
+        return file;
+    }
+}
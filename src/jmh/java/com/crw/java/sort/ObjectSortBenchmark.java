@@ -0,0 +1,103 @@
+package com.crw.java.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象数组排序：比较器排序与按基本类型关键字间接排序的对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectSortBenchmark {
+
+    /**
+     * 模拟业务记录
+     */
+    public static class Record {
+        final long id;
+        final int score;
+
+        Record(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<Record> BY_SCORE = Comparator.comparingInt(r -> r.score);
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Record[] source;
+    private Record[] arr;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random r = new Random(42L);
+        source = new Record[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = new Record(r.nextLong(), r.nextInt());
+        }
+        arr = new Record[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public Record[] mergeSort() {
+        MergeSort.sort(arr, BY_SCORE);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] timSort() {
+        TimSort.sort(arr, BY_SCORE);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] introSort() {
+        IntroSort.sort(arr, BY_SCORE);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] keySortByInt() {
+        KeySort.sortByInt(arr, r -> r.score);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] keySortByLong() {
+        KeySort.sortByLong(arr, r -> r.id);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] arraysSort() {
+        Arrays.sort(arr, BY_SCORE);
+        return arr;
+    }
+}
@@ -0,0 +1,85 @@
+package com.crw.java.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 位随机关键字的并行排序扩展性测试
+ * <p>
+ * 5 亿个 long 需要约 8GB 堆(源数组 + 工作数组 + 辅助数组)，可通过 -p size=500000000 -jvmArgsAppend -Xmx14g 运行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelLongSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"1", "4", "16", "32"})
+    public int threads;
+
+    private long[] source;
+    private long[] arr;
+    private long[] scratch;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random r = new Random(42L);
+        source = new long[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = r.nextLong();
+        }
+        arr = new long[size];
+        scratch = new long[size];
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long[] radixSort() {
+        RadixSort.sort(arr, scratch);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] parallelRadixSort() {
+        ParallelRadixSort.sort(arr, scratch, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] arraysParallelSort() throws Exception {
+        pool.submit(() -> Arrays.parallelSort(arr)).get();
+        return arr;
+    }
+}
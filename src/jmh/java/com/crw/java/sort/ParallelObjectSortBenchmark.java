@@ -0,0 +1,98 @@
+package com.crw.java.sort;
+
+import com.crw.java.sort.ObjectSortBenchmark.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象数组并行排序的扩展性测试
+ * <p>
+ * threads 为 ForkJoinPool 的并行度；串行的 TimSort 不受 threads 影响，作为基线。
+ * keys 为关键字的取值个数，较小时大量重复，用于观察相等桶的效果。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelObjectSortBenchmark {
+
+    private static final Comparator<Record> BY_SCORE = Comparator.comparingInt(r -> r.score);
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"100", "2147483647"})
+    public int keys;
+
+    @Param({"1", "4", "16", "32"})
+    public int threads;
+
+    private Record[] source;
+    private Record[] arr;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random r = new Random(42L);
+        source = new Record[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = new Record(i, r.nextInt(keys));
+        }
+        arr = new Record[size];
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Record[] timSort() {
+        TimSort.sort(arr, BY_SCORE);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] sampleSort() {
+        ParallelSampleSort.sort(arr, BY_SCORE, false, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] sampleSortStable() {
+        ParallelSampleSort.sort(arr, BY_SCORE, true, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public Record[] arraysParallelSort() throws Exception {
+        // Arrays.parallelSort 固定使用公共池，在自定义池中提交以控制并行度
+        pool.submit(() -> Arrays.parallelSort(arr, BY_SCORE)).get();
+        return arr;
+    }
+}
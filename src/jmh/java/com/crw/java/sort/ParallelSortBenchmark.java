@@ -0,0 +1,100 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行排序的扩展性测试
+ * <p>
+ * threads 为 ForkJoinPool 的并行度，用于观察 1 ~ N 核的加速比。
+ * 基线不受 threads 影响：串行的 MergeSort、IntroSort(QuickSort 没有枢轴选取，有序输入会栈溢出，不作基线)，
+ * 以及 Arrays.parallelSort，它的并行度和切分粒度都取自公共池。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    @Param({"1", "4", "16", "32"})
+    public int threads;
+
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+        scratch = new int[size];
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        MergeSort.sort(arr, scratch);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] introSort() {
+        IntroSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        ParallelMergeSort.sort(arr, scratch, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelRadixSort() {
+        ParallelRadixSort.sort(arr, scratch, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        // 按公共池的并行度切分(公共池并行度为 1 时直接串行排序)，在 pool 中提交也控制不了线程数，
+        // 用 -Djava.util.concurrent.ForkJoinPool.common.parallelism 调整
+        Arrays.parallelSort(arr);
+        return arr;
+    }
+}
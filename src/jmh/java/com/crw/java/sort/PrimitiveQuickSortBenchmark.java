@@ -0,0 +1,164 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单枢轴、双枢轴、块划分快速排序与 Arrays.sort 在基本类型数组上的对比
+ * <p>
+ * int[] 覆盖所有数据分布；long[] 与 double[] 使用均匀随机数据，这是分支预测失败最多的情况。
+ * QuickSort 在有序输入上会栈溢出，可用 -p distribution=RANDOM 只测随机数据。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrimitiveQuickSortBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class IntState {
+        @Param({"1000", "100000", "10000000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE", "ZIPF"})
+        public Distribution distribution;
+
+        int[] source;
+        int[] arr;
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            source = distribution.generate(size, 42L);
+            arr = new int[size];
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation() {
+            System.arraycopy(source, 0, arr, 0, size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongState {
+        @Param({"1000", "100000", "10000000"})
+        public int size;
+
+        long[] source;
+        long[] arr;
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            Random r = new Random(42L);
+            source = new long[size];
+            for (int i = 0; i < size; i++) {
+                source[i] = r.nextLong();
+            }
+            arr = new long[size];
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation() {
+            System.arraycopy(source, 0, arr, 0, size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DoubleState {
+        @Param({"1000", "100000", "10000000"})
+        public int size;
+
+        double[] source;
+        double[] arr;
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            Random r = new Random(42L);
+            source = new double[size];
+            for (int i = 0; i < size; i++) {
+                source[i] = r.nextDouble();
+            }
+            arr = new double[size];
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation() {
+            System.arraycopy(source, 0, arr, 0, size);
+        }
+    }
+
+    @Benchmark
+    public int[] intQuickSort(IntState s) {
+        QuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public int[] intDualPivot(IntState s) {
+        DualPivotQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public int[] intBlock(IntState s) {
+        BlockQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public int[] intArraysSort(IntState s) {
+        Arrays.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public long[] longDualPivot(LongState s) {
+        DualPivotQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public long[] longBlock(LongState s) {
+        BlockQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public long[] longArraysSort(LongState s) {
+        Arrays.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public double[] doubleDualPivot(DoubleState s) {
+        DualPivotQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public double[] doubleBlock(DoubleState s) {
+        BlockQuickSort.sort(s.arr);
+        return s.arr;
+    }
+
+    @Benchmark
+    public double[] doubleArraysSort(DoubleState s) {
+        Arrays.sort(s.arr);
+        return s.arr;
+    }
+}
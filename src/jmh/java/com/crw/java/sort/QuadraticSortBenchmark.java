@@ -0,0 +1,90 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import com.crw.java.benchmark.NullOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(n^2) 排序的基准测试
+ * <p>
+ * 平方级算法在 1e6 以上规模单次排序需要数小时，默认只测到 1e5；
+ * 需要更大规模时可以通过 -p size=1000000 覆盖。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QuadraticSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE", "ZIPF"})
+    public Distribution distribution;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        NullOutput.mute();
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        NullOutput.restore();
+    }
+
+    @Benchmark
+    public int[] bubbleSort() {
+        BubbleSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] selectSort() {
+        SelectSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertSort() {
+        InsertSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] binaryInsertSort() {
+        BinaryInsertSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] p2InsertSort() {
+        P2InsertSort.sort(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,91 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 选择、部分排序、流式 Top-K 与完整排序的对比
+ * <p>
+ * median*：取中位数；topK*：取最大的 k 个(部分排序取最小的 k 个，代价相同)。
+ * 对象版本使用 Integer，与 TopK 的比较方式一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SelectionBenchmark {
+
+    @Param({"1000000", "10000000", "50000000"})
+    public int size;
+
+    @Param({"100"})
+    public int k;
+
+    @Param({"RANDOM", "SORTED", "FEW_UNIQUE", "ORGAN_PIPE", "ZIPF"})
+    public Distribution distribution;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int medianSelect() {
+        return QuickSelect.select(arr, size / 2);
+    }
+
+    @Benchmark
+    public int medianFullSort() {
+        IntroSort.sort(arr);
+        return arr[size / 2];
+    }
+
+    @Benchmark
+    public int[] topKPartialSort() {
+        QuickSelect.partialSort(arr, k);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] topKFullSort() {
+        IntroSort.sort(arr);
+        return arr;
+    }
+
+    /**
+     * 流式 Top-K 不修改输入，直接读 source；装箱开销计入结果
+     */
+    @Benchmark
+    public List<Integer> topKStream() {
+        TopK<Integer> top = new TopK<>(k);
+        for (int v : source) {
+            top.offer(v);
+        }
+        return top.toList();
+    }
+}
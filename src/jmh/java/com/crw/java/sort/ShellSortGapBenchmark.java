@@ -0,0 +1,100 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 希尔排序各增量序列的对比
+ * <p>
+ * 作为普通基准运行：java -jar target/benchmarks.jar ShellSortGapBenchmark
+ * <p>
+ * 选择模式：对给定的规模和分布测出全部序列，输出最快的一个：
+ * <pre>
+ * java -cp target/benchmarks.jar com.crw.java.sort.ShellSortGapBenchmark 1000000 RANDOM
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShellSortGapBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "NEARLY_SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE", "ZIPF"})
+    public Distribution distribution;
+
+    @Param({"SHELL", "CIURA", "TOKUDA", "SEDGEWICK", "PRATT"})
+    public GapSequences sequence;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] shellSort() {
+        ShellSort.sort(arr, sequence);
+        return arr;
+    }
+
+    /**
+     * 选择模式
+     *
+     * @param args 规模 分布，例如 1000000 RANDOM
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: ShellSortGapBenchmark <size> <distribution>");
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .include(ShellSortGapBenchmark.class.getSimpleName())
+                .param("size", args[0])
+                .param("distribution", args[1])
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        String best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (RunResult result : results) {
+            double score = result.getPrimaryResult().getScore();
+            if (score < bestScore) {
+                bestScore = score;
+                best = result.getParams().getParam("sequence");
+            }
+        }
+        System.out.printf("best gap sequence for size=%s, distribution=%s: %s (%.1f us/op)%n",
+                args[0], args[1], best, bestScore);
+    }
+}
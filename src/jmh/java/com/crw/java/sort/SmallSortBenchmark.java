@@ -0,0 +1,90 @@
+package com.crw.java.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 小子表排序内核的对比：排序网络与插入排序
+ * <p>
+ * 模拟递归排序的叶子：一个大数组被切成 SLICES 个连续的小子表，逐个排序，结果是每个子表的平均耗时。
+ * sliceSize=MIXED 时子表长度在 2~16 之间随机，更接近快速排序叶子的真实分布。
+ * 整体排序的收益见 {@link SortBenchmark} 的 introSort/quickSort/mergeSort。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SmallSortBenchmark {
+
+    private static final int SLICES = 1 << 14;
+
+    @Param({"4", "8", "12", "16", "MIXED"})
+    public String sliceSize;
+
+    private int[] source;
+    private int[] arr;
+    private int[] bounds;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random random = new Random(42L);
+        bounds = new int[SLICES + 1];
+        for (int i = 0; i < SLICES; i++) {
+            int len = "MIXED".equals(sliceSize) ? 2 + random.nextInt(15) : Integer.parseInt(sliceSize);
+            bounds[i + 1] = bounds[i] + len;
+        }
+        source = new int[bounds[SLICES]];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        arr = new int[source.length];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, source.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SLICES)
+    public int[] insertSort() {
+        for (int i = 0; i < SLICES; i++) {
+            InsertSort.sort(arr, bounds[i], bounds[i + 1] - 1);
+        }
+        return arr;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SLICES)
+    public int[] binaryInsertSort() {
+        for (int i = 0; i < SLICES; i++) {
+            BinaryInsertSort.insert(arr, bounds[i], bounds[i] + 1, bounds[i + 1] - 1);
+        }
+        return arr;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SLICES)
+    public int[] sortingNetwork() {
+        for (int i = 0; i < SLICES; i++) {
+            SmallSort.sort(arr, bounds[i], bounds[i + 1] - 1);
+        }
+        return arr;
+    }
+}
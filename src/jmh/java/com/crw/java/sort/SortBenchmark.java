@@ -0,0 +1,114 @@
+package com.crw.java.sort;
+
+import com.crw.java.benchmark.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(n*logn) 及线性时间排序的基准测试，规模 1e3 ~ 1e8
+ * <p>
+ * 1e8 规模需要约 800MB 堆（源数组 + 工作数组），运行时可通过 -jvmArgsAppend -Xmx4g 调整。
+ * 注意：QuickSort 以第一个元素为枢轴，有序输入会退化并可能栈溢出，JMH 会将该组合记为失败并继续。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "NEARLY_SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE", "ZIPF"})
+    public Distribution distribution;
+
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = distribution.generate(size, 42L);
+        arr = new int[size];
+        scratch = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] shellSort() {
+        ShellSort.shellSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] shellSort2() {
+        ShellSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        QuickSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] introSort() {
+        IntroSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        MergeSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSortScratch() {
+        MergeSort.sort(arr, scratch);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] timSort() {
+        TimSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort() {
+        HeapSort.heapSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        RadixSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSortScratch() {
+        RadixSort.sort(arr, scratch);
+        return arr;
+    }
+}
@@ -0,0 +1,430 @@
+package com.crw.java.hashtable;
+
+import java.util.Random;
+
+/**
+ * 分桶布谷鸟散列表：每个桶 4 个位置，带溢出暂存区，广度优先搜索踢出路径
+ * <p>
+ * 与 {@link CuckooHashTable} 的区别：
+ * 1.分桶(4 路组相联)：每个散列函数定位到一个桶而不是一个位置，桶中任何一个空位都可以放。
+ * 两个散列函数、每桶 4 个位置时装填因子可以到 95% 左右，CuckooHashTable 只有 0.4。
+ * 一个桶的 4 个位置相邻，查找时每个散列函数只访问一段连续内存。
+ * 2.广度优先搜索踢出路径：候选桶都满时，不是随机踢出一个元素、再踢出下一个地碰运气，
+ * 而是从候选桶出发广度优先搜索"把某个元素挪到它的另一个桶"的链，找到最短的一条以空位结尾的路径，
+ * 再从路径末尾往回逐个挪动，最后把新元素放进腾出的位置。路径最短，挪动次数少；
+ * 每一步都是把元素挪进空位，表中任何时刻都不会有元素"暂时不在表里"。
+ * 3.暂存区：搜索不到路径时，元素先放进一个很小的暂存区(stash)，暂存区满了才再散列。
+ * 少数难以安置的元素不再触发整表重建，再散列的次数大大减少。
+ * 4.标签：每个位置另存元素在第 0 个散列函数下的散列值(tag)，查找时先比较 tag，相同才调用 equals，
+ * 不必为桶中每个位置都读一次元素对象；挪动元素时用 tag 直接算出它的第 0 个桶。
+ * <p>
+ * 表的桶数为 2 的幂，hashFunctions 返回的散列值再经 {@link Hashing#mix(int)} 混合后定位到桶。
+ *
+ * @param <T>
+ */
+public class BucketizedCuckooHashTable<T> {
+
+    /**
+     * 每个桶的位置数
+     */
+    static final int SLOTS_PER_BUCKET = 4;
+
+    /**
+     * 最大装填因子
+     */
+    private static final double MAX_LOAD = 0.95;
+
+    /**
+     * 暂存区大小
+     */
+    private static final int STASH_SIZE = 8;
+
+    /**
+     * 广度优先搜索最多访问的桶数
+     */
+    private static final int MAX_BFS_NODES = 512;
+
+    /**
+     * 允许连续 rehash 的次数，超过后扩容
+     */
+    private static final int ALLOWED_REHASHES = 1;
+
+    private final HashFamily<? super T> hashFunctions;
+    private final int numHashFunctions;
+
+    /**
+     * 第 b 个桶为 slots[b*4 ... b*4+3]
+     */
+    private Object[] slots;
+    private int[] tags;
+    private int bucketMask;
+    private final Object[] stash = new Object[STASH_SIZE];
+    private int stashSize;
+    private int currentSize;
+    private int rehashes;
+
+    // 广度优先搜索的队列：桶号、父节点、从父桶的哪个位置挪过来
+    private final int[] queueBucket = new int[MAX_BFS_NODES];
+    private final int[] queueParent = new int[MAX_BFS_NODES];
+    private final int[] queueSlot = new int[MAX_BFS_NODES];
+
+    public BucketizedCuckooHashTable(HashFamily<? super T> hf) {
+        this(hf, 0);
+    }
+
+    /**
+     * @param hf
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     */
+    public BucketizedCuckooHashTable(HashFamily<? super T> hf, int expectedSize) {
+        hashFunctions = hf;
+        numHashFunctions = hf.getNumberOfFunctions();
+        int slotCount = Hashing.capacityFor(expectedSize, MAX_LOAD);
+        allocateArray(Math.max(1, slotCount / SLOTS_PER_BUCKET));
+    }
+
+    public boolean contains(T x) {
+        return findPos(x, tag(x)) >= 0 || stashSize > 0 && stashIndexOf(x) >= 0;
+    }
+
+    /**
+     * 在候选桶中查找，返回在 slots 中的下标，找不到返回 -1
+     */
+    private int findPos(Object x, int tag) {
+        for (int i = 0; i < numHashFunctions; i++) {
+            int base = bucket(x, i, tag) * SLOTS_PER_BUCKET;
+            for (int s = base; s < base + SLOTS_PER_BUCKET; s++) {
+                if (tags[s] == tag && x.equals(slots[s])) {
+                    return s;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 插入
+     *
+     * @param x
+     * @return 是否新插入，已存在时返回 false
+     */
+    public boolean insert(T x) {
+        if (contains(x)) {
+            return false;
+        }
+        if (currentSize >= slots.length * MAX_LOAD) {
+            rebuild(slots.length / SLOTS_PER_BUCKET * 2, null, false);
+        }
+        if (!insertHelper(x)) {
+            rebuild(slots.length / SLOTS_PER_BUCKET, x, true);
+        }
+        currentSize++;
+        return true;
+    }
+
+    /**
+     * 依次尝试：候选桶中的空位、广度优先搜索踢出路径、暂存区
+     *
+     * @return 都失败时返回 false，需要再散列
+     */
+    private boolean insertHelper(Object x) {
+        int tag = tag(x);
+        for (int i = 0; i < numHashFunctions; i++) {
+            int free = freeSlot(bucket(x, i, tag));
+            if (free >= 0) {
+                slots[free] = x;
+                tags[free] = tag;
+                return true;
+            }
+        }
+        if (cuckooPath(x, tag)) {
+            return true;
+        }
+        if (stashSize < STASH_SIZE) {
+            stash[stashSize++] = x;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 从 x 的候选桶出发广度优先搜索，找到以空位结尾的最短踢出路径并沿路径挪动
+     */
+    private boolean cuckooPath(Object x, int tag) {
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < numHashFunctions; i++) {
+            queueBucket[tail] = bucket(x, i, tag);
+            queueParent[tail] = -1;
+            queueSlot[tail] = -1;
+            tail++;
+        }
+        while (head < tail) {
+            int node = head++;
+            int b = queueBucket[node];
+            for (int s = 0; s < SLOTS_PER_BUCKET; s++) {
+                int pos = b * SLOTS_PER_BUCKET + s;
+                for (int i = 0; i < numHashFunctions; i++) {
+                    int alt = bucket(slots[pos], i, tags[pos]);
+                    if (alt == b || onPath(node, alt)) {
+                        continue;
+                    }
+                    if (tail == MAX_BFS_NODES) {
+                        return false;
+                    }
+                    queueBucket[tail] = alt;
+                    queueParent[tail] = node;
+                    queueSlot[tail] = s;
+                    int free = freeSlot(alt);
+                    if (free >= 0) {
+                        movePath(tail, free, x, tag);
+                        return true;
+                    }
+                    tail++;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 桶 bucket 是否已在从根到 node 的路径上，路径上的桶不能重复，否则挪动时会把元素挪进不属于它的桶
+     */
+    private boolean onPath(int node, int bucket) {
+        for (; node >= 0; node = queueParent[node]) {
+            if (queueBucket[node] == bucket) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从路径末尾往回挪动：每个元素挪进下一个桶的空位，腾出的位置留给上一个元素，最后放入 x
+     *
+     * @param node 路径末尾
+     * @param free 末尾桶中空位的下标
+     */
+    private void movePath(int node, int free, Object x, int tag) {
+        int dst = free;
+        while (queueParent[node] >= 0) {
+            int src = queueBucket[queueParent[node]] * SLOTS_PER_BUCKET + queueSlot[node];
+            slots[dst] = slots[src];
+            tags[dst] = tags[src];
+            dst = src;
+            node = queueParent[node];
+        }
+        slots[dst] = x;
+        tags[dst] = tag;
+    }
+
+    /**
+     * 删除
+     *
+     * @param x
+     * @return 是否存在
+     */
+    public boolean remove(T x) {
+        int pos = findPos(x, tag(x));
+        if (pos >= 0) {
+            slots[pos] = null;
+            currentSize--;
+            drainStash();
+            return true;
+        }
+        int j = stashSize > 0 ? stashIndexOf(x) : -1;
+        if (j < 0) {
+            return false;
+        }
+        stash[j] = stash[--stashSize];
+        stash[stashSize] = null;
+        currentSize--;
+        return true;
+    }
+
+    /**
+     * 腾出位置后，把暂存区中能直接放进候选桶的元素移回表中
+     */
+    private void drainStash() {
+        for (int j = stashSize - 1; j >= 0; j--) {
+            Object y = stash[j];
+            int tag = tag(y);
+            for (int i = 0; i < numHashFunctions; i++) {
+                int free = freeSlot(bucket(y, i, tag));
+                if (free >= 0) {
+                    slots[free] = y;
+                    tags[free] = tag;
+                    stash[j] = stash[--stashSize];
+                    stash[stashSize] = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return currentSize;
+    }
+
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    public void makeEmpty() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+        for (int j = 0; j < stashSize; j++) {
+            stash[j] = null;
+        }
+        stashSize = 0;
+        currentSize = 0;
+    }
+
+    /**
+     * 当前装填因子(不含暂存区)
+     *
+     * @return
+     */
+    public double loadFactor() {
+        return (double) (currentSize - stashSize) / slots.length;
+    }
+
+    /**
+     * 累计再散列(更换散列函数)的次数，不含单纯的扩容
+     *
+     * @return
+     */
+    public int rehashCount() {
+        return rehashes;
+    }
+
+    /**
+     * 元素在第 0 个散列函数下混合后的散列值
+     */
+    private int tag(Object x) {
+        return hash(x, 0);
+    }
+
+    /**
+     * 第 which 个桶，第 0 个桶直接由 tag 算出
+     */
+    private int bucket(Object x, int which, int tag) {
+        return (which == 0 ? tag : hash(x, which)) & bucketMask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int hash(Object x, int which) {
+        return Hashing.mix(((HashFamily<Object>) hashFunctions).hash(x, which));
+    }
+
+    /**
+     * 桶 b 中第一个空位在 slots 中的下标，桶满返回 -1
+     */
+    private int freeSlot(int b) {
+        int base = b * SLOTS_PER_BUCKET;
+        for (int s = base; s < base + SLOTS_PER_BUCKET; s++) {
+            if (slots[s] == null) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private int stashIndexOf(Object x) {
+        for (int j = 0; j < stashSize; j++) {
+            if (x.equals(stash[j])) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private void allocateArray(int numBuckets) {
+        slots = new Object[numBuckets * SLOTS_PER_BUCKET];
+        tags = new int[numBuckets * SLOTS_PER_BUCKET];
+        bucketMask = numBuckets - 1;
+    }
+
+    /**
+     * 重建：把所有元素(以及 extra)放进 numBuckets 个桶的新表。
+     * newFunctions 为 true 时先更换散列函数；放不下时再换散列函数重试，连续失败超过 ALLOWED_REHASHES 次则扩容
+     */
+    private void rebuild(int numBuckets, Object extra, boolean newFunctions) {
+        Object[] all = new Object[currentSize + 1];
+        int n = 0;
+        for (Object y : slots) {
+            if (y != null) {
+                all[n++] = y;
+            }
+        }
+        for (int j = 0; j < stashSize; j++) {
+            all[n++] = stash[j];
+            stash[j] = null;
+        }
+        if (extra != null) {
+            all[n++] = extra;
+        }
+        for (int attempt = 0; ; attempt++) {
+            if (newFunctions || attempt > 0) {
+                hashFunctions.generateNewFunctions();
+                rehashes++;
+            }
+            if (attempt > ALLOWED_REHASHES) {
+                if (numBuckets * SLOTS_PER_BUCKET >= Hashing.MAX_CAPACITY) {
+                    throw new IllegalStateException("hash table is full");
+                }
+                numBuckets <<= 1;
+                attempt = 0;
+            }
+            allocateArray(numBuckets);
+            stashSize = 0;
+            boolean ok = true;
+            for (int j = 0; j < n && ok; j++) {
+                ok = insertHelper(all[j]);
+            }
+            if (ok) {
+                return;
+            }
+            for (int j = 0; j < stashSize; j++) {
+                stash[j] = null;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        HashFamily<Integer> hashFamily = new HashFamily<Integer>() {
+            private final Random r = new Random(1);
+            private final int[] multipliers = {0x9E3779B9, 0x85EBCA6B};
+
+            @Override
+            public int hash(Integer x, int which) {
+                return x * multipliers[which];
+            }
+
+            @Override
+            public int getNumberOfFunctions() {
+                return multipliers.length;
+            }
+
+            @Override
+            public void generateNewFunctions() {
+                for (int i = 0; i < multipliers.length; i++) {
+                    multipliers[i] = r.nextInt() | 1;
+                }
+            }
+        };
+        // 从默认大小开始插入，每次扩容前记录达到的装填因子
+        BucketizedCuckooHashTable<Integer> table = new BucketizedCuckooHashTable<>(hashFamily);
+        Random random = new Random(42);
+        double maxLoad = 0;
+        while (table.size() < 1 << 20) {
+            table.insert(random.nextInt());
+            if (table.slots.length >= 1 << 12) { // 很小的表不计
+                maxLoad = Math.max(maxLoad, table.loadFactor());
+            }
+        }
+        System.out.printf("size: %d, load: %.3f, max load: %.3f, stash: %d, rehashes: %d%n",
+                table.size(), table.loadFactor(), maxLoad, table.stashSize, table.rehashCount());
+    }
+}
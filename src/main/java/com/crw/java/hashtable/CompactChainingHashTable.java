@@ -0,0 +1,344 @@
+package com.crw.java.hashtable;
+
+import com.crw.java.tree.AvlTree;
+
+import java.util.Arrays;
+
+/**
+ * 哈希表：分离链接法，桶为紧凑数组，冲突过多时转为 AVL 树
+ * <p>
+ * 与 {@link SeparateChainingHashTable} 的区别：
+ * 1.桶懒分配：没有元素的桶只是 null，不会像 makeEmpty 那样为每个桶预先分配一个 LinkedList。
+ * 2.数组桶：桶中的元素连续存放在 Object[] 中，从 2 个位置开始按两倍增长，末尾为 null。
+ * 查找只需顺序扫描一个小数组，没有 LinkedList 每个节点一个对象、逐个跳转指针的开销。
+ * 删除时用最后一个元素填补空位，保持连续。
+ * 3.树化：桶中元素达到 TREEIFY_THRESHOLD 且都是同一个 Comparable 类型时，转为 {@link AvlTree}，
+ * 按(散列值, compareTo)排序(compareTo 需与 equals 一致)，查找为 O(logN)。即使 hashCode 分布很差或者被刻意构造成相同，
+ * 最坏情况的查找也不会退化为 O(N)。删除后元素不超过 UNTREEIFY_THRESHOLD 时转回数组桶。
+ * 元素不是 Comparable 或者类型不一的桶不树化，仍然是数组桶。
+ * <p>
+ * 表的大小为 2 的幂，hashCode 经 {@link Hashing#mix(int)} 混合，装填因子与 SeparateChainingHashTable 相同，不超过 1。
+ *
+ * @param <T>
+ */
+public class CompactChainingHashTable<T> {
+
+    /**
+     * 桶中元素达到该个数时转为树
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * 树桶中元素不超过该个数时转回数组，比 TREEIFY_THRESHOLD 小，避免在阈值附近反复转换
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    private static final int INITIAL_BIN_CAPACITY = 2;
+
+    /**
+     * 树中的元素：先比较散列值，相同时再用元素自身的 compareTo
+     */
+    private static final class TreeEntry<T> implements Comparable<TreeEntry<T>> {
+        final int hash;
+        final T element;
+
+        TreeEntry(int hash, T element) {
+            this.hash = hash;
+            this.element = element;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compareTo(TreeEntry<T> o) {
+            if (hash != o.hash) {
+                return Integer.compare(hash, o.hash);
+            }
+            return ((Comparable<Object>) element).compareTo(o.element);
+        }
+    }
+
+    /**
+     * 树桶：只存放 type 类型的元素
+     */
+    private static final class TreeBin<T> {
+        final Class<?> type;
+        final AvlTree<TreeEntry<T>> tree = new AvlTree<>();
+        int size;
+
+        TreeBin(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * 每个桶为 null、Object[] 或者 TreeBin
+     */
+    private Object[] bins;
+    private int mask;
+    private int currentSize;
+
+    public CompactChainingHashTable() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     */
+    public CompactChainingHashTable(int expectedSize) {
+        allocateBins(Hashing.capacityFor(expectedSize, 1.0));
+    }
+
+    /**
+     * 是否包含
+     *
+     * @param x
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public boolean contains(T x) {
+        int h = Hashing.mix(x.hashCode());
+        Object bin = bins[h & mask];
+        if (bin == null) {
+            return false;
+        }
+        if (bin instanceof TreeBin) {
+            TreeBin<T> tb = (TreeBin<T>) bin;
+            return x.getClass() == tb.type && tb.tree.contains(new TreeEntry<>(h, x));
+        }
+        return indexOf((Object[]) bin, x) >= 0;
+    }
+
+    /**
+     * 插入元素
+     *
+     * @param x
+     * @return 是否新插入，已存在时返回 false
+     */
+    public boolean insert(T x) {
+        if (!insertHelper(x, Hashing.mix(x.hashCode()))) {
+            return false;
+        }
+        if (++currentSize > bins.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean insertHelper(T x, int h) {
+        int i = h & mask;
+        Object bin = bins[i];
+        if (bin == null) {
+            Object[] a = new Object[INITIAL_BIN_CAPACITY];
+            a[0] = x;
+            bins[i] = a;
+            return true;
+        }
+        if (bin instanceof TreeBin) {
+            TreeBin<T> tb = (TreeBin<T>) bin;
+            if (x.getClass() == tb.type) {
+                TreeEntry<T> e = new TreeEntry<>(h, x);
+                if (tb.tree.contains(e)) {
+                    return false;
+                }
+                tb.tree.insert(e);
+                tb.size++;
+                return true;
+            }
+            // 类型不同的元素不能放进树里，整个桶转回数组
+            bin = untreeify(tb, tb.size + 1);
+            bins[i] = bin;
+        }
+        Object[] a = (Object[]) bin;
+        int n = 0;
+        for (; n < a.length && a[n] != null; n++) {
+            if (a[n].equals(x)) {
+                return false;
+            }
+        }
+        if (n == a.length) {
+            a = Arrays.copyOf(a, a.length << 1);
+            bins[i] = a;
+        }
+        a[n++] = x;
+        if (n >= TREEIFY_THRESHOLD) {
+            treeifyIfComparable(i, a, n);
+        }
+        return true;
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param x
+     * @return 是否存在
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(T x) {
+        int h = Hashing.mix(x.hashCode());
+        int i = h & mask;
+        Object bin = bins[i];
+        if (bin == null) {
+            return false;
+        }
+        if (bin instanceof TreeBin) {
+            TreeBin<T> tb = (TreeBin<T>) bin;
+            TreeEntry<T> e = new TreeEntry<>(h, x);
+            if (x.getClass() != tb.type || !tb.tree.contains(e)) {
+                return false;
+            }
+            tb.tree.remove(e);
+            if (--tb.size <= UNTREEIFY_THRESHOLD) {
+                bins[i] = untreeify(tb, tb.size);
+            }
+        } else {
+            Object[] a = (Object[]) bin;
+            int j = indexOf(a, x);
+            if (j < 0) {
+                return false;
+            }
+            int last = j;
+            while (last + 1 < a.length && a[last + 1] != null) {
+                last++;
+            }
+            a[j] = a[last]; // 最后一个元素填补空位
+            a[last] = null;
+            if (last == 0) { // 桶空了就释放
+                bins[i] = null;
+            }
+        }
+        currentSize--;
+        return true;
+    }
+
+    public int size() {
+        return currentSize;
+    }
+
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    public void makeEmpty() {
+        Arrays.fill(bins, null);
+        currentSize = 0;
+    }
+
+    /**
+     * 已树化的桶的个数
+     *
+     * @return
+     */
+    public int treeBinCount() {
+        int count = 0;
+        for (Object bin : bins) {
+            if (bin instanceof TreeBin) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int indexOf(Object[] a, Object x) {
+        for (int j = 0; j < a.length && a[j] != null; j++) {
+            if (a[j].equals(x)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 数组桶 a[0...n-1] 中的元素都是同一个 Comparable 类型时转为树桶
+     */
+    private void treeifyIfComparable(int i, Object[] a, int n) {
+        Class<?> type = a[0].getClass();
+        if (!Comparable.class.isAssignableFrom(type)) {
+            return;
+        }
+        for (int j = 1; j < n; j++) {
+            if (a[j].getClass() != type) {
+                return;
+            }
+        }
+        TreeBin<T> tb = new TreeBin<>(type);
+        for (int j = 0; j < n; j++) {
+            @SuppressWarnings("unchecked")
+            T e = (T) a[j];
+            tb.tree.insert(new TreeEntry<>(Hashing.mix(e.hashCode()), e));
+        }
+        tb.size = n;
+        bins[i] = tb;
+    }
+
+    /**
+     * 树桶转为能放下 capacity 个元素的数组桶
+     */
+    private static Object[] untreeify(TreeBin<?> tb, int capacity) {
+        Object[] a = new Object[Math.max(INITIAL_BIN_CAPACITY, Integer.highestOneBit(capacity - 1) << 1)];
+        int[] n = {0};
+        tb.tree.forEach(e -> a[n[0]++] = e.element);
+        return a;
+    }
+
+    private void allocateBins(int capacity) {
+        bins = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 扩容为两倍，逐个元素重新放置，元素少的树桶会拆成数组桶
+     */
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        Object[] oldBins = bins;
+        if (oldBins.length == Hashing.MAX_CAPACITY) {
+            return; // 不再扩容，只是链变长
+        }
+        allocateBins(oldBins.length << 1);
+        for (Object bin : oldBins) {
+            if (bin instanceof TreeBin) {
+                ((TreeBin<T>) bin).tree.forEach(e -> insertHelper(e.element, e.hash));
+            } else if (bin != null) {
+                Object[] a = (Object[]) bin;
+                for (int j = 0; j < a.length && a[j] != null; j++) {
+                    T e = (T) a[j];
+                    insertHelper(e, Hashing.mix(e.hashCode()));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        // "Aa" 与 "BB" 的 hashCode 相同，由它们拼接成的等长字符串 hashCode 都相同
+        String[] pieces = {"Aa", "BB"};
+        int bits = 12;
+        CompactChainingHashTable<String> table = new CompactChainingHashTable<>();
+        SeparateChainingHashTable<String> chaining = new SeparateChainingHashTable<>();
+        String[] words = new String[1 << bits];
+        for (int m = 0; m < words.length; m++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < bits; b++) {
+                sb.append(pieces[(m >>> b) & 1]);
+            }
+            words[m] = sb.toString();
+            table.insert(words[m]);
+            chaining.insert(words[m]);
+        }
+        System.out.println(words.length + " strings with hashCode " + words[0].hashCode()
+                + ", size: " + table.size() + ", tree bins: " + table.treeBinCount());
+
+        long start = System.nanoTime();
+        for (String w : words) {
+            table.contains(w);
+        }
+        long tree = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (String w : words) {
+            chaining.contains(w);
+        }
+        long list = System.nanoTime() - start;
+        System.out.println("CompactChainingHashTable: " + tree / words.length + " ns/contains, "
+                + "SeparateChainingHashTable: " + list / words.length + " ns/contains");
+    }
+}
@@ -0,0 +1,670 @@
+package com.crw.java.hashtable;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的布谷鸟散列映射：乐观读、分段锁写，参照 MemC3 / libcuckoo
+ * <p>
+ * 桶的组织与 {@link BucketizedCuckooHashTable} 相同：两个散列函数各定位到一个 4 个位置的桶，每个位置存键、值和 tag。
+ * 1.版本号：桶按 bucket & (stripes - 1) 分成若干段，每段一个版本号。版本号为奇数表示有写线程持有该段，
+ * 写线程用 CAS 把偶数加一来加锁，写完再加一解锁，版本号同时也是锁。
+ * 2.乐观读：get 先读第一个候选桶所在段的版本号，在桶中查找，找不到时再同样地查找第二个桶，最后再读一次版本号；
+ * 版本号都没变且都是偶数，说明查找期间没有写入，结果有效，否则重试。读线程从不加锁，也不写共享内存。
+ * 每个版本号独占一个缓存行(在数组中间隔 8 个 long)，不同段的写入不会让读其他段的线程的缓存行失效；
+ * 代价是每段多占 56 字节，段数最多 MAX_STRIPES 个。插入时优先放进第一个桶，多数命中只需要读一个桶。
+ * 3.写入：put/remove 只锁两个候选桶所在的段(按段号从小到大加锁，避免死锁)，不同段的写入可以并行。
+ * 4.踢出：候选桶都满时，先在不加锁的情况下广度优先搜索一条以空位结尾的踢出路径，
+ * 再从路径末尾往回逐步挪动，每一步只锁源桶和目标桶两个段，并确认源位置仍是搜索时的键、
+ * 按源位置当前的标签算出的另一个桶仍是目标桶、目标桶仍有空位，否则放弃这条路径重新开始。挪动时先写新位置再清旧位置，两段的版本号都会变，正在查找被挪动元素的读线程会重试。
+ * 5.扩容：找不到路径或者装填因子超过 MAX_LOAD 时，先把旧表标记为冻结(frozen)，等正在写的段解锁，
+ * 之后写线程在加锁后看到冻结标记就放弃，等新表发布后重试；旧表不再变化，版本号保持偶数，
+ * 读线程在迁移期间照常读旧表，不会等待。建好两倍大的新表后发布，之后的读写都到新表。
+ * 扩容只排斥写线程，很少发生，这里不做渐进式迁移。
+ * <p>
+ * 只使用 HashFamily 的前两个散列函数。扩容时不更换散列函数，HashFamily 可以被多个线程同时调用。
+ * 不允许 null 键和 null 值。
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ConcurrentCuckooHashMap<K, V> {
+
+    static final int SLOTS_PER_BUCKET = 4;
+
+    private static final double MAX_LOAD = 0.9;
+
+    /**
+     * 段数的上限
+     */
+    private static final int MAX_STRIPES = 1 << 12;
+
+    /**
+     * 相邻两段的版本号在数组中相隔 1 << VERSION_SHIFT 个 long，即 64 字节，各占一个缓存行
+     */
+    private static final int VERSION_SHIFT = 3;
+
+    private static final int MAX_BFS_NODES = 256;
+
+    /**
+     * 连续多少次踢出路径失效后改为扩容
+     */
+    private static final int MAX_PATH_RETRIES = 8;
+
+    /**
+     * 自旋多少次后让出 CPU
+     */
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    /**
+     * 查找期间桶被修改，需要重试
+     */
+    private static final Object RETRY = new Object();
+
+    /**
+     * 一张表：键、值、tag 按位置存放，versions 为各段的版本号，frozen 表示正在被扩容或清空，写线程不能再修改
+     */
+    private static final class Table {
+        /**
+         * 位置 pos 的键在 2 * pos，值在 2 * pos + 1，一个桶的键和值在同一个缓存行内
+         */
+        final AtomicReferenceArray<Object> entries;
+        final AtomicIntegerArray tags;
+        final AtomicLongArray versions;
+        final AtomicBoolean frozen = new AtomicBoolean();
+        final int bucketMask;
+        final int stripeMask;
+
+        Table(int numBuckets) {
+            int n = numBuckets * SLOTS_PER_BUCKET;
+            entries = new AtomicReferenceArray<>(n << 1);
+            tags = new AtomicIntegerArray(n);
+            int stripes = Math.min(numBuckets, MAX_STRIPES);
+            versions = new AtomicLongArray(stripes << VERSION_SHIFT);
+            bucketMask = numBuckets - 1;
+            stripeMask = stripes - 1;
+        }
+
+        int numBuckets() {
+            return bucketMask + 1;
+        }
+
+        int numSlots() {
+            return tags.length();
+        }
+
+        long version(int s) {
+            return versions.get(s << VERSION_SHIFT);
+        }
+
+        Object key(int pos) {
+            return entries.get(pos << 1);
+        }
+
+        Object value(int pos) {
+            return entries.get((pos << 1) + 1);
+        }
+
+        /**
+         * 写入都在持有锁时进行，读线程靠版本号判断是否读到了写到一半的桶，这里只需保证写入的先后顺序，
+         * 用 lazySet 而不是 set，省去每次写入的内存屏障
+         */
+        void setKey(int pos, Object key) {
+            entries.lazySet(pos << 1, key);
+        }
+
+        void setValue(int pos, Object value) {
+            entries.lazySet((pos << 1) + 1, value);
+        }
+
+        Object getAndSetValue(int pos, Object value) {
+            Object old = value(pos);
+            setValue(pos, value);
+            return old;
+        }
+    }
+
+    private final HashFamily<? super K> hashFunctions;
+    private volatile Table table;
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentCuckooHashMap(HashFamily<? super K> hf) {
+        this(hf, 0);
+    }
+
+    /**
+     * @param hf           至少两个散列函数
+     * @param expectedSize 预计的键值对个数，达到之前不会扩容
+     */
+    public ConcurrentCuckooHashMap(HashFamily<? super K> hf, int expectedSize) {
+        if (hf.getNumberOfFunctions() < 2) {
+            throw new IllegalArgumentException("at least 2 hash functions required");
+        }
+        hashFunctions = hf;
+        table = new Table(Math.max(1, Hashing.capacityFor(expectedSize, MAX_LOAD) / SLOTS_PER_BUCKET));
+    }
+
+    /**
+     * 查找键对应的值，不加锁
+     *
+     * @param key
+     * @return 不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int tag = hash(key, 0);
+        Table t = table;
+        int b0 = tag & t.bucketMask;
+        int s0 = b0 & t.stripeMask;
+        long v0 = t.version(s0);
+        if ((v0 & 1) == 0) {
+            int pos = findPos(t, key, tag, b0);
+            Object value = pos >= 0 ? t.value(pos) : secondBucket(t, key, tag);
+            // 版本号未变：查找期间桶没有被修改。表在此期间被替换也没关系，旧表冻结后不再变化，读到的是替换前的结果
+            if (value != RETRY && t.version(s0) == v0) {
+                return (V) value;
+            }
+        }
+        return getSlow(key, tag);
+    }
+
+    /**
+     * 第一个桶中没有找到时查找第二个桶
+     *
+     * @return 第二个桶正在被修改时返回 RETRY
+     */
+    private Object secondBucket(Table t, Object key, int tag) {
+        int b1 = hash(key, 1) & t.bucketMask;
+        int s1 = b1 & t.stripeMask;
+        long v1 = t.version(s1);
+        if ((v1 & 1) != 0) {
+            return RETRY;
+        }
+        int pos = findPos(t, key, tag, b1);
+        Object value = pos >= 0 ? t.value(pos) : null;
+        return t.version(s1) == v1 ? value : RETRY;
+    }
+
+    /**
+     * 查找期间有写入时重试，自旋多次后让出 CPU
+     */
+    @SuppressWarnings("unchecked")
+    private V getSlow(K key, int tag) {
+        for (int spins = 0; ; spins++) {
+            if (spins >= SPINS_BEFORE_YIELD) {
+                Thread.yield();
+            }
+            Table t = table;
+            int b0 = tag & t.bucketMask;
+            int s0 = b0 & t.stripeMask;
+            long v0 = t.version(s0);
+            if ((v0 & 1) == 0) {
+                int pos = findPos(t, key, tag, b0);
+                Object value = pos >= 0 ? t.value(pos) : secondBucket(t, key, tag);
+                if (value != RETRY && t.version(s0) == v0) {
+                    return (V) value;
+                }
+            }
+        }
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 插入或者覆盖
+     *
+     * @param key
+     * @param value
+     * @return 原来的值，新插入的键返回 null
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        int tag = hash(key, 0);
+        int h1 = hash(key, 1);
+        int pathRetries = 0;
+        while (true) {
+            Table t = writableTable();
+            int b0 = tag & t.bucketMask;
+            int b1 = h1 & t.bucketMask;
+            lockPair(t, b0, b1);
+            try {
+                if (t.frozen.get()) { // 加锁前表开始扩容，解锁后等新表
+                    continue;
+                }
+                int pos = findPos(t, key, tag, b0);
+                if (pos < 0) {
+                    pos = findPos(t, key, tag, b1);
+                }
+                if (pos >= 0) {
+                    @SuppressWarnings("unchecked")
+                    V old = (V) t.getAndSetValue(pos, value);
+                    return old;
+                }
+                int free = freeSlot(t, b0);
+                if (free < 0) {
+                    free = freeSlot(t, b1);
+                }
+                if (free >= 0) {
+                    // 先写值和 tag 再写键，读到键时值一定已经写好
+                    t.setValue(free, value);
+                    t.tags.lazySet(free, tag);
+                    t.setKey(free, key);
+                    count.increment();
+                    break;
+                }
+            } finally {
+                unlockPair(t, b0, b1);
+            }
+            // 两个桶都满：沿踢出路径腾出一个位置后重试，多次失败则扩容
+            if (pathRetries++ >= MAX_PATH_RETRIES || !cuckooPath(t, b0, b1)) {
+                resize(t);
+                pathRetries = 0;
+            }
+        }
+        Table t = table;
+        if (count.sum() > (long) (t.numBuckets() * SLOTS_PER_BUCKET * MAX_LOAD)) {
+            resize(t);
+        }
+        return null;
+    }
+
+    /**
+     * 删除
+     *
+     * @param key
+     * @return 原来的值，不存在时返回 null
+     */
+    public V remove(K key) {
+        int tag = hash(key, 0);
+        int h1 = hash(key, 1);
+        while (true) {
+            Table t = writableTable();
+            int b0 = tag & t.bucketMask;
+            int b1 = h1 & t.bucketMask;
+            lockPair(t, b0, b1);
+            try {
+                if (t.frozen.get()) {
+                    continue;
+                }
+                int pos = findPos(t, key, tag, b0);
+                if (pos < 0) {
+                    pos = findPos(t, key, tag, b1);
+                }
+                if (pos < 0) {
+                    return null;
+                }
+                t.setKey(pos, null);
+                @SuppressWarnings("unchecked")
+                V old = (V) t.getAndSetValue(pos, null);
+                count.decrement();
+                return old;
+            } finally {
+                unlockPair(t, b0, b1);
+            }
+        }
+    }
+
+    /**
+     * 键值对个数，有并发写入时为近似值
+     *
+     * @return
+     */
+    public int size() {
+        long n = count.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空：冻结当前表后换成一张同样大小的空表，读线程不受影响
+     */
+    public void makeEmpty() {
+        while (true) {
+            Table t = writableTable();
+            Table empty = new Table(t.numBuckets());
+            if (!freeze(t)) {
+                continue;
+            }
+            int removed = 0;
+            for (int i = 0; i < t.numSlots(); i++) {
+                if (t.key(i) != null) {
+                    removed++;
+                }
+            }
+            table = empty;
+            count.add(-removed);
+            return;
+        }
+    }
+
+    /**
+     * 在桶 b 中查找键，返回位置，找不到返回 -1
+     */
+    private static int findPos(Table t, Object key, int tag, int b) {
+        int base = b * SLOTS_PER_BUCKET;
+        for (int s = base; s < base + SLOTS_PER_BUCKET; s++) {
+            if (t.tags.get(s) == tag && key.equals(t.key(s))) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private static int freeSlot(Table t, int b) {
+        int base = b * SLOTS_PER_BUCKET;
+        for (int s = base; s < base + SLOTS_PER_BUCKET; s++) {
+            if (t.key(s) == null) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int hash(Object key, int which) {
+        return Hashing.mix(((HashFamily<Object>) hashFunctions).hash(key, which));
+    }
+
+    /**
+     * 位置上的键的另一个桶
+     */
+    private int altBucket(Table t, Object key, int tag, int b) {
+        int b0 = tag & t.bucketMask;
+        return b0 != b ? b0 : hash(key, 1) & t.bucketMask;
+    }
+
+    // 锁 start
+
+    private static void lockStripe(Table t, int s) {
+        for (int spins = 0; ; spins++) {
+            long v = t.version(s);
+            if ((v & 1) == 0 && t.versions.compareAndSet(s << VERSION_SHIFT, v, v + 1)) {
+                return;
+            }
+            if (spins >= SPINS_BEFORE_YIELD) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static void unlockStripe(Table t, int s) {
+        t.versions.incrementAndGet(s << VERSION_SHIFT);
+    }
+
+    /**
+     * 按段号从小到大锁住两个桶所在的段
+     */
+    private static void lockPair(Table t, int b0, int b1) {
+        int s0 = b0 & t.stripeMask;
+        int s1 = b1 & t.stripeMask;
+        if (s0 == s1) {
+            lockStripe(t, s0);
+        } else {
+            lockStripe(t, Math.min(s0, s1));
+            lockStripe(t, Math.max(s0, s1));
+        }
+    }
+
+    private static void unlockPair(Table t, int b0, int b1) {
+        int s0 = b0 & t.stripeMask;
+        int s1 = b1 & t.stripeMask;
+        unlockStripe(t, s0);
+        if (s0 != s1) {
+            unlockStripe(t, s1);
+        }
+    }
+
+    /**
+     * 冻结表并等待所有段解锁。之后加锁的写线程一定能看到冻结标记：
+     * 写线程先 CAS 版本号再读 frozen，这里先写 frozen 再读版本号，两边都是 volatile 访问，不会都读到旧值
+     *
+     * @return 表已被其他线程冻结时返回 false
+     */
+    private static boolean freeze(Table t) {
+        if (!t.frozen.compareAndSet(false, true)) {
+            return false;
+        }
+        for (int s = 0; s <= t.stripeMask; s++) {
+            for (int spins = 0; (t.version(s) & 1) != 0; spins++) {
+                if (spins >= SPINS_BEFORE_YIELD) {
+                    Thread.yield();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前没有冻结的表，正在扩容时自旋等待新表发布
+     */
+    private Table writableTable() {
+        for (int spins = 0; ; spins++) {
+            Table t = table;
+            if (!t.frozen.get()) {
+                return t;
+            }
+            if (spins >= SPINS_BEFORE_YIELD) {
+                Thread.yield();
+            }
+        }
+    }
+
+    // 锁 end
+
+    // 踢出 start
+
+    /**
+     * 不加锁搜索从 b0、b1 出发、以空位结尾的踢出路径，再逐步加锁挪动
+     *
+     * @return 找不到路径时返回 false；路径挪动途中失效也返回 true，由调用者重试
+     */
+    private boolean cuckooPath(Table t, int b0, int b1) {
+        BfsQueue q = new BfsQueue();
+        q.add(b0, -1, 0, null);
+        if (b1 != b0) {
+            q.add(b1, -1, 0, null);
+        }
+        for (int node = 0; node < q.size; node++) {
+            int b = q.bucket[node];
+            for (int s = 0; s < SLOTS_PER_BUCKET; s++) {
+                int pos = b * SLOTS_PER_BUCKET + s;
+                Object key = t.key(pos);
+                if (key == null) { // 搜索期间出现了空位，由调用者重试
+                    return true;
+                }
+                int alt = altBucket(t, key, t.tags.get(pos), b);
+                if (alt == b || q.onPath(node, alt)) {
+                    continue;
+                }
+                if (q.size == MAX_BFS_NODES) {
+                    return false;
+                }
+                int end = q.add(alt, node, s, key);
+                if (freeSlot(t, alt) >= 0) {
+                    movePath(t, q, end);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从路径末尾往回挪动，每一步锁住源桶和目标桶并确认状态未变。
+     * 搜索时不加锁，源位置的键可能已被删除后又放回(ABA)，因此在锁内按当前的标签重新计算它的另一个桶。
+     * 表被冻结后放弃，避免扩容复制旧表时漏掉正在挪动的元素；扩容时新表还没有发布，也用这个方法在新表中挪动
+     */
+    private void movePath(Table t, BfsQueue q, int node) {
+        for (; q.parent[node] >= 0; node = q.parent[node]) {
+            int dstBucket = q.bucket[node];
+            int srcBucket = q.bucket[q.parent[node]];
+            int src = srcBucket * SLOTS_PER_BUCKET + q.slot[node];
+            lockPair(t, srcBucket, dstBucket);
+            try {
+                Object key = t.key(src);
+                if (t.frozen.get() || key != q.key[node]) {
+                    return;
+                }
+                int tag = t.tags.get(src);
+                int dst = freeSlot(t, dstBucket);
+                if (dst < 0 || altBucket(t, key, tag, srcBucket) != dstBucket) {
+                    return;
+                }
+                // 先写新位置再清旧位置
+                t.setValue(dst, t.value(src));
+                t.tags.lazySet(dst, tag);
+                t.setKey(dst, key);
+                t.setKey(src, null);
+                t.setValue(src, null);
+            } finally {
+                unlockPair(t, srcBucket, dstBucket);
+            }
+        }
+    }
+
+    /**
+     * 广度优先搜索的队列，每次搜索新建，多数搜索只用到很少的节点，数组按需增长。
+     * 节点 i 表示把 parent[i] 号节点的桶中 slot[i] 号位置的键 key[i] 挪到桶 bucket[i]
+     */
+    private static final class BfsQueue {
+        int[] bucket = new int[16];
+        int[] parent = new int[16];
+        int[] slot = new int[16];
+        Object[] key = new Object[16];
+        int size;
+
+        int add(int b, int p, int s, Object k) {
+            if (size == bucket.length) {
+                int n = size << 1;
+                bucket = Arrays.copyOf(bucket, n);
+                parent = Arrays.copyOf(parent, n);
+                slot = Arrays.copyOf(slot, n);
+                key = Arrays.copyOf(key, n);
+            }
+            bucket[size] = b;
+            parent[size] = p;
+            slot[size] = s;
+            key[size] = k;
+            return size++;
+        }
+
+        boolean onPath(int node, int b) {
+            for (; node >= 0; node = parent[node]) {
+                if (bucket[node] == b) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // 踢出 end
+
+    /**
+     * 扩容为两倍：冻结旧表排斥写线程，单线程把元素放进新表后发布，读线程一直可以读旧表
+     */
+    private void resize(Table t) {
+        if (!freeze(t)) { // 其他线程正在扩容或者已经扩容
+            return;
+        }
+        boolean published = false;
+        try {
+            int numBuckets = t.numBuckets();
+            Table nt;
+            do {
+                if (numBuckets * SLOTS_PER_BUCKET >= Hashing.MAX_CAPACITY) {
+                    throw new IllegalStateException("hash table is full");
+                }
+                numBuckets <<= 1;
+                nt = new Table(numBuckets);
+            } while (!transfer(t, nt));
+            table = nt;
+            published = true;
+        } finally {
+            if (!published) { // 扩容失败，解冻让写线程继续使用旧表
+                t.frozen.set(false);
+            }
+        }
+    }
+
+    /**
+     * 把旧表的元素放进尚未发布的新表，没有其他线程访问新表，挪动不需要加锁
+     *
+     * @return 某个元素放不下时返回 false
+     */
+    private boolean transfer(Table t, Table nt) {
+        for (int pos = 0; pos < t.numSlots(); pos++) {
+            Object key = t.key(pos);
+            if (key == null) {
+                continue;
+            }
+            int tag = t.tags.get(pos);
+            int b0 = tag & nt.bucketMask;
+            int b1 = hash(key, 1) & nt.bucketMask;
+            int free;
+            while ((free = freeSlot(nt, b0)) < 0 && (free = freeSlot(nt, b1)) < 0) {
+                if (!cuckooPath(nt, b0, b1)) {
+                    return false;
+                }
+            }
+            nt.setValue(free, t.value(pos));
+            nt.tags.lazySet(free, tag);
+            nt.setKey(free, key);
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HashFamily<Integer> hashFamily = new HashFamily<Integer>() {
+            @Override
+            public int hash(Integer x, int which) {
+                return x * (which == 0 ? 0x9E3779B9 : 0x85EBCA6B);
+            }
+
+            @Override
+            public int getNumberOfFunctions() {
+                return 2;
+            }
+
+            @Override
+            public void generateNewFunctions() {
+            }
+        };
+        ConcurrentCuckooHashMap<Integer, String> map = new ConcurrentCuckooHashMap<>(hashFamily);
+        int threads = 8;
+        int perThread = 100000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            pool.execute(() -> {
+                Random random = new Random(base);
+                for (int i = 0; i < perThread; i++) {
+                    map.put(base + i, "v" + (base + i));
+                    Integer probe = random.nextInt(base + i + 1);
+                    String v = map.get(probe);
+                    if (v != null && !v.equals("v" + probe)) {
+                        System.out.println("wrong value for " + probe);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println(map.size() + " " + map.get(12345) + " " + map.get(-1));
+    }
+}
@@ -0,0 +1,390 @@
+package com.crw.java.hashtable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的分离链接哈希表
+ * <p>
+ * 与 {@link SeparateChainingHashTable} 相同，每个桶是一条链表，但做法参照 ConcurrentHashMap：
+ * 1.无锁读：链表节点的 next 为 volatile，桶数组为 AtomicReferenceArray，contains 不加锁，只沿链表读。
+ * 删除中间节点时只改前驱的 next，正在读被删节点的线程仍能沿它的 next 走完。
+ * 2.写入：空桶用 CAS 放入第一个节点；非空桶对头节点加锁后在链尾追加或者摘除节点，
+ * 锁按桶分散，不同桶的写入互不阻塞。桶是懒分配的，没有元素的桶只是一个 null。
+ * 3.渐进式协作扩容：元素个数超过桶数时，发起扩容的线程分配两倍大的新桶数组，
+ * 之后每次插入(包括发起者的这一次)和每个遇到转发节点的写线程只领取一段(TRANSFER_STRIDE 个)还未迁移的桶，
+ * 逐个加锁把链表拆成两条复制到新表的 i 和 i + n 处，再在旧桶放一个转发节点，迁移完这一段就返回。
+ * 再散列的代价分摊到扩容期间的多次写入上，任何一次写入最多只迁移一段；最后一段迁移完的线程发布新表。
+ * 读线程遇到转发节点就到新表中查找，遇到还未迁移的桶就在旧表中查找，都能读到正确结果。
+ * 迁移时复制节点而不是移动节点，旧链表保持不变，读线程不会被迁移打断。
+ * 4.计数：元素个数用 LongAdder 累加，避免所有写线程争用同一个计数器。
+ * <p>
+ * 表的大小为 2 的幂，hashCode 经 {@link Hashing#mix(int)} 混合，新表中的位置只能是 i 或 i + n。
+ * 不允许 null 元素。
+ *
+ * @param <T>
+ */
+public class ConcurrentSeparateChainingHashTable<T> {
+
+    /**
+     * 转发节点的散列值，普通节点的散列值都是非负数
+     */
+    private static final int MOVED = -1;
+
+    /**
+     * 每次领取的桶数。一次写入最多迁移这么多个桶，与表的大小无关；
+     * 扩容期间每次插入都会领取一段，迁移完 n 个桶之前最多再插入 n / TRANSFER_STRIDE 个元素，装填因子不会明显超过 1
+     */
+    private static final int TRANSFER_STRIDE = 16;
+
+    private static class Node<T> {
+        final int hash;
+        final T element;
+        volatile Node<T> next;
+
+        Node(int hash, T element, Node<T> next) {
+            this.hash = hash;
+            this.element = element;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 已迁移的桶中放置的转发节点
+     */
+    private static final class ForwardingNode<T> extends Node<T> {
+        final AtomicReferenceArray<Node<T>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<T>> nextTable) {
+            super(MOVED, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * 一次扩容的状态，由参与迁移的线程共享
+     */
+    private static final class Resize<T> {
+        final AtomicReferenceArray<Node<T>> oldTable;
+        final AtomicReferenceArray<Node<T>> newTable;
+        final ForwardingNode<T> forwarding;
+        /**
+         * 还未领取的桶为 [0, transferIndex)，从高往低领取
+         */
+        final AtomicInteger transferIndex;
+        /**
+         * 还未迁移完的桶数，减到 0 的线程负责发布新表
+         */
+        final AtomicInteger remaining;
+
+        Resize(AtomicReferenceArray<Node<T>> oldTable) {
+            int n = oldTable.length();
+            this.oldTable = oldTable;
+            this.newTable = new AtomicReferenceArray<>(n << 1);
+            this.forwarding = new ForwardingNode<>(newTable);
+            this.transferIndex = new AtomicInteger(n);
+            this.remaining = new AtomicInteger(n);
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node<T>> table;
+    private final AtomicReference<Resize<T>> resize = new AtomicReference<>();
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentSeparateChainingHashTable() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     */
+    public ConcurrentSeparateChainingHashTable(int expectedSize) {
+        table = new AtomicReferenceArray<>(Hashing.capacityFor(expectedSize, 1.0));
+    }
+
+    /**
+     * 是否包含，不加锁
+     *
+     * @param x
+     * @return
+     */
+    public boolean contains(T x) {
+        int h = spread(x);
+        AtomicReferenceArray<Node<T>> tab = table;
+        while (true) {
+            Node<T> e = tab.get(h & (tab.length() - 1));
+            if (e == null) {
+                return false;
+            }
+            if (e.hash == MOVED) {
+                tab = ((ForwardingNode<T>) e).nextTable;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == h && x.equals(e.element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 插入元素
+     *
+     * @param x
+     * @return 是否新插入，已存在时返回 false
+     */
+    public boolean insert(T x) {
+        int h = spread(x);
+        AtomicReferenceArray<Node<T>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<T> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(h, x, null))) {
+                    break;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<T>) f);
+            } else {
+                boolean added = false;
+                synchronized (f) {
+                    if (tab.get(i) != f) { // 加锁前头节点已被删除或者桶已迁移，重试
+                        continue;
+                    }
+                    for (Node<T> e = f; ; e = e.next) {
+                        if (e.hash == h && x.equals(e.element)) {
+                            break;
+                        }
+                        if (e.next == null) {
+                            e.next = new Node<>(h, x, null);
+                            added = true;
+                            break;
+                        }
+                    }
+                }
+                if (!added) {
+                    return false;
+                }
+                break;
+            }
+        }
+        count.increment();
+        checkResize();
+        return true;
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param x
+     * @return 是否存在
+     */
+    public boolean remove(T x) {
+        int h = spread(x);
+        AtomicReferenceArray<Node<T>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<T> f = tab.get(i);
+            if (f == null) {
+                return false;
+            }
+            if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<T>) f);
+                continue;
+            }
+            synchronized (f) {
+                if (tab.get(i) != f) {
+                    continue;
+                }
+                for (Node<T> e = f, pred = null; e != null; pred = e, e = e.next) {
+                    if (e.hash == h && x.equals(e.element)) {
+                        if (pred == null) {
+                            tab.set(i, e.next);
+                        } else {
+                            pred.next = e.next;
+                        }
+                        count.decrement();
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 元素个数，有并发写入时为近似值
+     *
+     * @return
+     */
+    public int size() {
+        long n = count.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空表：逐个桶加锁摘除整条链表，与并发写入交错时只保证每个桶被清空时的一致性
+     */
+    public void makeEmpty() {
+        AtomicReferenceArray<Node<T>> tab = table;
+        for (int i = 0; i < tab.length(); ) {
+            Node<T> f = tab.get(i);
+            if (f == null) {
+                i++;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<T>) f);
+                i = 0;
+            } else {
+                synchronized (f) {
+                    if (tab.get(i) == f) {
+                        int removed = 0;
+                        for (Node<T> e = f; e != null; e = e.next) {
+                            removed++;
+                        }
+                        tab.set(i, null);
+                        count.add(-removed);
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int spread(Object x) {
+        return Hashing.mix(x.hashCode()) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * 元素个数超过桶数时发起扩容；已有扩容在进行时协助迁移
+     */
+    private void checkResize() {
+        Resize<T> r = resize.get();
+        if (r != null) {
+            transfer(r);
+            return;
+        }
+        AtomicReferenceArray<Node<T>> tab = table;
+        if (count.sum() <= tab.length() || tab.length() >= Hashing.MAX_CAPACITY) {
+            return;
+        }
+        r = startResize(tab);
+        if (r != null) {
+            transfer(r);
+        }
+    }
+
+    /**
+     * 发起扩容，很少调用，加锁即可。
+     * 发布新表时先写 table 再清空 resize，所以 table 仍是 tab 且没有进行中的扩容时，tab 一定还没有被迁移过
+     *
+     * @return tab 已不是当前表或者已有扩容在进行时返回 null
+     */
+    private synchronized Resize<T> startResize(AtomicReferenceArray<Node<T>> tab) {
+        if (table != tab || resize.get() != null) {
+            return null;
+        }
+        Resize<T> r = new Resize<>(tab);
+        resize.set(r);
+        return r;
+    }
+
+    /**
+     * 遇到转发节点时协助迁移，返回新表
+     */
+    private AtomicReferenceArray<Node<T>> helpTransfer(ForwardingNode<T> f) {
+        Resize<T> r = resize.get();
+        if (r != null && r.newTable == f.nextTable) {
+            transfer(r);
+        }
+        return f.nextTable;
+    }
+
+    /**
+     * 领取一段桶迁移后返回，所有的桶都已被领取时直接返回
+     */
+    private void transfer(Resize<T> r) {
+        int end;
+        int start;
+        do { // 只在与其他线程争抢同一段时重试
+            end = r.transferIndex.get();
+            if (end <= 0) {
+                return;
+            }
+            start = Math.max(0, end - TRANSFER_STRIDE);
+        } while (!r.transferIndex.compareAndSet(end, start));
+        for (int i = start; i < end; i++) {
+            transferBin(r, i);
+        }
+        if (r.remaining.addAndGet(start - end) == 0) { // 最后一段迁移完，发布新表
+            table = r.newTable;
+            resize.set(null);
+        }
+    }
+
+    /**
+     * 把旧表 i 号桶的链表拆成两条复制到新表的 i 和 i + n，旧桶换成转发节点
+     */
+    private void transferBin(Resize<T> r, int i) {
+        AtomicReferenceArray<Node<T>> tab = r.oldTable;
+        int n = tab.length();
+        while (true) {
+            Node<T> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, r.forwarding)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (f) {
+                if (tab.get(i) != f) {
+                    continue;
+                }
+                Node<T> lo = null;
+                Node<T> hi = null;
+                for (Node<T> e = f; e != null; e = e.next) {
+                    if ((e.hash & n) == 0) {
+                        lo = new Node<>(e.hash, e.element, lo);
+                    } else {
+                        hi = new Node<>(e.hash, e.element, hi);
+                    }
+                }
+                r.newTable.set(i, lo);
+                r.newTable.set(i + n, hi);
+                tab.set(i, r.forwarding);
+                return;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentSeparateChainingHashTable<Integer> table = new ConcurrentSeparateChainingHashTable<>();
+        int threads = 8;
+        int perThread = 100000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    table.insert(base + i);
+                }
+                for (int i = 0; i < perThread; i += 2) {
+                    table.remove(base + i);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println(table.size() + " " + table.contains(1) + " " + table.contains(2));
+    }
+}
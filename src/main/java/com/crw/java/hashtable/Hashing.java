@@ -0,0 +1,92 @@
+package com.crw.java.hashtable;
+
+/**
+ * 基本类型哈希表共用的散列与容量计算，以及 HashFamily 实现共用的按小端序读取
+ * <p>
+ * 表的大小为 2 的幂，定址用 hash & mask 代替取模。低位直接取 hashCode 时，
+ * 键的低位规律(例如都是 8 的倍数)会集中到少数位置，这里先用乘法散列(Fibonacci hashing)混合：
+ * 乘以 2^32/φ 后高位受到所有位的影响，再把高 16 位异或到低位。
+ */
+final class Hashing {
+
+    /**
+     * 2^32 / 黄金分割比
+     */
+    static final int INT_PHI = 0x9E3779B9;
+
+    /**
+     * 2^64 / 黄金分割比
+     */
+    static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 表的最小容量
+     */
+    static final int MIN_CAPACITY = 16;
+
+    /**
+     * 表的最大容量
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    static int mix(int x) {
+        int h = x * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long x) {
+        long h = x * LONG_PHI;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // 按小端序读取 start：字符串按 UTF-16LE 编码后的字节读取，每个 char 两个字节，不需要先转成 byte[]
+
+    static int getIntLE(byte[] b, int i) {
+        return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | b[i + 3] << 24;
+    }
+
+    static long getLongLE(byte[] b, int i) {
+        return (getIntLE(b, i) & 0xffffffffL) | (long) getIntLE(b, i + 4) << 32;
+    }
+
+    /**
+     * 从第 i 个字符开始的 2 个字符
+     */
+    static int getIntLE(String s, int i) {
+        return s.charAt(i) | s.charAt(i + 1) << 16;
+    }
+
+    /**
+     * 从第 i 个字符开始的 4 个字符
+     */
+    static long getLongLE(String s, int i) {
+        return (getIntLE(s, i) & 0xffffffffL) | (long) getIntLE(s, i + 2) << 32;
+    }
+
+    // 按小端序读取 end
+
+    /**
+     * 能以不超过 maxLoad 的装填因子容纳 expectedSize 个元素的最小 2 的幂
+     *
+     * @param expectedSize
+     * @param maxLoad
+     * @return
+     */
+    static int capacityFor(int expectedSize, double maxLoad) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        }
+        long needed = (long) Math.ceil(expectedSize / maxLoad) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,211 @@
+package com.crw.java.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * int 集合：开放定址，元素直接存放在 int[] 中，没有 HashEntry 对象，也不装箱
+ * <p>
+ * 与 {@link QuadraticProbingHashTable} 的对应关系：
+ * 1.空位：0 作为空位哨兵，keys[i] == 0 表示该位置没有元素；元素 0 本身不进表，单独用 hasZero 记录。
+ * 2.惰性删除：HashEntry.isActive 换成墓碑位图 deleted，删除时该位置置为 0 并标记墓碑，
+ * 查找遇到墓碑继续探测，插入时复用探测路径上的第一个墓碑。
+ * 3.平方探测：表的大小为 2 的幂，第 i 次探测的偏移为 i(i+1)/2(三角数)，这样的探测序列能遍历全表，不需要素数表长。
+ * 4.再散列：元素与墓碑合计超过表的一半时再散列，元素多则扩容为两倍，否则按原大小重建以清除墓碑。
+ * <p>
+ * 装填因子在 0.25 ~ 0.5 之间，每个元素占 8 ~ 16 字节；QuadraticProbingHashTable&lt;Integer&gt; 每个元素约 40 字节
+ * (Integer 16 字节 + HashEntry 16 字节 + 两个引用)，且每次探测都要多读一次对象。
+ */
+public class IntHashSet {
+
+    private static final int EMPTY = 0;
+
+    private static final double MAX_LOAD = 0.5;
+
+    private int[] keys;
+    private long[] deleted;
+    private int mask;
+    private int currentSize;
+    private int tombstones;
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     */
+    public IntHashSet(int expectedSize) {
+        allocateArrays(Hashing.capacityFor(expectedSize, MAX_LOAD));
+    }
+
+    public boolean contains(int x) {
+        if (x == EMPTY) {
+            return hasZero;
+        }
+        return findPos(x) >= 0;
+    }
+
+    /**
+     * 插入元素
+     *
+     * @param x
+     * @return 是否新插入，已存在时返回 false
+     */
+    public boolean insert(int x) {
+        if (x == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            return true;
+        }
+        int pos = Hashing.mix(x) & mask;
+        int tombstone = -1;
+        for (int i = 1; ; i++) {
+            int k = keys[pos];
+            if (k == x) {
+                return false;
+            }
+            if (k == EMPTY) {
+                if (!isDeleted(pos)) {
+                    break;
+                }
+                if (tombstone < 0) {
+                    tombstone = pos;
+                }
+            }
+            pos = (pos + i) & mask;
+        }
+        if (tombstone >= 0) { // 复用墓碑
+            pos = tombstone;
+            deleted[pos >>> 6] &= ~(1L << pos);
+            tombstones--;
+        }
+        keys[pos] = x;
+        if (++currentSize + tombstones > keys.length * MAX_LOAD) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * 删除元素，惰性删除
+     *
+     * @param x
+     * @return 是否存在
+     */
+    public boolean remove(int x) {
+        if (x == EMPTY) {
+            boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        int pos = findPos(x);
+        if (pos < 0) {
+            return false;
+        }
+        keys[pos] = EMPTY;
+        deleted[pos >>> 6] |= 1L << pos;
+        currentSize--;
+        tombstones++;
+        return true;
+    }
+
+    public int size() {
+        return hasZero ? currentSize + 1 : currentSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void makeEmpty() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(deleted, 0L);
+        currentSize = 0;
+        tombstones = 0;
+        hasZero = false;
+    }
+
+    /**
+     * 所有元素，顺序不定
+     *
+     * @return
+     */
+    public int[] toArray() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (int k : keys) {
+            if (k != EMPTY) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 定址：找到返回位置，否则返回 -1。表中总有真正的空位，探测一定会结束
+     */
+    private int findPos(int x) {
+        int pos = Hashing.mix(x) & mask;
+        for (int i = 1; ; i++) {
+            int k = keys[pos];
+            if (k == x) {
+                return pos;
+            }
+            if (k == EMPTY && !isDeleted(pos)) {
+                return -1;
+            }
+            pos = (pos + i) & mask;
+        }
+    }
+
+    private boolean isDeleted(int pos) {
+        return (deleted[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    private void allocateArrays(int capacity) {
+        keys = new int[capacity];
+        deleted = new long[(capacity + 63) >>> 6];
+        mask = capacity - 1;
+        tombstones = 0;
+    }
+
+    /**
+     * 再散列：元素超过表的四分之一时扩容为两倍，否则只清除墓碑
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        int capacity = oldKeys.length;
+        if (currentSize > capacity / 4) {
+            if (capacity == Hashing.MAX_CAPACITY) {
+                throw new IllegalStateException("hash table is full");
+            }
+            capacity <<= 1;
+        }
+        allocateArrays(capacity);
+        for (int k : oldKeys) {
+            if (k != EMPTY) {
+                int pos = Hashing.mix(k) & mask;
+                for (int i = 1; keys[pos] != EMPTY; i++) {
+                    pos = (pos + i) & mask;
+                }
+                keys[pos] = k;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 100; i += 3) {
+            set.insert(i);
+        }
+        System.out.println(set.size() + " " + set.contains(33) + " " + set.contains(34));
+        set.remove(33);
+        System.out.println(set.size() + " " + set.contains(33));
+    }
+}
@@ -0,0 +1,242 @@
+package com.crw.java.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * int -> int 映射：开放定址，键和值分别存放在两个平行的 int[] 中，不装箱
+ * <p>
+ * 空位哨兵、墓碑位图、三角数平方探测和再散列策略与 {@link IntHashSet} 相同；
+ * 键 0 不进表，它的值单独存放在 zeroValue 中。
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = 0;
+
+    private static final double MAX_LOAD = 0.5;
+
+    private int[] keys;
+    private int[] values;
+    private long[] deleted;
+    private int mask;
+    private int currentSize;
+    private int tombstones;
+    private boolean hasZero;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的键值对个数，达到之前不会扩容
+     */
+    public IntIntHashMap(int expectedSize) {
+        allocateArrays(Hashing.capacityFor(expectedSize, MAX_LOAD));
+    }
+
+    public boolean containsKey(int key) {
+        if (key == EMPTY) {
+            return hasZero;
+        }
+        return findPos(key) >= 0;
+    }
+
+    /**
+     * 查找键对应的值
+     *
+     * @param key
+     * @param defaultValue 键不存在时返回的值
+     * @return
+     */
+    public int get(int key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+        int pos = findPos(key);
+        return pos >= 0 ? values[pos] : defaultValue;
+    }
+
+    /**
+     * 插入或者覆盖
+     *
+     * @param key
+     * @param value
+     * @return 是否新插入的键
+     */
+    public boolean put(int key, int value) {
+        if (key == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            zeroValue = value;
+            return added;
+        }
+        int pos = Hashing.mix(key) & mask;
+        int tombstone = -1;
+        for (int i = 1; ; i++) {
+            int k = keys[pos];
+            if (k == key) {
+                values[pos] = value;
+                return false;
+            }
+            if (k == EMPTY) {
+                if (!isDeleted(pos)) {
+                    break;
+                }
+                if (tombstone < 0) {
+                    tombstone = pos;
+                }
+            }
+            pos = (pos + i) & mask;
+        }
+        if (tombstone >= 0) { // 复用墓碑
+            pos = tombstone;
+            deleted[pos >>> 6] &= ~(1L << pos);
+            tombstones--;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++currentSize + tombstones > keys.length * MAX_LOAD) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * 值加上 delta，键不存在时视为 0，常用于计数
+     *
+     * @param key
+     * @param delta
+     * @return 相加后的值
+     */
+    public int addTo(int key, int delta) {
+        int pos = key == EMPTY ? -1 : findPos(key);
+        if (pos >= 0) {
+            return values[pos] += delta;
+        }
+        int value = get(key, 0) + delta;
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * 删除键，惰性删除
+     *
+     * @param key
+     * @return 是否存在
+     */
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        int pos = findPos(key);
+        if (pos < 0) {
+            return false;
+        }
+        keys[pos] = EMPTY;
+        deleted[pos >>> 6] |= 1L << pos;
+        currentSize--;
+        tombstones++;
+        return true;
+    }
+
+    public int size() {
+        return hasZero ? currentSize + 1 : currentSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void makeEmpty() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(deleted, 0L);
+        currentSize = 0;
+        tombstones = 0;
+        hasZero = false;
+    }
+
+    /**
+     * 所有的键，顺序不定
+     *
+     * @return
+     */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (int k : keys) {
+            if (k != EMPTY) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    private int findPos(int key) {
+        int pos = Hashing.mix(key) & mask;
+        for (int i = 1; ; i++) {
+            int k = keys[pos];
+            if (k == key) {
+                return pos;
+            }
+            if (k == EMPTY && !isDeleted(pos)) {
+                return -1;
+            }
+            pos = (pos + i) & mask;
+        }
+    }
+
+    private boolean isDeleted(int pos) {
+        return (deleted[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    private void allocateArrays(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        deleted = new long[(capacity + 63) >>> 6];
+        mask = capacity - 1;
+        tombstones = 0;
+    }
+
+    /**
+     * 再散列：键超过表的四分之一时扩容为两倍，否则只清除墓碑
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int capacity = oldKeys.length;
+        if (currentSize > capacity / 4) {
+            if (capacity == Hashing.MAX_CAPACITY) {
+                throw new IllegalStateException("hash table is full");
+            }
+            capacity <<= 1;
+        }
+        allocateArrays(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != EMPTY) {
+                int pos = Hashing.mix(k) & mask;
+                for (int i = 1; keys[pos] != EMPTY; i++) {
+                    pos = (pos + i) & mask;
+                }
+                keys[pos] = k;
+                values[pos] = oldValues[j];
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] words = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5};
+        IntIntHashMap counts = new IntIntHashMap();
+        for (int w : words) {
+            counts.addTo(w, 1);
+        }
+        for (int k : counts.keys()) {
+            System.out.print(k + "=" + counts.get(k, 0) + " ");
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.crw.java.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * long -> 对象 映射：开放定址，键存放在 long[] 中，值存放在平行的 Object[] 中，键不装箱
+ * <p>
+ * 空位哨兵、墓碑位图、三角数平方探测和再散列策略与 {@link LongHashSet} 相同；
+ * 键 0 不进表，它的值单独存放在 zeroValue 中。值可以为 null，用 containsKey 区分键不存在与值为 null。
+ * 删除时值置为 null，不再引用被删除的对象。
+ *
+ * @param <V>
+ */
+public class LongObjectHashMap<V> {
+
+    private static final long EMPTY = 0L;
+
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private Object[] values;
+    private long[] deleted;
+    private int mask;
+    private int currentSize;
+    private int tombstones;
+    private boolean hasZero;
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的键值对个数，达到之前不会扩容
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocateArrays(Hashing.capacityFor(expectedSize, MAX_LOAD));
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return hasZero;
+        }
+        return findPos(key) >= 0;
+    }
+
+    /**
+     * 查找键对应的值，不存在时返回 null
+     *
+     * @param key
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+        int pos = findPos(key);
+        return pos >= 0 ? (V) values[pos] : null;
+    }
+
+    /**
+     * 插入或者覆盖
+     *
+     * @param key
+     * @param value
+     * @return 原来的值，新插入的键返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            V old = zeroValue;
+            hasZero = true;
+            zeroValue = value;
+            return old;
+        }
+        int pos = Hashing.mix(key) & mask;
+        int tombstone = -1;
+        for (int i = 1; ; i++) {
+            long k = keys[pos];
+            if (k == key) {
+                V old = (V) values[pos];
+                values[pos] = value;
+                return old;
+            }
+            if (k == EMPTY) {
+                if (!isDeleted(pos)) {
+                    break;
+                }
+                if (tombstone < 0) {
+                    tombstone = pos;
+                }
+            }
+            pos = (pos + i) & mask;
+        }
+        if (tombstone >= 0) { // 复用墓碑
+            pos = tombstone;
+            deleted[pos >>> 6] &= ~(1L << pos);
+            tombstones--;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++currentSize + tombstones > keys.length * MAX_LOAD) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * 删除键，惰性删除
+     *
+     * @param key
+     * @return 原来的值，键不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            V old = zeroValue;
+            hasZero = false;
+            zeroValue = null;
+            return old;
+        }
+        int pos = findPos(key);
+        if (pos < 0) {
+            return null;
+        }
+        V old = (V) values[pos];
+        keys[pos] = EMPTY;
+        values[pos] = null;
+        deleted[pos >>> 6] |= 1L << pos;
+        currentSize--;
+        tombstones++;
+        return old;
+    }
+
+    public int size() {
+        return hasZero ? currentSize + 1 : currentSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void makeEmpty() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        Arrays.fill(deleted, 0L);
+        currentSize = 0;
+        tombstones = 0;
+        hasZero = false;
+        zeroValue = null;
+    }
+
+    /**
+     * 所有的键，顺序不定
+     *
+     * @return
+     */
+    public long[] keys() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (long k : keys) {
+            if (k != EMPTY) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    private int findPos(long key) {
+        int pos = Hashing.mix(key) & mask;
+        for (int i = 1; ; i++) {
+            long k = keys[pos];
+            if (k == key) {
+                return pos;
+            }
+            if (k == EMPTY && !isDeleted(pos)) {
+                return -1;
+            }
+            pos = (pos + i) & mask;
+        }
+    }
+
+    private boolean isDeleted(int pos) {
+        return (deleted[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    private void allocateArrays(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        deleted = new long[(capacity + 63) >>> 6];
+        mask = capacity - 1;
+        tombstones = 0;
+    }
+
+    /**
+     * 再散列：键超过表的四分之一时扩容为两倍，否则只清除墓碑
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length;
+        if (currentSize > capacity / 4) {
+            if (capacity == Hashing.MAX_CAPACITY) {
+                throw new IllegalStateException("hash table is full");
+            }
+            capacity <<= 1;
+        }
+        allocateArrays(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k != EMPTY) {
+                int pos = Hashing.mix(k) & mask;
+                for (int i = 1; keys[pos] != EMPTY; i++) {
+                    pos = (pos + i) & mask;
+                }
+                keys[pos] = k;
+                values[pos] = oldValues[j];
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        LongObjectHashMap<String> users = new LongObjectHashMap<>();
+        users.put(10000000001L, "alice");
+        users.put(10000000002L, "bob");
+        users.put(0L, "root");
+        System.out.println(users.get(10000000002L) + " " + users.get(0L) + " " + users.size());
+        users.remove(10000000002L);
+        System.out.println(users.get(10000000002L) + " " + users.size());
+    }
+}
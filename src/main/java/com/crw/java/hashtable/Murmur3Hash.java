@@ -0,0 +1,139 @@
+package com.crw.java.hashtable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * MurmurHash3 x86_32，带 32 位种子
+ * <p>
+ * 每 4 个字节一块：块先乘常数、循环左移、再乘常数(mixK1)，再与累积值异或、循环左移、乘 5 加常数(mixH1)；
+ * 最后异或长度并做一次 fmix32，使每一位输入都影响每一位输出。种子就是累积值的初值，换种子即换散列函数。
+ * <p>
+ * int 和 long 按小端序的 4 / 8 个字节计算，String 按 UTF-16LE 编码后的字节计算(不转成 byte[])，
+ * 结果分别与对应字节数组的散列值相同。
+ * 速度快、分布好，但不抗碰撞攻击：知道算法的人可以构造出与种子无关的碰撞，输入来自外部时用 {@link SipHash}。
+ */
+public final class Murmur3Hash {
+
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    private Murmur3Hash() {
+    }
+
+    public static int hash32(int k, int seed) {
+        return fmix32(mixH1(seed, mixK1(k)) ^ 4);
+    }
+
+    public static int hash32(long k, int seed) {
+        int h = mixH1(seed, mixK1((int) k));
+        h = mixH1(h, mixK1((int) (k >>> 32)));
+        return fmix32(h ^ 8);
+    }
+
+    public static int hash32(byte[] data, int seed) {
+        int len = data.length;
+        int h = seed;
+        int i = 0;
+        for (; i + 4 <= len; i += 4) {
+            h = mixH1(h, mixK1(Hashing.getIntLE(data, i)));
+        }
+        int tail = len - i;
+        if (tail > 0) { // 剩下 1~3 个字节，按小端序拼成一块
+            int k = data[i] & 0xff;
+            if (tail > 1) {
+                k ^= (data[i + 1] & 0xff) << 8;
+            }
+            if (tail > 2) {
+                k ^= (data[i + 2] & 0xff) << 16;
+            }
+            h ^= mixK1(k);
+        }
+        return fmix32(h ^ len);
+    }
+
+    public static int hash32(String s, int seed) {
+        int n = s.length();
+        int h = seed;
+        int i = 0;
+        for (; i + 2 <= n; i += 2) {
+            h = mixH1(h, mixK1(Hashing.getIntLE(s, i)));
+        }
+        if (i < n) { // 剩下一个字符，即 2 个字节的尾部
+            h ^= mixK1(s.charAt(i));
+        }
+        return fmix32(h ^ (n << 1));
+    }
+
+    private static int mixK1(int k) {
+        return Integer.rotateLeft(k * C1, 15) * C2;
+    }
+
+    private static int mixH1(int h, int k) {
+        return Integer.rotateLeft(h ^ k, 13) * 5 + 0xe6546b64;
+    }
+
+    private static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    // HashFamily start：第 which 个散列函数以第 which 个随机数为种子
+
+    public static HashFamily<Integer> forInts(int numFunctions) {
+        return new SeededHashFamily<Integer>(numFunctions, new Random()) {
+            @Override
+            public int hash(Integer x, int which) {
+                return hash32(x.intValue(), (int) seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<Long> forLongs(int numFunctions) {
+        return new SeededHashFamily<Long>(numFunctions, new Random()) {
+            @Override
+            public int hash(Long x, int which) {
+                return hash32(x.longValue(), (int) seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<String> forStrings(int numFunctions) {
+        return new SeededHashFamily<String>(numFunctions, new Random()) {
+            @Override
+            public int hash(String x, int which) {
+                return hash32(x, (int) seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<byte[]> forBytes(int numFunctions) {
+        return new SeededHashFamily<byte[]>(numFunctions, new Random()) {
+            @Override
+            public int hash(byte[] x, int which) {
+                return hash32(x, (int) seed(which));
+            }
+        };
+    }
+
+    // HashFamily end
+
+    public static void main(String[] args) {
+        // 参考实现的测试向量
+        byte[] data = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.US_ASCII);
+        System.out.println(Integer.toHexString(hash32(data, 0x9747b28c)) + " (2fa826cd)");
+        System.out.println(Integer.toHexString(hash32(new byte[0], 1)) + " (514e28b7)");
+        System.out.println(Integer.toHexString(hash32(0, 0)) + " (2362f9de)");
+        String s = "cuckoo";
+        System.out.println(hash32(s, 42) == hash32(s.getBytes(StandardCharsets.UTF_16LE), 42));
+
+        CuckooHashTable<String> table = new CuckooHashTable<>(forStrings(2));
+        for (int i = 0; i < 100000; i++) {
+            table.insert("key" + i);
+        }
+        System.out.println(table.contains("key12345") + " " + table.contains("key100000"));
+    }
+}
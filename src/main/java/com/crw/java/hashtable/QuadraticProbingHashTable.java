@@ -24,6 +24,7 @@ public class QuadraticProbingHashTable<T> {
     private static final int DEFAULT_TABLE_SIZE = 11;
     private HashEntry<T>[] array;
     private int currentSize;
+    private int occupied; // 非空位置的个数，包括已删除的元素
 
 
     /**
@@ -46,6 +47,7 @@ public class QuadraticProbingHashTable<T> {
 
     public void makeEmpty() {
         currentSize = 0;
+        occupied = 0;
         for (int i = 0; i < array.length; i++) {
             array[i] = null;
         }
@@ -81,8 +83,13 @@ public class QuadraticProbingHashTable<T> {
         if (isActive(currentPos)) {
             return;
         }
+        if (array[currentPos] == null) {
+            occupied++;
+        }
         array[currentPos] = new HashEntry<T>(x, true);
-        if (++currentSize > array.length / 2) {
+        currentSize++;
+        // 已删除的元素仍然占着位置，也要计入，否则反复插入删除后表中没有空位，findPos 无法结束
+        if (occupied > array.length / 2) {
             this.rehash();
         }
     }
@@ -101,12 +108,13 @@ public class QuadraticProbingHashTable<T> {
     }
 
     /**
-     * 再散列
+     * 再散列：元素多则扩容为两倍，否则按原大小重建以清除已删除的元素
      */
     private void rehash() {
         HashEntry<T>[] oldArray = this.array;
-        this.allocateArray(nextPrime(this.array.length * 2));
+        this.allocateArray(currentSize > array.length / 4 ? nextPrime(this.array.length * 2) : array.length);
         this.currentSize = 0;
+        this.occupied = 0;
         for (int i = 0; i < oldArray.length; i++) {
             if (oldArray[i] != null && oldArray[i].isActive) {
                 this.insert(oldArray[i].elements);
@@ -145,7 +153,7 @@ public class QuadraticProbingHashTable<T> {
 
     private int myHash(T x) {
         int hashVal = x.hashCode() % this.array.length;
-        return hashVal > 0 ? hashVal : (hashVal + this.array.length);
+        return hashVal >= 0 ? hashVal : (hashVal + this.array.length);
     }
 
     private static boolean isPrime(int num) {
@@ -0,0 +1,231 @@
+package com.crw.java.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * 哈希表：线性探测 + Robin Hood 散列，删除时后移回填，没有墓碑
+ * <p>
+ * 1.定址：表的大小为 2 的幂，hashCode 经 {@link Hashing#mix(int)}(Fibonacci hashing)混合后与 mask 相与，不需要取模。
+ * 2.线性探测：冲突时依次探测下一个位置，探测序列在内存中连续，比平方探测的缓存局部性好。
+ * 3.Robin Hood：元素离开理想位置的距离称为探测距离。插入时若遇到探测距离比自己小的元素("富人")，
+ * 就把位置抢过来，让被挤出的元素继续向后找位置("劫富济贫")。这样所有元素的探测距离都很接近，
+ * 方差很小，装填因子到 0.9 时平均探测次数仍然只有几次。
+ * 4.提前结束：查找时若遇到空位，或者遇到探测距离比当前已探测的距离还小的元素，说明要找的元素不存在。
+ * 5.后移删除：删除后把后面探测距离大于 0 的元素逐个前移一位，直到遇到空位或者在理想位置上的元素。
+ * 表中不会留下墓碑，不像 {@link QuadraticProbingHashTable} 那样只能靠再散列清除已删除的元素。
+ * <p>
+ * 每个位置额外存放混合后的散列值，0 表示空位(散列值为 0 时改为 1)，比较时先比散列值再调用 equals，
+ * 探测距离由散列值和位置算出，再散列时也不需要重新调用 hashCode。
+ *
+ * @param <T>
+ */
+public class RobinHoodHashTable<T> {
+
+    private static final double DEFAULT_MAX_LOAD = 0.875;
+
+    private final double maxLoad;
+    private Object[] elements;
+    private int[] hashes;
+    private int mask;
+    private int threshold;
+    private int currentSize;
+
+    public RobinHoodHashTable() {
+        this(0, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     */
+    public RobinHoodHashTable(int expectedSize) {
+        this(expectedSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * @param expectedSize 预计的元素个数，达到之前不会扩容
+     * @param maxLoad      最大装填因子，在 (0, 1) 之间
+     */
+    public RobinHoodHashTable(int expectedSize, double maxLoad) {
+        if (!(maxLoad > 0 && maxLoad < 1)) {
+            throw new IllegalArgumentException("maxLoad: " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        allocateArrays(Hashing.capacityFor(expectedSize, maxLoad));
+    }
+
+    public boolean contains(T x) {
+        return findPos(x) >= 0;
+    }
+
+    /**
+     * 插入元素
+     *
+     * @param x
+     * @return 是否新插入，已存在时返回 false
+     */
+    public boolean insert(T x) {
+        int h = hash(x);
+        int pos = h & mask;
+        int dist = 0;
+        // 与 findPos 相同的查找，查找结束的位置就是插入的位置
+        for (; ; dist++) {
+            int slotHash = hashes[pos];
+            if (slotHash == 0 || ((pos - slotHash) & mask) < dist) {
+                break;
+            }
+            if (slotHash == h && x.equals(elements[pos])) {
+                return false;
+            }
+            pos = (pos + 1) & mask;
+        }
+        if (currentSize >= threshold) {
+            rehash();
+            pos = h & mask;
+            dist = 0;
+        }
+        insertHelper(x, h, pos, dist);
+        currentSize++;
+        return true;
+    }
+
+    /**
+     * 从 pos 开始把不在表中的元素放进表里：探测距离比对方大时交换，带着被挤出的元素继续探测
+     *
+     * @param dist x 在 pos 处的探测距离
+     */
+    private void insertHelper(Object x, int h, int pos, int dist) {
+        for (; ; dist++) {
+            int slotHash = hashes[pos];
+            if (slotHash == 0) {
+                elements[pos] = x;
+                hashes[pos] = h;
+                return;
+            }
+            int slotDist = (pos - slotHash) & mask;
+            if (slotDist < dist) {
+                Object temp = elements[pos];
+                elements[pos] = x;
+                hashes[pos] = h;
+                x = temp;
+                h = slotHash;
+                dist = slotDist;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    /**
+     * 删除元素，后移回填
+     *
+     * @param x
+     * @return 是否存在
+     */
+    public boolean remove(T x) {
+        int pos = findPos(x);
+        if (pos < 0) {
+            return false;
+        }
+        int next = (pos + 1) & mask;
+        while (hashes[next] != 0 && ((next - hashes[next]) & mask) != 0) {
+            elements[pos] = elements[next];
+            hashes[pos] = hashes[next];
+            pos = next;
+            next = (next + 1) & mask;
+        }
+        elements[pos] = null;
+        hashes[pos] = 0;
+        currentSize--;
+        return true;
+    }
+
+    public int size() {
+        return currentSize;
+    }
+
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    public void makeEmpty() {
+        Arrays.fill(elements, null);
+        Arrays.fill(hashes, 0);
+        currentSize = 0;
+    }
+
+    /**
+     * 最大探测距离，即查找一个元素最多需要的额外探测次数
+     *
+     * @return
+     */
+    public int maxProbeDistance() {
+        int max = 0;
+        for (int pos = 0; pos < hashes.length; pos++) {
+            if (hashes[pos] != 0) {
+                max = Math.max(max, (pos - hashes[pos]) & mask);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 定址：找到返回位置，否则返回 -1
+     */
+    private int findPos(T x) {
+        int h = hash(x);
+        int pos = h & mask;
+        for (int dist = 0; ; dist++) {
+            int slotHash = hashes[pos];
+            if (slotHash == 0 || ((pos - slotHash) & mask) < dist) {
+                return -1;
+            }
+            if (slotHash == h && x.equals(elements[pos])) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private static int hash(Object x) {
+        int h = Hashing.mix(x.hashCode());
+        return h != 0 ? h : 1;
+    }
+
+    private void allocateArrays(int capacity) {
+        elements = new Object[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        // 至少留一个空位，保证探测能结束
+        threshold = Math.min((int) (capacity * maxLoad), capacity - 1);
+    }
+
+    /**
+     * 扩容为两倍，按保存的散列值重新放置
+     */
+    private void rehash() {
+        Object[] oldElements = elements;
+        int[] oldHashes = hashes;
+        if (oldElements.length == Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("hash table is full");
+        }
+        allocateArrays(oldElements.length << 1);
+        for (int i = 0; i < oldElements.length; i++) {
+            if (oldHashes[i] != 0) {
+                insertHelper(oldElements[i], oldHashes[i], oldHashes[i] & mask, 0);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(1000, 0.9);
+        for (int i = 0; i < 900; i++) {
+            table.insert(i * 7919);
+        }
+        System.out.println(table.size() + " " + table.contains(7919) + " " + table.contains(7920)
+                + " max probe distance: " + table.maxProbeDistance());
+        for (int i = 0; i < 900; i += 2) {
+            table.remove(i * 7919);
+        }
+        System.out.println(table.size() + " " + table.contains(0) + " " + table.contains(7919)
+                + " max probe distance: " + table.maxProbeDistance());
+    }
+}
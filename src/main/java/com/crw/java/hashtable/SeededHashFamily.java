@@ -0,0 +1,51 @@
+package com.crw.java.hashtable;
+
+import java.util.Random;
+
+/**
+ * 以种子区分各散列函数的 HashFamily
+ * <p>
+ * 第 which 个散列函数是同一个散列算法配上第 which 组种子(每组两个 64 位数，算法用到几个取几个)。
+ * generateNewFunctions 只是重新生成种子，不分配内存，代价与散列函数的个数成正比，与表的大小无关。
+ * 子类只需实现 hash，用 seed(which) / seed2(which) 取种子。
+ *
+ * @param <T>
+ */
+abstract class SeededHashFamily<T> implements HashFamily<T> {
+
+    private final Random random;
+    private final long[] seeds;
+
+    /**
+     * @param numFunctions 散列函数的个数
+     * @param random       种子的来源
+     */
+    SeededHashFamily(int numFunctions, Random random) {
+        if (numFunctions < 1) {
+            throw new IllegalArgumentException("numFunctions < 1: " + numFunctions);
+        }
+        this.random = random;
+        this.seeds = new long[numFunctions << 1];
+        generateNewFunctions();
+    }
+
+    final long seed(int which) {
+        return seeds[which << 1];
+    }
+
+    final long seed2(int which) {
+        return seeds[(which << 1) + 1];
+    }
+
+    @Override
+    public int getNumberOfFunctions() {
+        return seeds.length >> 1;
+    }
+
+    @Override
+    public void generateNewFunctions() {
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+}
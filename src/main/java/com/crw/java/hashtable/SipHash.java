@@ -0,0 +1,177 @@
+package com.crw.java.hashtable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * SipHash-2-4，带 128 位密钥(k0, k1)
+ * <p>
+ * 4 个 64 位状态由密钥初始化，每 8 个字节一块：异或进 v3，做 2 轮 SipRound(加法、循环左移、异或)，再异或进 v0；
+ * 最后一块为剩余字节加上长度的低 8 位(放在最高字节)，结束时再做 4 轮。
+ * 它是带密钥的伪随机函数：不知道密钥就无法有效地构造碰撞，可以抵御针对哈希表的碰撞攻击
+ * (攻击者提交大量散列值相同的键，使布谷鸟散列反复踢出、再散列直到扩容失败)。
+ * 代价是比 {@link Murmur3Hash}、{@link XxHash64} 慢，键来自不可信的外部输入时才需要使用。
+ * <p>
+ * int 和 long 按小端序的 4 / 8 个字节计算，String 按 UTF-16LE 编码后的字节计算(不转成 byte[])，
+ * 结果分别与对应字节数组的散列值相同。
+ */
+public final class SipHash {
+
+    private SipHash() {
+    }
+
+    /**
+     * 4 个状态字，只在一次计算中使用，即时编译器内联后会消除这个对象
+     */
+    private static final class State {
+        long v0;
+        long v1;
+        long v2;
+        long v3;
+
+        State(long k0, long k1) {
+            v0 = k0 ^ 0x736f6d6570736575L;
+            v1 = k1 ^ 0x646f72616e646f6dL;
+            v2 = k0 ^ 0x6c7967656e657261L;
+            v3 = k1 ^ 0x7465646279746573L;
+        }
+
+        void sipRound() {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13);
+            v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16);
+            v3 ^= v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21);
+            v3 ^= v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17);
+            v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+
+        /**
+         * 吸收一个 8 字节的块
+         */
+        void compress(long m) {
+            v3 ^= m;
+            sipRound();
+            sipRound();
+            v0 ^= m;
+        }
+
+        /**
+         * 吸收最后一块(剩余字节与长度)并输出
+         */
+        long finish(long last) {
+            compress(last);
+            v2 ^= 0xff;
+            sipRound();
+            sipRound();
+            sipRound();
+            sipRound();
+            return v0 ^ v1 ^ v2 ^ v3;
+        }
+    }
+
+    public static long hash64(int k, long k0, long k1) {
+        return new State(k0, k1).finish(4L << 56 | k & 0xffffffffL);
+    }
+
+    public static long hash64(long k, long k0, long k1) {
+        State s = new State(k0, k1);
+        s.compress(k);
+        return s.finish(8L << 56);
+    }
+
+    public static long hash64(byte[] data, long k0, long k1) {
+        State s = new State(k0, k1);
+        int len = data.length;
+        int i = 0;
+        for (; i + 8 <= len; i += 8) {
+            s.compress(Hashing.getLongLE(data, i));
+        }
+        long last = (long) len << 56;
+        for (int shift = 0; i < len; i++, shift += 8) {
+            last |= (data[i] & 0xffL) << shift;
+        }
+        return s.finish(last);
+    }
+
+    public static long hash64(String str, long k0, long k1) {
+        State s = new State(k0, k1);
+        int n = str.length();
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            s.compress(Hashing.getLongLE(str, i));
+        }
+        long last = (long) (n << 1) << 56;
+        for (int shift = 0; i < n; i++, shift += 16) {
+            last |= (long) str.charAt(i) << shift;
+        }
+        return s.finish(last);
+    }
+
+    // HashFamily start：密钥取自 SecureRandom，第 which 个散列函数使用第 which 个密钥，取结果的低 32 位
+
+    public static HashFamily<Integer> forInts(int numFunctions) {
+        return new SeededHashFamily<Integer>(numFunctions, new SecureRandom()) {
+            @Override
+            public int hash(Integer x, int which) {
+                return (int) hash64(x.intValue(), seed(which), seed2(which));
+            }
+        };
+    }
+
+    public static HashFamily<Long> forLongs(int numFunctions) {
+        return new SeededHashFamily<Long>(numFunctions, new SecureRandom()) {
+            @Override
+            public int hash(Long x, int which) {
+                return (int) hash64(x.longValue(), seed(which), seed2(which));
+            }
+        };
+    }
+
+    public static HashFamily<String> forStrings(int numFunctions) {
+        return new SeededHashFamily<String>(numFunctions, new SecureRandom()) {
+            @Override
+            public int hash(String x, int which) {
+                return (int) hash64(x, seed(which), seed2(which));
+            }
+        };
+    }
+
+    public static HashFamily<byte[]> forBytes(int numFunctions) {
+        return new SeededHashFamily<byte[]>(numFunctions, new SecureRandom()) {
+            @Override
+            public int hash(byte[] x, int which) {
+                return (int) hash64(x, seed(which), seed2(which));
+            }
+        };
+    }
+
+    // HashFamily end
+
+    public static void main(String[] args) {
+        // 论文附录的测试向量：密钥为 00 01 ... 0f，消息为 00 01 ... (len - 1)
+        long k0 = 0x0706050403020100L;
+        long k1 = 0x0f0e0d0c0b0a0908L;
+        byte[] message = new byte[15];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) i;
+        }
+        System.out.println(Long.toHexString(hash64(new byte[0], k0, k1)) + " (726fdb47dd0e0e31)");
+        System.out.println(Long.toHexString(hash64(message, k0, k1)) + " (a129ca6149be45e5)");
+        String s = "sip";
+        System.out.println(hash64(s, k0, k1) == hash64(s.getBytes(StandardCharsets.UTF_16LE), k0, k1));
+
+        CuckooHashTable<String> table = new CuckooHashTable<>(forStrings(2));
+        for (int i = 0; i < 100000; i++) {
+            table.insert("key" + i);
+        }
+        System.out.println(table.contains("key12345") + " " + table.contains("key100000"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.crw.java.hashtable;
+
+import java.util.Random;
+
+/**
+ * 简单列表散列(simple tabulation hashing)
+ * <p>
+ * 把键拆成字节，第 i 个字节 c 查第 i 张表(256 个随机 int)得到 T_i[c]，所有结果异或起来就是散列值。
+ * 每个字节一次查表，没有乘法；表足够小(int 键 4KB，long 键 8KB)，能放进 L1 缓存。
+ * 它只是 3 独立的，但 Pătraşcu 和 Thorup 证明了用于线性探测时与完全随机的散列函数效果相当，
+ * 用于布谷鸟散列时插入 n 个元素失败(需要再散列)的概率为 O(n^(-1/3))。
+ * <p>
+ * 散列函数由表决定，generateNewFunctions 重新填充随机表：每个散列函数 1024 / 2048 个 int，
+ * 比 {@link SeededHashFamily} 换种子费事，但仍与表的大小无关，远小于一次再散列的代价。
+ * String 和 byte[] 先用 {@link XxHash64} 以固定种子压缩成 64 位，再对这 64 位做列表散列：
+ * 两个键只有 64 位摘要完全相同时才在所有散列函数下都冲突，随机输入中几乎不会发生，但不抗碰撞攻击。
+ */
+public final class TabulationHash {
+
+    /**
+     * 每张表的大小
+     */
+    private static final int TABLE_SIZE = 256;
+
+    private TabulationHash() {
+    }
+
+    /**
+     * @param k
+     * @param t 4 张表依次存放，长度至少 4 * 256
+     * @return
+     */
+    public static int hash(int k, int[] t) {
+        return t[k & 0xff]
+                ^ t[TABLE_SIZE | (k >>> 8 & 0xff)]
+                ^ t[2 * TABLE_SIZE | (k >>> 16 & 0xff)]
+                ^ t[3 * TABLE_SIZE | k >>> 24];
+    }
+
+    /**
+     * @param k
+     * @param t 8 张表依次存放，长度至少 8 * 256
+     * @return
+     */
+    public static int hash(long k, int[] t) {
+        int lo = (int) k;
+        int hi = (int) (k >>> 32);
+        return hash(lo, t)
+                ^ t[4 * TABLE_SIZE | (hi & 0xff)]
+                ^ t[5 * TABLE_SIZE | (hi >>> 8 & 0xff)]
+                ^ t[6 * TABLE_SIZE | (hi >>> 16 & 0xff)]
+                ^ t[7 * TABLE_SIZE | hi >>> 24];
+    }
+
+    /**
+     * 每个散列函数一组随机表
+     */
+    private abstract static class TabulationHashFamily<T> implements HashFamily<T> {
+        private final Random random = new Random();
+        final int[][] tables;
+
+        TabulationHashFamily(int numFunctions, int keyBytes) {
+            if (numFunctions < 1) {
+                throw new IllegalArgumentException("numFunctions < 1: " + numFunctions);
+            }
+            tables = new int[numFunctions][keyBytes * TABLE_SIZE];
+            generateNewFunctions();
+        }
+
+        @Override
+        public int getNumberOfFunctions() {
+            return tables.length;
+        }
+
+        @Override
+        public void generateNewFunctions() {
+            for (int[] t : tables) {
+                for (int i = 0; i < t.length; i += 2) { // 一个 long 填两项
+                    long r = random.nextLong();
+                    t[i] = (int) r;
+                    t[i + 1] = (int) (r >>> 32);
+                }
+            }
+        }
+    }
+
+    // HashFamily start
+
+    public static HashFamily<Integer> forInts(int numFunctions) {
+        return new TabulationHashFamily<Integer>(numFunctions, 4) {
+            @Override
+            public int hash(Integer x, int which) {
+                return TabulationHash.hash(x.intValue(), tables[which]);
+            }
+        };
+    }
+
+    public static HashFamily<Long> forLongs(int numFunctions) {
+        return new TabulationHashFamily<Long>(numFunctions, 8) {
+            @Override
+            public int hash(Long x, int which) {
+                return TabulationHash.hash(x.longValue(), tables[which]);
+            }
+        };
+    }
+
+    public static HashFamily<String> forStrings(int numFunctions) {
+        return new TabulationHashFamily<String>(numFunctions, 8) {
+            @Override
+            public int hash(String x, int which) {
+                return TabulationHash.hash(XxHash64.hash64(x, 0), tables[which]);
+            }
+        };
+    }
+
+    public static HashFamily<byte[]> forBytes(int numFunctions) {
+        return new TabulationHashFamily<byte[]>(numFunctions, 8) {
+            @Override
+            public int hash(byte[] x, int which) {
+                return TabulationHash.hash(XxHash64.hash64(x, 0), tables[which]);
+            }
+        };
+    }
+
+    // HashFamily end
+
+    public static void main(String[] args) {
+        // 连续整数：只有低位的表项在变化
+        HashFamily<Integer> hf = forInts(2);
+        BucketizedCuckooHashTable<Integer> table = new BucketizedCuckooHashTable<>(hf);
+        for (int i = 0; i < 1000000; i++) {
+            table.insert(i);
+        }
+        System.out.printf("size: %d, load: %.3f, rehashes: %d%n",
+                table.size(), table.loadFactor(), table.rehashCount());
+    }
+}
@@ -0,0 +1,191 @@
+package com.crw.java.hashtable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * xxHash64，带 64 位种子
+ * <p>
+ * 输入不少于 32 字节时分成 4 路，每路每次吸收 8 个字节(round：乘 P2、循环左移 31、乘 P1)，
+ * 4 路互不依赖，CPU 可以并行执行；剩下的按 8、4、1 字节处理，最后做一次雪崩混合。
+ * 对长字符串比 {@link Murmur3Hash} 快得多，结果为 64 位，作为 HashFamily 时取低 32 位。
+ * <p>
+ * int 和 long 按小端序的 4 / 8 个字节计算，String 按 UTF-16LE 编码后的字节计算(不转成 byte[])，
+ * 结果分别与对应字节数组的散列值相同。与 Murmur3Hash 一样不抗碰撞攻击。
+ */
+public final class XxHash64 {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private XxHash64() {
+    }
+
+    public static long hash64(int k, long seed) {
+        return avalanche(tail4(seed + P5 + 4, k));
+    }
+
+    public static long hash64(long k, long seed) {
+        return avalanche(tail8(seed + P5 + 8, k));
+    }
+
+    public static long hash64(byte[] data, long seed) {
+        int len = data.length;
+        int i = 0;
+        long h;
+        if (len >= 32) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            for (; i + 32 <= len; i += 32) {
+                v1 = round(v1, Hashing.getLongLE(data, i));
+                v2 = round(v2, Hashing.getLongLE(data, i + 8));
+                v3 = round(v3, Hashing.getLongLE(data, i + 16));
+                v4 = round(v4, Hashing.getLongLE(data, i + 24));
+            }
+            h = merge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += len;
+        for (; i + 8 <= len; i += 8) {
+            h = tail8(h, Hashing.getLongLE(data, i));
+        }
+        if (i + 4 <= len) {
+            h = tail4(h, Hashing.getIntLE(data, i));
+            i += 4;
+        }
+        for (; i < len; i++) {
+            h = tail1(h, data[i]);
+        }
+        return avalanche(h);
+    }
+
+    public static long hash64(String s, long seed) {
+        int n = s.length();
+        int i = 0;
+        long h;
+        if (n >= 16) { // 16 个字符即 32 个字节
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            for (; i + 16 <= n; i += 16) {
+                v1 = round(v1, Hashing.getLongLE(s, i));
+                v2 = round(v2, Hashing.getLongLE(s, i + 4));
+                v3 = round(v3, Hashing.getLongLE(s, i + 8));
+                v4 = round(v4, Hashing.getLongLE(s, i + 12));
+            }
+            h = merge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += (long) n << 1;
+        for (; i + 4 <= n; i += 4) {
+            h = tail8(h, Hashing.getLongLE(s, i));
+        }
+        if (i + 2 <= n) {
+            h = tail4(h, Hashing.getIntLE(s, i));
+            i += 2;
+        }
+        if (i < n) { // 剩下一个字符，按低字节、高字节两次处理
+            char c = s.charAt(i);
+            h = tail1(tail1(h, (byte) c), (byte) (c >>> 8));
+        }
+        return avalanche(h);
+    }
+
+    private static long round(long acc, long input) {
+        return Long.rotateLeft(acc + input * P2, 31) * P1;
+    }
+
+    private static long merge(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+        h = (h ^ round(0, v1)) * P1 + P4;
+        h = (h ^ round(0, v2)) * P1 + P4;
+        h = (h ^ round(0, v3)) * P1 + P4;
+        return (h ^ round(0, v4)) * P1 + P4;
+    }
+
+    private static long tail8(long h, long k) {
+        return Long.rotateLeft(h ^ round(0, k), 27) * P1 + P4;
+    }
+
+    private static long tail4(long h, int k) {
+        return Long.rotateLeft(h ^ (k & 0xffffffffL) * P1, 23) * P2 + P3;
+    }
+
+    private static long tail1(long h, byte b) {
+        return Long.rotateLeft(h ^ (b & 0xff) * P5, 11) * P1;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        return h ^ (h >>> 32);
+    }
+
+    // HashFamily start：第 which 个散列函数以第 which 个随机数为种子，取结果的低 32 位
+
+    public static HashFamily<Integer> forInts(int numFunctions) {
+        return new SeededHashFamily<Integer>(numFunctions, new Random()) {
+            @Override
+            public int hash(Integer x, int which) {
+                return (int) hash64(x.intValue(), seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<Long> forLongs(int numFunctions) {
+        return new SeededHashFamily<Long>(numFunctions, new Random()) {
+            @Override
+            public int hash(Long x, int which) {
+                return (int) hash64(x.longValue(), seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<String> forStrings(int numFunctions) {
+        return new SeededHashFamily<String>(numFunctions, new Random()) {
+            @Override
+            public int hash(String x, int which) {
+                return (int) hash64(x, seed(which));
+            }
+        };
+    }
+
+    public static HashFamily<byte[]> forBytes(int numFunctions) {
+        return new SeededHashFamily<byte[]>(numFunctions, new Random()) {
+            @Override
+            public int hash(byte[] x, int which) {
+                return (int) hash64(x, seed(which));
+            }
+        };
+    }
+
+    // HashFamily end
+
+    public static void main(String[] args) {
+        // 参考实现的测试向量
+        System.out.println(Long.toHexString(hash64(new byte[0], 0)) + " (ef46db3751d8e999)");
+        System.out.println(Long.toHexString(hash64("abc".getBytes(StandardCharsets.US_ASCII), 0))
+                + " (44bc2cf5ad770999)");
+        System.out.println(Long.toHexString(hash64("Nobody inspects the spammish repetition"
+                .getBytes(StandardCharsets.US_ASCII), 0)) + " (fbcea83c8a378bf1)");
+        String s = "a string longer than sixteen chars";
+        System.out.println(hash64(s, 42) == hash64(s.getBytes(StandardCharsets.UTF_16LE), 42));
+
+        BucketizedCuckooHashTable<String> table = new BucketizedCuckooHashTable<>(forStrings(2));
+        for (int i = 0; i < 100000; i++) {
+            table.insert("key" + i);
+        }
+        System.out.println(table.contains("key12345") + " " + table.contains("key100000")
+                + ", rehashes: " + table.rehashCount());
+    }
+}
@@ -136,10 +136,30 @@ public class BinaryHeap<T extends Comparable<? super T>> {
         array[hole] = tmp; // 空洞位置找到，赋值
     }
 
+    /**
+     * 用 item 替换最小元素，只做一次下滤，比 deleteMin + insert 少一次上滤
+     *
+     * @param item
+     * @return 被替换的最小元素
+     */
+    public T replaceMin(T item) {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        T min = array[1];
+        array[1] = item;
+        precolateDown(1);
+        return min;
+    }
+
     public boolean isEmpty() {
         return currentSize == 0;
     }
 
+    public int size() {
+        return currentSize;
+    }
+
     public static void main(String[] args) {
         Integer[] array = new Integer[]{22, 31, 5, 13, 17, 8, 10, 7};
         BinaryHeap<Integer> heap = new BinaryHeap<>(array);
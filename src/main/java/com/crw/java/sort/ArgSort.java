@@ -0,0 +1,171 @@
+package com.crw.java.sort;
+
+import java.util.Comparator;
+
+/**
+ * 间接排序(argsort)与按排列重排
+ * <p>
+ * argsort 不移动数据，返回排列 perm：keys[perm[0]] <= keys[perm[1]] <= ...，相同关键字按原下标升序，稳定。
+ * 实现上是对 关键字副本 + 下标 做键值同步的基数排序({@link RadixSort#sort(long[], int[])})：
+ * 1.long 关键字：关键字副本与下标数组同步排序。
+ * 2.int 关键字：与 {@link KeySort} 相同，关键字放在 long 的高 32 位、下标放在低 32 位，排序一个 long[] 即可。
+ * 3.double 关键字：位模式变换为按 long 比较即有序的值，与 Arrays.sort 的顺序一致。
+ * <p>
+ * 多个载荷数组：只有一个 int[] 载荷时直接用 RadixSort/QuickSort/MergeSort 的 sort(long[], int[])；
+ * 多个载荷时先与下标同步排序得到排列，再用 permute 逐个重排，比每次交换都移动所有数组更快。
+ * {@link #sort(long[], int[]...)} 和 {@link #sort(long[], long[]...)} 就是这样实现的。
+ * <p>
+ * 时间复杂度：O(n)；空间复杂度：O(n)
+ */
+public class ArgSort {
+
+    public static void main(String[] args) {
+        long[] keys = {40, 20, 56, 23, 12, 33, 18, 20};
+        int[] perm = argsort(keys);
+        for (int i : perm) {
+            System.out.print(i + ":" + keys[i] + " ");
+        }
+    }
+
+    /**
+     * 返回使 keys 有序的排列，keys 不变，稳定
+     *
+     * @param keys
+     * @return perm，keys[perm[i]] 为第 i 小的关键字
+     */
+    public static int[] argsort(long[] keys) {
+        int[] perm = identity(keys.length);
+        RadixSort.sort(keys.clone(), perm);
+        return perm;
+    }
+
+    /**
+     * 返回使 keys 有序的排列，keys 不变，稳定
+     *
+     * @param keys
+     * @return perm，keys[perm[i]] 为第 i 小的关键字
+     */
+    public static int[] argsort(int[] keys) {
+        int n = keys.length;
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        RadixSort.sort(packed);
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = (int) packed[i];
+        }
+        return perm;
+    }
+
+    /**
+     * 返回使 keys 有序的排列，keys 不变，稳定。-0.0 排在 0.0 之前，NaN 排在最后
+     *
+     * @param keys
+     * @return perm，keys[perm[i]] 为第 i 小的关键字
+     */
+    public static int[] argsort(double[] keys) {
+        int n = keys.length;
+        long[] bits = new long[n];
+        for (int i = 0; i < n; i++) {
+            long b = Double.doubleToLongBits(keys[i]);
+            bits[i] = b ^ ((b >> 63) & Long.MAX_VALUE); // 负数翻转除符号位外的所有位，按有符号 long 比较即有序
+        }
+        int[] perm = identity(n);
+        RadixSort.sort(bits, perm);
+        return perm;
+    }
+
+    /**
+     * 按比较器返回使 arr 有序的排列，arr 不变，稳定
+     *
+     * @param arr
+     * @param c
+     * @return perm，arr[perm[i]] 为第 i 小的记录
+     */
+    public static <T> int[] argsort(T[] arr, Comparator<? super T> c) {
+        int n = arr.length;
+        Integer[] index = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+        }
+        TimSort.sort(index, (a, b) -> c.compare(arr[a], arr[b]));
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = index[i];
+        }
+        return perm;
+    }
+
+    /**
+     * 按 keys 排序，每个载荷数组与 keys 同步重排，稳定
+     *
+     * @param keys
+     * @param payloads 长度均不小于 keys.length
+     */
+    public static void sort(long[] keys, int[]... payloads) {
+        int[] perm = identity(keys.length);
+        RadixSort.sort(keys, perm);
+        for (int[] payload : payloads) {
+            permute(perm, payload);
+        }
+    }
+
+    /**
+     * 按 keys 排序，每个载荷数组与 keys 同步重排，稳定
+     *
+     * @param keys
+     * @param payloads 长度均不小于 keys.length
+     */
+    public static void sort(long[] keys, long[]... payloads) {
+        int[] perm = identity(keys.length);
+        RadixSort.sort(keys, perm);
+        for (long[] payload : payloads) {
+            permute(perm, payload);
+        }
+    }
+
+    /**
+     * 按排列重排：重排后 arr[i] 为原来的 arr[perm[i]]
+     *
+     * @param perm 由 argsort 得到的排列
+     * @param arr  长度不小于 perm.length
+     */
+    public static void permute(int[] perm, int[] arr) {
+        int[] copy = arr.clone();
+        for (int i = 0; i < perm.length; i++) {
+            arr[i] = copy[perm[i]];
+        }
+    }
+
+    public static void permute(int[] perm, long[] arr) {
+        long[] copy = arr.clone();
+        for (int i = 0; i < perm.length; i++) {
+            arr[i] = copy[perm[i]];
+        }
+    }
+
+    public static void permute(int[] perm, double[] arr) {
+        double[] copy = arr.clone();
+        for (int i = 0; i < perm.length; i++) {
+            arr[i] = copy[perm[i]];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> void permute(int[] perm, T[] arr) {
+        Object[] copy = arr.clone();
+        for (int i = 0; i < perm.length; i++) {
+            arr[i] = (T) copy[perm[i]];
+        }
+    }
+
+    private static int[] identity(int n) {
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+        }
+        return index;
+    }
+}
@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 折半插入排序
  * <p>
@@ -23,7 +26,7 @@ public class BinaryInsertSort {
             int high = i - 1;
             while (low <= high) {
                 int mid = (low + high) / 2; // 折半
-                if (temp < arr[mid]) { // 插入点在低半区
+                if (SortMetrics.less(temp, arr[mid])) { // 插入点在低半区
                     high = mid - 1;
                 } else { // 插入点在高半区
                     low = mid + 1;
@@ -33,10 +36,71 @@ public class BinaryInsertSort {
                 arr[j + 1] = arr[j];
             }
             arr[high + 1] = temp; // 插入
+            SortMetrics.move(i - high);
             print(arr, i, low);
         }
     }
 
+    /**
+     * arr[low...start-1] 已有序，将 arr[start...high] 逐个折半插入，供 TimSort 扩展较短的自然有序段
+     *
+     * @param arr
+     * @param low
+     * @param start 第一个待插入记录的位置
+     * @param high
+     */
+    public static void insert(int[] arr, int low, int start, int high) {
+        if (start == low) {
+            start++;
+        }
+        for (int i = start; i <= high; i++) {
+            int temp = arr[i];
+            int left = low;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (SortMetrics.less(temp, arr[mid])) {
+                    right = mid;
+                } else { // 相等时插在后面，保证稳定
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = temp;
+            SortMetrics.move(i - left + 1);
+        }
+    }
+
+    /**
+     * 按比较器折半插入，arr[low...start-1] 已有序
+     *
+     * @param arr
+     * @param low
+     * @param start 第一个待插入记录的位置
+     * @param high
+     * @param c
+     */
+    public static <T> void insert(T[] arr, int low, int start, int high, Comparator<? super T> c) {
+        if (start == low) {
+            start++;
+        }
+        for (int i = start; i <= high; i++) {
+            T temp = arr[i];
+            int left = low;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(temp, arr[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = temp;
+        }
+    }
+
     private static void print(int[] arr, int i, int low) {
         System.out.print("第" + i + "次结果: ");
         for (int j = 0; j < arr.length; j++) {
@@ -47,4 +111,40 @@ public class BinaryInsertSort {
             }
         }
     }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        for (int i = 1; i < arr.length; i++) {
+            T temp = arr[i]; // 暂存待插入元素
+            int low = 0;
+            int high = i - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1; // 折半
+                if (c.compare(temp, arr[mid]) < 0) { // 插入点在低半区
+                    high = mid - 1;
+                } else { // 插入点在高半区，相等时插在后面，保证稳定
+                    low = mid + 1;
+                }
+            }
+            System.arraycopy(arr, low, arr, low + 1, i - low); // 记录后移
+            arr[low] = temp; // 插入
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
 }
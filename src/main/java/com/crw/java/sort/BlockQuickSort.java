@@ -0,0 +1,438 @@
+package com.crw.java.sort;
+
+/**
+ * 块划分快速排序(BlockQuicksort, Edelkamp & Weiß)
+ * <p>
+ * 普通划分里 "arr[i] 是否小于枢轴" 这个判断直接决定是否交换，随机数据下约一半的分支预测失败。
+ * 块划分把比较和交换拆成两个阶段：
+ * 1.扫描：左右各取 BLOCK_SIZE 个记录，把需要交换的位置写入偏移缓冲区。
+ *   写入总是发生，比较结果只决定计数器是否加一，没有依赖数据的分支。
+ * 2.交换：按两个缓冲区中的偏移成对交换。
+ * 剩余不足两个块的记录使用普通划分处理。
+ * <p>
+ * 枢轴取三数中值(大子表取九数中值)，对较小一侧递归、较大一侧循环，栈深度不超过 logN；
+ * double 数组与 Arrays.sort 的顺序一致：-0.0 排在 0.0 之前，NaN 排在最后。
+ * <p>
+ * 时间复杂度：平均 O(N*logN)，最坏 O(N^2)(需要刻意构造的输入)；不稳定的排序
+ */
+public class BlockQuickSort {
+
+    /**
+     * 每个块的记录数，偏移缓冲区的大小
+     */
+    private static final int BLOCK_SIZE = 128;
+
+    /**
+     * double 子表长度不超过该值时使用插入排序；int/long 子表不超过 16 时使用排序网络({@link SmallSort})
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    /**
+     * 子表长度超过该值时使用九数中值选取枢轴
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        sort(arr);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(int[] arr, int low, int high) {
+        SortMetrics.allocate(2L * BLOCK_SIZE * Integer.BYTES);
+        blockQuickSort(arr, low, high, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+    }
+
+    private static void blockQuickSort(int[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        SortMetrics.enter();
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            int pivotloc = partition(arr, low, high, offsetsL, offsetsR);
+            if (pivotloc - low < high - pivotloc) {
+                blockQuickSort(arr, low, pivotloc - 1, offsetsL, offsetsR);
+                low = pivotloc + 1;
+            } else {
+                blockQuickSort(arr, pivotloc + 1, high, offsetsL, offsetsR);
+                high = pivotloc - 1;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+        SortMetrics.exit();
+    }
+
+    /**
+     * 块划分，返回枢轴位置。划分后 arr[low...pivotloc-1] <= 枢轴 <= arr[pivotloc+1...high]
+     */
+    private static int partition(int[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        swap(arr, pivotIndex(arr, low, high), high); // 枢轴放在末尾
+        int pivotkey = arr[high];
+
+        // 不变式：arr[low...l-1] <= pivotkey，arr[r+1...high-1] >= pivotkey
+        int l = low;
+        int r = high - 1;
+        int numL = 0;
+        int numR = 0;
+        int startL = 0;
+        int startR = 0;
+        while (r - l + 1 > 2 * BLOCK_SIZE) {
+            // 左块中 >= pivotkey 的记录需要移到右边
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsL[numL] = i;
+                    numL += 1 - less(arr[l + i], pivotkey);
+                }
+                SortMetrics.compare(BLOCK_SIZE);
+            }
+            // 右块中 <= pivotkey 的记录需要移到左边
+            if (numR == 0) {
+                startR = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsR[numR] = i;
+                    numR += 1 - less(pivotkey, arr[r - i]);
+                }
+                SortMetrics.compare(BLOCK_SIZE);
+            }
+            // 成对交换
+            int num = Math.min(numL, numR);
+            for (int j = 0; j < num; j++) {
+                swap(arr, l + offsetsL[startL + j], r - offsetsR[startR + j]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            // 缓冲区用完说明整块已经就位
+            if (numL == 0) {
+                l += BLOCK_SIZE;
+            }
+            if (numR == 0) {
+                r -= BLOCK_SIZE;
+            }
+        }
+
+        // 剩余部分(包括未处理完的块)普通划分
+        int i = l;
+        for (int j = l; j <= r; j++) {
+            if (SortMetrics.less(arr[j], pivotkey)) {
+                swap(arr, i++, j);
+            }
+        }
+        swap(arr, i, high);
+        return i;
+    }
+
+    /**
+     * 三数中值，大子表取九数中值，返回枢轴下标
+     */
+    private static int pivotIndex(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr, low, mid, high);
+        }
+        int s = (high - low + 1) / 8;
+        int a = median(arr, low, low + s, low + 2 * s);
+        int b = median(arr, mid - s, mid, mid + s);
+        int c = median(arr, high - 2 * s, high - s, high);
+        return median(arr, a, b, c);
+    }
+
+    private static int median(int[] arr, int a, int b, int c) {
+        if (SortMetrics.less(arr[a], arr[b])) {
+            return SortMetrics.less(arr[b], arr[c]) ? b : (SortMetrics.less(arr[a], arr[c]) ? c : a);
+        } else {
+            return SortMetrics.less(arr[a], arr[c]) ? a : (SortMetrics.less(arr[b], arr[c]) ? c : b);
+        }
+    }
+
+    /**
+     * x < y 时返回 1，否则返回 0。在 long 上做减法不会溢出，取符号位，没有分支
+     */
+    private static int less(int x, int y) {
+        return (int) (((long) x - y) >>> 63);
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(long[] arr, int low, int high) {
+        blockQuickSort(arr, low, high, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+    }
+
+    private static void blockQuickSort(long[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            int pivotloc = partition(arr, low, high, offsetsL, offsetsR);
+            if (pivotloc - low < high - pivotloc) {
+                blockQuickSort(arr, low, pivotloc - 1, offsetsL, offsetsR);
+                low = pivotloc + 1;
+            } else {
+                blockQuickSort(arr, pivotloc + 1, high, offsetsL, offsetsR);
+                high = pivotloc - 1;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+    }
+
+    /**
+     * 块划分，返回枢轴位置。划分后 arr[low...pivotloc-1] <= 枢轴 <= arr[pivotloc+1...high]
+     */
+    private static int partition(long[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        swap(arr, pivotIndex(arr, low, high), high); // 枢轴放在末尾
+        long pivotkey = arr[high];
+
+        // 不变式：arr[low...l-1] <= pivotkey，arr[r+1...high-1] >= pivotkey
+        int l = low;
+        int r = high - 1;
+        int numL = 0;
+        int numR = 0;
+        int startL = 0;
+        int startR = 0;
+        while (r - l + 1 > 2 * BLOCK_SIZE) {
+            // 左块中 >= pivotkey 的记录需要移到右边
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsL[numL] = i;
+                    numL += 1 - less(arr[l + i], pivotkey);
+                }
+            }
+            // 右块中 <= pivotkey 的记录需要移到左边
+            if (numR == 0) {
+                startR = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsR[numR] = i;
+                    numR += 1 - less(pivotkey, arr[r - i]);
+                }
+            }
+            // 成对交换
+            int num = Math.min(numL, numR);
+            for (int j = 0; j < num; j++) {
+                swap(arr, l + offsetsL[startL + j], r - offsetsR[startR + j]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            // 缓冲区用完说明整块已经就位
+            if (numL == 0) {
+                l += BLOCK_SIZE;
+            }
+            if (numR == 0) {
+                r -= BLOCK_SIZE;
+            }
+        }
+
+        // 剩余部分(包括未处理完的块)普通划分
+        int i = l;
+        for (int j = l; j <= r; j++) {
+            if (arr[j] < pivotkey) {
+                swap(arr, i++, j);
+            }
+        }
+        swap(arr, i, high);
+        return i;
+    }
+
+    /**
+     * 三数中值，大子表取九数中值，返回枢轴下标
+     */
+    private static int pivotIndex(long[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr, low, mid, high);
+        }
+        int s = (high - low + 1) / 8;
+        int a = median(arr, low, low + s, low + 2 * s);
+        int b = median(arr, mid - s, mid, mid + s);
+        int c = median(arr, high - 2 * s, high - s, high);
+        return median(arr, a, b, c);
+    }
+
+    private static int median(long[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            return arr[b] < arr[c] ? b : (arr[a] < arr[c] ? c : a);
+        } else {
+            return arr[a] < arr[c] ? a : (arr[b] < arr[c] ? c : b);
+        }
+    }
+
+    /**
+     * x < y 时返回 1，否则返回 0。有符号比较的无分支写法(Hacker's Delight 2-12)，已处理减法溢出
+     */
+    private static int less(long x, long y) {
+        long diff = x - y;
+        return (int) ((diff ^ ((x ^ y) & (diff ^ x))) >>> 63);
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(double[] arr, int low, int high) {
+        // NaN 移到末尾不参与排序
+        int last = DoubleSortHelper.moveNaNsToEnd(arr, low, high);
+        blockQuickSort(arr, low, last, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+        DoubleSortHelper.fixNegativeZeros(arr, low, last);
+    }
+
+    private static void blockQuickSort(double[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            int pivotloc = partition(arr, low, high, offsetsL, offsetsR);
+            if (pivotloc - low < high - pivotloc) {
+                blockQuickSort(arr, low, pivotloc - 1, offsetsL, offsetsR);
+                low = pivotloc + 1;
+            } else {
+                blockQuickSort(arr, pivotloc + 1, high, offsetsL, offsetsR);
+                high = pivotloc - 1;
+            }
+        }
+        insertSort(arr, low, high);
+    }
+
+    /**
+     * 块划分，返回枢轴位置。划分后 arr[low...pivotloc-1] <= 枢轴 <= arr[pivotloc+1...high]
+     */
+    private static int partition(double[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        swap(arr, pivotIndex(arr, low, high), high); // 枢轴放在末尾
+        double pivotkey = arr[high];
+
+        // 不变式：arr[low...l-1] <= pivotkey，arr[r+1...high-1] >= pivotkey
+        int l = low;
+        int r = high - 1;
+        int numL = 0;
+        int numR = 0;
+        int startL = 0;
+        int startR = 0;
+        while (r - l + 1 > 2 * BLOCK_SIZE) {
+            // 左块中 >= pivotkey 的记录需要移到右边
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsL[numL] = i;
+                    numL += 1 - less(arr[l + i], pivotkey);
+                }
+            }
+            // 右块中 <= pivotkey 的记录需要移到左边
+            if (numR == 0) {
+                startR = 0;
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    offsetsR[numR] = i;
+                    numR += 1 - less(pivotkey, arr[r - i]);
+                }
+            }
+            // 成对交换
+            int num = Math.min(numL, numR);
+            for (int j = 0; j < num; j++) {
+                swap(arr, l + offsetsL[startL + j], r - offsetsR[startR + j]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            // 缓冲区用完说明整块已经就位
+            if (numL == 0) {
+                l += BLOCK_SIZE;
+            }
+            if (numR == 0) {
+                r -= BLOCK_SIZE;
+            }
+        }
+
+        // 剩余部分(包括未处理完的块)普通划分
+        int i = l;
+        for (int j = l; j <= r; j++) {
+            if (arr[j] < pivotkey) {
+                swap(arr, i++, j);
+            }
+        }
+        swap(arr, i, high);
+        return i;
+    }
+
+    /**
+     * 三数中值，大子表取九数中值，返回枢轴下标
+     */
+    private static int pivotIndex(double[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr, low, mid, high);
+        }
+        int s = (high - low + 1) / 8;
+        int a = median(arr, low, low + s, low + 2 * s);
+        int b = median(arr, mid - s, mid, mid + s);
+        int c = median(arr, high - 2 * s, high - s, high);
+        return median(arr, a, b, c);
+    }
+
+    private static int median(double[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            return arr[b] < arr[c] ? b : (arr[a] < arr[c] ? c : a);
+        } else {
+            return arr[a] < arr[c] ? a : (arr[b] < arr[c] ? c : b);
+        }
+    }
+
+    /**
+     * x < y 时返回 1，否则返回 0。NaN 已经预先移出，随机数据下 C2 会把这个条件编译为 setcc/cmov
+     */
+    private static int less(double x, double y) {
+        return x < y ? 1 : 0;
+    }
+
+    private static void insertSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double temp = arr[i];
+            int j;
+            for (j = i - 1; j >= low && arr[j] > temp; j--) {
+                arr[j + 1] = arr[j];
+            }
+            arr[j + 1] = temp;
+        }
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
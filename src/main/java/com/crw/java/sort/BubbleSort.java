@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 冒泡排序：交换排序的一种，相邻的两个元素比较，每次冒泡把最大的元素"冒泡交换"到最大的位置
  * <p>
@@ -18,7 +21,7 @@ public class BubbleSort {
     public static void sort(int[] arr) {
         for (int i = 0; i < arr.length - 1; i++) { // 仅需遍历 len - 1 次
             for (int j = 0; j < arr.length - i - 1; j++) {
-                if (arr[j] > arr[j + 1]) {
+                if (SortMetrics.less(arr[j + 1], arr[j])) {
                     swap(arr, j, j + 1);
                 }
             }
@@ -26,8 +29,43 @@ public class BubbleSort {
     }
 
     private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        for (int i = 0; i < arr.length - 1; i++) {
+            for (int j = 0; j < arr.length - i - 1; j++) {
+                if (c.compare(arr[j], arr[j + 1]) > 0) {
+                    swap(arr, j, j + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
 }
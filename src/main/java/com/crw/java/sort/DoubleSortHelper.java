@@ -0,0 +1,66 @@
+package com.crw.java.sort;
+
+/**
+ * double 数组排序的辅助方法
+ * <p>
+ * 基于 < 比较的排序无法正确处理两类特殊值：NaN 与任何值比较都为 false；-0.0 与 0.0 比较相等。
+ * 这里的处理使结果与 Arrays.sort(double[]) 的全序(Double.compare)一致：
+ * 1.排序前把 NaN 移到子表末尾，只对剩余部分排序。
+ * 2.排序后 -0.0 和 0.0 混在同一段里，统计其中 -0.0 的个数，重写为先 -0.0 后 0.0。
+ */
+final class DoubleSortHelper {
+
+    private DoubleSortHelper() {
+    }
+
+    /**
+     * 把 arr[low...high] 中的 NaN 移到末尾
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @return 最后一个非 NaN 记录的下标，全部为 NaN 时返回 low - 1
+     */
+    static int moveNaNsToEnd(double[] arr, int low, int high) {
+        int last = high;
+        for (int i = high; i >= low; i--) {
+            double v = arr[i];
+            if (v != v) { // NaN
+                arr[i] = arr[last];
+                arr[last--] = v;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * arr[low...high] 已按 < 排好序，把其中的 ±0.0 调整为 -0.0 在前、0.0 在后
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    static void fixNegativeZeros(double[] arr, int low, int high) {
+        // 二分查找第一个 >= 0.0 的位置(-0.0 == 0.0)
+        int left = low;
+        int right = high + 1;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < 0.0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        int negativeZeros = 0;
+        int end = left;
+        for (; end <= high && arr[end] == 0.0; end++) {
+            if (Double.doubleToRawLongBits(arr[end]) < 0) {
+                negativeZeros++;
+            }
+        }
+        for (int i = left; i < end; i++) {
+            arr[i] = i < left + negativeZeros ? -0.0 : 0.0;
+        }
+    }
+}
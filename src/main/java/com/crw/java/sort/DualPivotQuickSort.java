@@ -0,0 +1,349 @@
+package com.crw.java.sort;
+
+/**
+ * 双枢轴快速排序(Yaroslavskiy)
+ * <p>
+ * 每次划分选取两个枢轴 p <= q，将子表分为三部分：
+ * [low...l-1] < p，[l+1...g-1] 介于 p 和 q 之间，[g+1...high] >= q。
+ * 相比单枢轴，递归树更矮、每趟扫描的元素更少，对随机数据的缓存与分支表现更好。
+ * <p>
+ * 1.枢轴取子表三等分点上的两个记录，避免有序输入退化。
+ * 2.两个枢轴相等时(大量重复值)改用三路划分，等于枢轴的部分不再参与递归。
+ * 3.对较小的两部分递归、最大的一部分循环处理，栈深度不超过 logN。
+ * 4.小子表：int/long 不超过 16 时使用排序网络({@link SmallSort})，double 不超过 INSERTION_SORT_THRESHOLD 时使用直接插入排序。
+ * 5.double 数组与 Arrays.sort 的顺序一致：-0.0 排在 0.0 之前，NaN 排在最后。
+ * <p>
+ * 时间复杂度：平均 O(N*logN)，最坏 O(N^2)(需要刻意构造的输入)；不稳定的排序
+ */
+public class DualPivotQuickSort {
+
+    /**
+     * double 子表长度不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 27;
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        sort(arr);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(int[] arr, int low, int high) {
+        dualPivotQuickSort(arr, low, high);
+    }
+
+    private static void dualPivotQuickSort(int[] arr, int low, int high) {
+        SortMetrics.enter();
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            // 取三等分点作为两个枢轴，交换到两端
+            int third = (high - low + 1) / 3;
+            swap(arr, low, low + third);
+            swap(arr, high, high - third);
+            if (SortMetrics.less(arr[high], arr[low])) {
+                swap(arr, low, high);
+            }
+            int p = arr[low];
+            int q = arr[high];
+
+            if (p == q) {
+                // 两个枢轴相等，三路划分：[low...lt-1] < p, [lt...gt] == p, [gt+1...high] > p
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while (i <= gt) {
+                    if (SortMetrics.less(arr[i], p)) {
+                        swap(arr, lt++, i++);
+                    } else if (SortMetrics.less(p, arr[i])) {
+                        swap(arr, i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                if (lt - low < high - gt) {
+                    dualPivotQuickSort(arr, low, lt - 1);
+                    low = gt + 1;
+                } else {
+                    dualPivotQuickSort(arr, gt + 1, high);
+                    high = lt - 1;
+                }
+                continue;
+            }
+
+            int l = low + 1; // arr[low+1...l-1] < p
+            int g = high - 1; // arr[g+1...high-1] >= q
+            for (int k = l; k <= g; k++) {
+                if (SortMetrics.less(arr[k], p)) {
+                    swap(arr, k, l++);
+                } else if (!SortMetrics.less(arr[k], q)) {
+                    while (SortMetrics.less(q, arr[g]) && k < g) {
+                        g--;
+                    }
+                    swap(arr, k, g--);
+                    if (SortMetrics.less(arr[k], p)) {
+                        swap(arr, k, l++);
+                    }
+                }
+            }
+            // 枢轴归位
+            l--;
+            g++;
+            swap(arr, low, l);
+            swap(arr, high, g);
+
+            // 三部分：[low...l-1]、[l+1...g-1]、[g+1...high]，对较小的两部分递归，最大的部分继续循环
+            int leftLen = l - low;
+            int midLen = g - l - 1;
+            int rightLen = high - g;
+            if (leftLen >= midLen && leftLen >= rightLen) {
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                high = l - 1;
+            } else if (midLen >= rightLen) {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                low = l + 1;
+                high = g - 1;
+            } else {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                low = g + 1;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+        SortMetrics.exit();
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(long[] arr, int low, int high) {
+        dualPivotQuickSort(arr, low, high);
+    }
+
+    private static void dualPivotQuickSort(long[] arr, int low, int high) {
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            // 取三等分点作为两个枢轴，交换到两端
+            int third = (high - low + 1) / 3;
+            swap(arr, low, low + third);
+            swap(arr, high, high - third);
+            if (arr[low] > arr[high]) {
+                swap(arr, low, high);
+            }
+            long p = arr[low];
+            long q = arr[high];
+
+            if (p == q) {
+                // 两个枢轴相等，三路划分：[low...lt-1] < p, [lt...gt] == p, [gt+1...high] > p
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while (i <= gt) {
+                    if (arr[i] < p) {
+                        swap(arr, lt++, i++);
+                    } else if (arr[i] > p) {
+                        swap(arr, i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                if (lt - low < high - gt) {
+                    dualPivotQuickSort(arr, low, lt - 1);
+                    low = gt + 1;
+                } else {
+                    dualPivotQuickSort(arr, gt + 1, high);
+                    high = lt - 1;
+                }
+                continue;
+            }
+
+            int l = low + 1; // arr[low+1...l-1] < p
+            int g = high - 1; // arr[g+1...high-1] >= q
+            for (int k = l; k <= g; k++) {
+                if (arr[k] < p) {
+                    swap(arr, k, l++);
+                } else if (arr[k] >= q) {
+                    while (arr[g] > q && k < g) {
+                        g--;
+                    }
+                    swap(arr, k, g--);
+                    if (arr[k] < p) {
+                        swap(arr, k, l++);
+                    }
+                }
+            }
+            // 枢轴归位
+            l--;
+            g++;
+            swap(arr, low, l);
+            swap(arr, high, g);
+
+            // 三部分：[low...l-1]、[l+1...g-1]、[g+1...high]，对较小的两部分递归，最大的部分继续循环
+            int leftLen = l - low;
+            int midLen = g - l - 1;
+            int rightLen = high - g;
+            if (leftLen >= midLen && leftLen >= rightLen) {
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                high = l - 1;
+            } else if (midLen >= rightLen) {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                low = l + 1;
+                high = g - 1;
+            } else {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                low = g + 1;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(double[] arr, int low, int high) {
+        // NaN 移到末尾不参与排序
+        int last = DoubleSortHelper.moveNaNsToEnd(arr, low, high);
+        dualPivotQuickSort(arr, low, last);
+        DoubleSortHelper.fixNegativeZeros(arr, low, last);
+    }
+
+    private static void dualPivotQuickSort(double[] arr, int low, int high) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            // 取三等分点作为两个枢轴，交换到两端
+            int third = (high - low + 1) / 3;
+            swap(arr, low, low + third);
+            swap(arr, high, high - third);
+            if (arr[low] > arr[high]) {
+                swap(arr, low, high);
+            }
+            double p = arr[low];
+            double q = arr[high];
+
+            if (p == q) {
+                // 两个枢轴相等，三路划分：[low...lt-1] < p, [lt...gt] == p, [gt+1...high] > p
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while (i <= gt) {
+                    if (arr[i] < p) {
+                        swap(arr, lt++, i++);
+                    } else if (arr[i] > p) {
+                        swap(arr, i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                if (lt - low < high - gt) {
+                    dualPivotQuickSort(arr, low, lt - 1);
+                    low = gt + 1;
+                } else {
+                    dualPivotQuickSort(arr, gt + 1, high);
+                    high = lt - 1;
+                }
+                continue;
+            }
+
+            int l = low + 1; // arr[low+1...l-1] < p
+            int g = high - 1; // arr[g+1...high-1] >= q
+            for (int k = l; k <= g; k++) {
+                if (arr[k] < p) {
+                    swap(arr, k, l++);
+                } else if (arr[k] >= q) {
+                    while (arr[g] > q && k < g) {
+                        g--;
+                    }
+                    swap(arr, k, g--);
+                    if (arr[k] < p) {
+                        swap(arr, k, l++);
+                    }
+                }
+            }
+            // 枢轴归位
+            l--;
+            g++;
+            swap(arr, low, l);
+            swap(arr, high, g);
+
+            // 三部分：[low...l-1]、[l+1...g-1]、[g+1...high]，对较小的两部分递归，最大的部分继续循环
+            int leftLen = l - low;
+            int midLen = g - l - 1;
+            int rightLen = high - g;
+            if (leftLen >= midLen && leftLen >= rightLen) {
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                high = l - 1;
+            } else if (midLen >= rightLen) {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, g + 1, high);
+                low = l + 1;
+                high = g - 1;
+            } else {
+                dualPivotQuickSort(arr, low, l - 1);
+                dualPivotQuickSort(arr, l + 1, g - 1);
+                low = g + 1;
+            }
+        }
+        insertSort(arr, low, high);
+    }
+
+    private static void insertSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double temp = arr[i];
+            int j;
+            for (j = i - 1; j >= low && arr[j] > temp; j--) {
+                arr[j + 1] = arr[j];
+            }
+            arr[j + 1] = temp;
+        }
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
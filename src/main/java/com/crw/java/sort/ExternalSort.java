@@ -0,0 +1,366 @@
+package com.crw.java.sort;
+
+import algs4.cs.princeton.edu.BinaryIn;
+import algs4.cs.princeton.edu.BinaryOut;
+import com.crw.java.heap.BinaryHeap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * 外部归并排序：对放不进内存的二进制文件排序
+ * <p>
+ * 文件由定长记录组成，每条记录 recordSize 字节，前 8 字节是大端序的 long 关键字(与 {@link BinaryIn#readLong()} 一致)，
+ * 其余字节是随记录一起移动的负载。
+ * <p>
+ * 基本思想：
+ * 1.生成顺串：按内存预算每次读入尽可能多的记录，用 {@link RadixSort} 在内存中排序(有负载时对 关键字 + 下标 同步排序)，
+ * 写到临时目录下的一个顺串文件。
+ * 2.多路归并：每个顺串一个读取游标，游标按当前关键字放进 {@link BinaryHeap}，每次输出堆顶游标的一条记录，
+ * 读入它的下一条后用 replaceMin 原地下滤(顺串读完才 deleteMin)，每条记录只做一次下滤。
+ * 顺串个数超过归并路数 fanIn 时，先每 fanIn 个归并成一个更长的顺串，多趟归并直到不超过 fanIn，最后一趟写到输出文件。
+ * <p>
+ * 顺串文件用 bufferSize 大小的缓冲读写，归并时每一路都是大块顺序读，磁盘寻道次数约为 文件大小/bufferSize。
+ * 关键字相同时先比较顺串的编号，顺串按输入顺序生成，因此整个排序是稳定的。
+ * <p>
+ * 内存占用：生成顺串时约 memoryBudget；归并时约 fanIn*bufferSize。
+ * I/O 次数：每条记录读写 1 + ⌈log_fanIn(顺串个数)⌉ 次
+ */
+public class ExternalSort {
+
+    /**
+     * 关键字字节数
+     */
+    private static final int KEY_BYTES = Long.BYTES;
+
+    /**
+     * 内存中每条记录除自身外的开销：关键字辅助数组 8 字节，下标及其辅助数组 8 字节
+     */
+    private static final int RECORD_OVERHEAD = Long.BYTES + 2 * Integer.BYTES;
+
+    private static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    private static final int DEFAULT_FAN_IN = 64;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final int recordSize;
+    private final long memoryBudget;
+    private final int fanIn;
+    private final File tempDir;
+    private final int bufferSize;
+
+    public static void main(String[] args) throws IOException {
+        File input = File.createTempFile("external-sort-in", ".bin");
+        File output = File.createTempFile("external-sort-out", ".bin");
+        try {
+            // 100000 个 long，每个顺串只放 10000 个，归并路数 4，需要两趟归并
+            int n = 100000;
+            Random random = new Random(1);
+            BinaryOut out = new BinaryOut(new FileOutputStream(input));
+            for (int i = 0; i < n; i++) {
+                out.write(random.nextLong());
+            }
+            out.close();
+
+            ExternalSort sorter = new ExternalSort(KEY_BYTES, 10000L * (KEY_BYTES + RECORD_OVERHEAD), 4,
+                    new File(System.getProperty("java.io.tmpdir")), 1 << 16);
+            sorter.sort(input, output);
+
+            BinaryIn in = new BinaryIn(new FileInputStream(output));
+            long prev = Long.MIN_VALUE;
+            int count = 0;
+            while (!in.isEmpty()) {
+                long v = in.readLong();
+                if (v < prev) {
+                    System.out.println("not sorted at " + count);
+                    return;
+                }
+                prev = v;
+                count++;
+            }
+            System.out.println("sorted " + count + " records");
+        } finally {
+            input.delete();
+            output.delete();
+        }
+    }
+
+    /**
+     * 使用默认配置：内存预算 64MB，归并路数 64，系统临时目录，缓冲 1MB
+     *
+     * @param recordSize 记录字节数，不小于 8
+     */
+    public ExternalSort(int recordSize) {
+        this(recordSize, DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalSort(int recordSize, long memoryBudget, int fanIn, File tempDir) {
+        this(recordSize, memoryBudget, fanIn, tempDir, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param recordSize   记录字节数，不小于 8
+     * @param memoryBudget 生成顺串时可用的内存字节数，决定每个顺串的长度
+     * @param fanIn        一趟归并最多同时打开的顺串个数，不小于 2
+     * @param tempDir      顺串文件所在目录
+     * @param bufferSize   每个文件的读写缓冲字节数
+     */
+    public ExternalSort(int recordSize, long memoryBudget, int fanIn, File tempDir, int bufferSize) {
+        if (recordSize < KEY_BYTES) {
+            throw new IllegalArgumentException("recordSize < " + KEY_BYTES);
+        }
+        if (memoryBudget < recordSize + RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("memoryBudget too small for one record");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn < 2");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize <= 0");
+        }
+        this.recordSize = recordSize;
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 排序 input，结果写到 output，input 不变
+     *
+     * @param input
+     * @param output
+     * @throws IOException 文件无法打开，或文件长度不是 recordSize 的整数倍
+     */
+    public void sort(File input, File output) throws IOException {
+        List<File> runs = createRuns(input);
+        try {
+            while (runs.size() > fanIn) {
+                runs = mergePass(runs);
+            }
+            merge(runs, output);
+        } finally {
+            delete(runs);
+        }
+    }
+
+    /**
+     * 1.生成顺串
+     */
+    private List<File> createRuns(File input) throws IOException {
+        int payloadSize = recordSize - KEY_BYTES;
+        long capacity = memoryBudget / (recordSize + RECORD_OVERHEAD);
+        capacity = Math.min(capacity, Integer.MAX_VALUE - 8);
+        if (payloadSize > 0) {
+            capacity = Math.min(capacity, (Integer.MAX_VALUE - 8) / payloadSize);
+        }
+        // 文件比预算小时按文件大小分配
+        capacity = Math.max(1, Math.min(capacity, input.length() / recordSize));
+        int cap = (int) capacity;
+
+        long[] keys = new long[cap];
+        long[] keyTemp = new long[cap];
+        int[] index = payloadSize > 0 ? new int[cap] : null;
+        int[] indexTemp = payloadSize > 0 ? new int[cap] : null;
+        byte[] payload = new byte[cap * payloadSize];
+
+        List<File> runs = new ArrayList<>();
+        boolean done = false;
+        try (InputStream is = open(input)) {
+            BinaryIn in = new BinaryIn(is);
+            while (!in.isEmpty()) {
+                int count = 0;
+                while (count < cap && !in.isEmpty()) {
+                    keys[count] = in.readLong();
+                    int offset = count * payloadSize;
+                    for (int j = 0; j < payloadSize; j++) {
+                        payload[offset + j] = in.readByte();
+                    }
+                    count++;
+                }
+                if (count < cap) { // 最后一个顺串不满，截断后排序
+                    keys = Arrays.copyOf(keys, count);
+                    if (index != null) {
+                        index = Arrays.copyOf(index, count);
+                    }
+                }
+                File run = newRunFile();
+                runs.add(run);
+                if (index == null) {
+                    RadixSort.sort(keys, keyTemp);
+                    writeRun(run, keys, null, null, 0);
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        index[i] = i;
+                    }
+                    RadixSort.sort(keys, index, keyTemp, indexTemp);
+                    writeRun(run, keys, index, payload, payloadSize);
+                }
+            }
+            done = true;
+        } catch (NoSuchElementException e) {
+            throw new IOException(input + ": length is not a multiple of " + recordSize, e);
+        } finally {
+            if (!done) { // 任何异常都删掉已生成的顺串
+                delete(runs);
+            }
+        }
+        return runs;
+    }
+
+    private void writeRun(File run, long[] keys, int[] index, byte[] payload, int payloadSize) throws IOException {
+        BinaryOut out = create(run);
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                out.write(keys[i]);
+                if (index != null) {
+                    int offset = index[i] * payloadSize;
+                    for (int j = 0; j < payloadSize; j++) {
+                        out.write(payload[offset + j]);
+                    }
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 2.一趟归并：每 fanIn 个顺串归并为一个，保持顺串之间的先后次序
+     */
+    private List<File> mergePass(List<File> runs) throws IOException {
+        List<File> next = new ArrayList<>();
+        boolean done = false;
+        try {
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<File> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                File run = newRunFile();
+                next.add(run);
+                merge(group, run);
+                delete(group);
+            }
+            done = true;
+        } finally {
+            if (!done) {
+                delete(next);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 多路归并 runs 到 output
+     */
+    private void merge(List<File> runs, File output) throws IOException {
+        BinaryHeap<RunCursor> heap = new BinaryHeap<>(Math.max(1, runs.size()));
+        List<RunCursor> cursors = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor cursor = new RunCursor(open(runs.get(i)), i, recordSize - KEY_BYTES);
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    heap.insert(cursor);
+                }
+            }
+            BinaryOut out = create(output);
+            try {
+                while (!heap.isEmpty()) {
+                    RunCursor cursor = heap.findMin();
+                    out.write(cursor.key);
+                    for (byte b : cursor.payload) {
+                        out.write(b);
+                    }
+                    if (cursor.advance()) {
+                        heap.replaceMin(cursor); // 关键字变大，原地下滤
+                    } else {
+                        heap.deleteMin();
+                    }
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.stream.close();
+            }
+        }
+    }
+
+    /**
+     * 大块缓冲读：底层每次从磁盘读 bufferSize 字节
+     */
+    private InputStream open(File file) throws IOException {
+        return new BufferedInputStream(new FileInputStream(file), bufferSize);
+    }
+
+    private BinaryOut create(File file) throws IOException {
+        return new BinaryOut(new BufferedOutputStream(new FileOutputStream(file), bufferSize));
+    }
+
+    private File newRunFile() throws IOException {
+        File run = File.createTempFile("run", ".bin", tempDir);
+        run.deleteOnExit();
+        return run;
+    }
+
+    private static void delete(List<File> files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * 顺串的读取游标，按 (当前关键字, 顺串编号) 比较
+     */
+    private static class RunCursor implements Comparable<RunCursor> {
+        private final InputStream stream;
+        private final BinaryIn in;
+        private final int order;
+        private final byte[] payload;
+        private long key;
+
+        RunCursor(InputStream stream, int order, int payloadSize) {
+            this.stream = stream;
+            this.in = new BinaryIn(stream);
+            this.order = order;
+            this.payload = new byte[payloadSize];
+        }
+
+        /**
+         * 读入下一条记录
+         *
+         * @return 顺串已读完返回 false
+         */
+        boolean advance() {
+            if (in.isEmpty()) {
+                return false;
+            }
+            key = in.readLong();
+            for (int j = 0; j < payload.length; j++) {
+                payload[j] = in.readByte();
+            }
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunCursor o) {
+            int cmp = Long.compare(key, o.key);
+            return cmp != 0 ? cmp : Integer.compare(order, o.order);
+        }
+    }
+}
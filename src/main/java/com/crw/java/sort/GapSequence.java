@@ -0,0 +1,20 @@
+package com.crw.java.sort;
+
+/**
+ * 希尔排序的增量序列
+ * <p>
+ * 增量序列决定了希尔排序的性能：Shell 原始的 n/2, n/4 ... 1 在最坏情况下是 O(n^2)，
+ * 好的序列可以做到 O(n^(4/3)) 甚至 O(n*log^2(n))。常用序列见 {@link GapSequences}。
+ * <p>
+ * 实现应预先计算好序列，不要在每次排序时重新生成。
+ */
+public interface GapSequence {
+
+    /**
+     * 升序的增量序列，第一个元素为 1。排序时从小于数组长度的最大增量开始，依次递减到 1。
+     * 返回的数组是共享的，调用方不得修改
+     *
+     * @return
+     */
+    int[] gaps();
+}
@@ -0,0 +1,117 @@
+package com.crw.java.sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 常用的希尔排序增量序列，类加载时一次性计算到 int 范围的上限
+ * <p>
+ * 各序列的最坏时间复杂度：
+ * SHELL O(n^2)；SEDGEWICK O(n^(4/3))；PRATT O(n*log^2(n))；
+ * CIURA 和 TOKUDA 是实验得出的序列，没有已知的上界，但在实际数据上通常最快。
+ * 用 ShellSortGapBenchmark 可以针对具体的规模和数据分布选出最快的序列。
+ */
+public enum GapSequences implements GapSequence {
+    /**
+     * Shell(1959)：1, 2, 4, 8 ...，数组长度为 2 的幂时与折半序列 n/2, n/4 ... 1 相同
+     */
+    SHELL {
+        @Override
+        List<Long> generate() {
+            List<Long> gaps = new ArrayList<>();
+            for (long h = 1; h <= Integer.MAX_VALUE; h *= 2) {
+                gaps.add(h);
+            }
+            return gaps;
+        }
+    },
+    /**
+     * Ciura(2001)：1, 4, 10, 23, 57, 132, 301, 701, 1750 是实验得出的，之后按 h = 2.25*h 延伸
+     */
+    CIURA {
+        @Override
+        List<Long> generate() {
+            List<Long> gaps = new ArrayList<>();
+            for (long h : new long[]{1, 4, 10, 23, 57, 132, 301, 701, 1750}) {
+                gaps.add(h);
+            }
+            for (long h = 1750 * 9 / 4; h <= Integer.MAX_VALUE; h = h * 9 / 4) {
+                gaps.add(h);
+            }
+            return gaps;
+        }
+    },
+    /**
+     * Tokuda(1992)：h_k = ⌈(9^k - 4^k) / (5 * 4^(k-1))⌉，即 1, 4, 9, 20, 46, 103 ...
+     */
+    TOKUDA {
+        @Override
+        List<Long> generate() {
+            List<Long> gaps = new ArrayList<>();
+            for (int k = 1; ; k++) {
+                long h = (long) Math.ceil((Math.pow(9, k) - Math.pow(4, k)) / (5 * Math.pow(4, k - 1)));
+                if (h > Integer.MAX_VALUE) {
+                    return gaps;
+                }
+                gaps.add(h);
+            }
+        }
+    },
+    /**
+     * Sedgewick(1986)：9*(4^k - 2^k) + 1 与 4^(k+2) - 6*2^(k+1) + 1 交替，即 1, 5, 19, 41, 109, 209 ...
+     */
+    SEDGEWICK {
+        @Override
+        List<Long> generate() {
+            List<Long> gaps = new ArrayList<>();
+            for (int k = 0; ; k++) {
+                long a = 9 * ((1L << (2 * k)) - (1L << k)) + 1;
+                long b = (1L << (2 * k + 4)) - 6 * (1L << (k + 1)) + 1;
+                if (a > Integer.MAX_VALUE) {
+                    return gaps;
+                }
+                gaps.add(a);
+                if (b <= Integer.MAX_VALUE) {
+                    gaps.add(b);
+                }
+            }
+        }
+    },
+    /**
+     * Pratt(1971)：所有 2^p * 3^q，即 1, 2, 3, 4, 6, 8, 9, 12 ...；趟数多，但每趟都是线性的
+     */
+    PRATT {
+        @Override
+        List<Long> generate() {
+            List<Long> gaps = new ArrayList<>();
+            for (long p = 1; p <= Integer.MAX_VALUE; p *= 2) {
+                for (long h = p; h <= Integer.MAX_VALUE; h *= 3) {
+                    gaps.add(h);
+                }
+            }
+            return gaps;
+        }
+    };
+
+    private final int[] gaps;
+
+    GapSequences() {
+        List<Long> list = generate();
+        Collections.sort(list);
+        gaps = new int[list.size()];
+        for (int i = 0; i < gaps.length; i++) {
+            gaps[i] = list.get(i).intValue();
+        }
+    }
+
+    /**
+     * 生成不超过 Integer.MAX_VALUE 的全部增量，顺序任意
+     */
+    abstract List<Long> generate();
+
+    @Override
+    public int[] gaps() {
+        return gaps;
+    }
+}
@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 堆排序，也是一种选择排序
  * <p>
@@ -14,6 +17,9 @@ package com.crw.java.sort;
  * 2.在输出堆顶元素之后（完全二叉树的树根结点），如何调整剩余元素构建一个新的堆？
  * <p>
  * 时间复杂度：在最坏的情况下O(n*logn),优于快排，而且只用一个记录交的辅助空间。
+ * <p>
+ * heapSort 是教科书版本，约 2n*logn 次比较；bottomUpHeapSort 用自底向上的下滤把比较次数降到约 n*logn；
+ * dAryHeapSort 使用 d 叉堆，树更矮、孩子连续存放，大数组上缓存更友好。
  */
 public class HeapSort {
 
@@ -26,15 +32,27 @@ public class HeapSort {
     }
 
     public static void heapSort(int[] arr) {
+        heapSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 进行堆排序，堆的根结点在 low 位置
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void heapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
         // 构建堆的过程
-        for (int i = arr.length / 2 - 1; i >= 0; i--) {
+        for (int i = n / 2 - 1; i >= 0; i--) {
             // 对于有孩子结点的根结点进行筛选
-            heapAdjust(arr, i, arr.length);
+            heapAdjust(arr, low, i, n);
         }
         // 调整堆结构+交换堆顶元素与末尾元素
-        for (int i = arr.length - 1; i > 0; i--) {
-            swap(arr, 0, i); // 交换 堆顶元素 与 最后一个记录
-            heapAdjust(arr, 0, i); // 重新调整为堆结构
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i); // 交换 堆顶元素 与 最后一个记录
+            heapAdjust(arr, low, 0, i); // 重新调整为堆结构
         }
 
     }
@@ -42,33 +60,303 @@ public class HeapSort {
 
     /**
      * 堆调整。arr[s...m]范围内的值，除了arr[s]外，其他均满足堆的性质，本函数调整arr[s]的值，使得arr[s...m]成为一个大顶堆。
+     * s、m 均为相对于堆起点 base 的偏移量
      *
      * @param arr
+     * @param base 堆在数组中的起始位置
      * @param s
      * @param m
      */
-    private static void heapAdjust(int[] arr, int s, int m) {
-        int rc = arr[s]; // 操作位元素
+    private static void heapAdjust(int[] arr, int base, int s, int m) {
+        int rc = arr[base + s]; // 操作位元素
         for (int j = 2 * s + 1; j < m; j = j * 2 + 1) { // 下滤，从 s 的左孩子(2s+1)开始
             // j为值较大的下标
-            if (j + 1 < m && arr[j] < arr[j + 1]) { // 左孩子小与右孩子，指向右孩子
+            if (j + 1 < m && SortMetrics.less(arr[base + j], arr[base + j + 1])) { // 左孩子小与右孩子，指向右孩子
                 j++;
             }
             // 找到空洞位置，rc应插入s位置
-            if (rc >= arr[j]) {
+            if (!SortMetrics.less(rc, arr[base + j])) {
                 break;
             }
 
-            arr[s] = arr[j];
+            arr[base + s] = arr[base + j];
+            SortMetrics.move();
             s = j;
         }
-        arr[s] = rc;
+        arr[base + s] = rc;
+        SortMetrics.move();
     }
 
     private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
 
+    /**
+     * 自底向上堆排序(Bottom-up heapsort, Wegener/Floyd)
+     * <p>
+     * heapAdjust 下滤时每层要比较两次：左右孩子比较一次，较大者再与 rc 比较一次，约 2n*logn 次比较。
+     * 而堆排序中被交换到堆顶的 rc 来自堆尾，通常很小，最终几乎总是落回叶子附近。
+     * 因此先不与 rc 比较，沿较大孩子一路走到叶子(每层一次比较)，再从叶子向上找 rc 的位置(通常只需一两次比较)，
+     * 最后把路径上的记录整体上移一层。比较次数降到约 n*logn + O(n)。
+     *
+     * @param arr
+     */
+    public static void bottomUpHeapSort(int[] arr) {
+        bottomUpHeapSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 进行自底向上堆排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void bottomUpHeapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, low, 0, i);
+        }
+    }
+
+    /**
+     * 自底向上的下滤，效果与 heapAdjust 相同
+     *
+     * @param arr
+     * @param base 堆在数组中的起始位置
+     * @param s
+     * @param m
+     */
+    private static void siftDown(int[] arr, int base, int s, int m) {
+        // 1.沿较大的孩子找到叶子
+        int j = s;
+        int child = 2 * j + 1;
+        while (child + 1 < m) {
+            if (SortMetrics.less(arr[base + child], arr[base + child + 1])) {
+                child++;
+            }
+            j = child;
+            child = 2 * j + 1;
+        }
+        if (child < m) { // 只有左孩子
+            j = child;
+        }
+        // 2.从叶子向上找第一个不小于 rc 的位置，arr[s] 就是 rc，最多回到 s
+        int rc = arr[base + s];
+        while (SortMetrics.less(arr[base + j], rc)) {
+            j = (j - 1) / 2;
+        }
+        // 3.s 到 j 路径上的记录上移一层，rc 放到 j
+        int x = rc;
+        while (j > s) {
+            int temp = arr[base + j];
+            arr[base + j] = x;
+            SortMetrics.move();
+            x = temp;
+            j = (j - 1) / 2;
+        }
+        arr[base + s] = x;
+        SortMetrics.move();
+    }
+
+    /**
+     * d 叉堆排序
+     * <p>
+     * 结点 i 的孩子为 d*i+1 ... d*i+d，同一结点的孩子在内存中连续：d=16 时 16 个 int 恰好 64 字节，
+     * 一个缓存行的数据一次比较完，树高从 log2(n) 降为 log_d(n)，数据规模远大于缓存时缓存缺失大幅减少。
+     * JVM 只保证对象按 8 字节对齐，无法让孩子组与缓存行边界严格对齐，一组孩子最多跨两个缓存行。
+     * 下滤同样采用自底向上的方式，每层 d-1 次比较找出最大的孩子。
+     *
+     * @param arr
+     * @param d   分叉数，2、4、8 或 16
+     */
+    public static void dAryHeapSort(int[] arr, int d) {
+        dAryHeapSort(arr, 0, arr.length - 1, d);
+    }
+
+    /**
+     * 对子表 arr[low...high] 进行 d 叉堆排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param d    分叉数，2、4、8 或 16
+     */
+    public static void dAryHeapSort(int[] arr, int low, int high, int d) {
+        int shift = arityShift(d);
+        int n = high - low + 1;
+        for (int i = (n - 2) >> shift; i >= 0; i--) { // 最后一个记录的父结点
+            siftDown(arr, low, i, n, shift);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, low, 0, i, shift);
+        }
+    }
+
+    /**
+     * d 叉堆的自底向上下滤，d = 1 << shift
+     */
+    private static void siftDown(int[] arr, int base, int s, int m, int shift) {
+        int d = 1 << shift;
+        int j = s;
+        int first;
+        while ((first = (j << shift) + 1) < m) {
+            int last = Math.min(first + d, m);
+            int max = first;
+            for (int k = first + 1; k < last; k++) {
+                if (SortMetrics.less(arr[base + max], arr[base + k])) {
+                    max = k;
+                }
+            }
+            j = max;
+        }
+        int rc = arr[base + s];
+        while (SortMetrics.less(arr[base + j], rc)) {
+            j = (j - 1) >> shift;
+        }
+        int x = rc;
+        while (j > s) {
+            int temp = arr[base + j];
+            arr[base + j] = x;
+            SortMetrics.move();
+            x = temp;
+            j = (j - 1) >> shift;
+        }
+        arr[base + s] = x;
+        SortMetrics.move();
+    }
+
+    private static int arityShift(int d) {
+        if (d < 2 || d > 16 || (d & (d - 1)) != 0) {
+            throw new IllegalArgumentException("d must be 2, 4, 8 or 16: " + d);
+        }
+        return Integer.numberOfTrailingZeros(d);
+    }
+
+    /**
+     * 按比较器堆排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void heapSort(T[] arr, Comparator<? super T> c) {
+        heapSort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 对子表 arr[low...high] 按比较器堆排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param c
+     */
+    public static <T> void heapSort(T[] arr, int low, int high, Comparator<? super T> c) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapAdjust(arr, low, i, n, c);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            heapAdjust(arr, low, 0, i, c);
+        }
+    }
+
+    private static <T> void heapAdjust(T[] arr, int base, int s, int m, Comparator<? super T> c) {
+        T rc = arr[base + s];
+        for (int j = 2 * s + 1; j < m; j = j * 2 + 1) {
+            if (j + 1 < m && c.compare(arr[base + j], arr[base + j + 1]) < 0) {
+                j++;
+            }
+            if (c.compare(rc, arr[base + j]) >= 0) {
+                break;
+            }
+            arr[base + s] = arr[base + j];
+            s = j;
+        }
+        arr[base + s] = rc;
+    }
+
+    /**
+     * 按比较器自底向上堆排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void bottomUpHeapSort(T[] arr, Comparator<? super T> c) {
+        dAryHeapSort(arr, 2, c);
+    }
+
+    /**
+     * 按比较器 d 叉堆排序，下滤采用自底向上的方式
+     *
+     * @param arr
+     * @param d   分叉数，2、4、8 或 16
+     * @param c
+     */
+    public static <T> void dAryHeapSort(T[] arr, int d, Comparator<? super T> c) {
+        int shift = arityShift(d);
+        int n = arr.length;
+        for (int i = (n - 2) >> shift; i >= 0; i--) {
+            siftDown(arr, i, n, shift, c);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, 0, i);
+            siftDown(arr, 0, i, shift, c);
+        }
+    }
+
+    private static <T> void siftDown(T[] arr, int s, int m, int shift, Comparator<? super T> c) {
+        int d = 1 << shift;
+        int j = s;
+        int first;
+        while ((first = (j << shift) + 1) < m) {
+            int last = Math.min(first + d, m);
+            int max = first;
+            for (int k = first + 1; k < last; k++) {
+                if (c.compare(arr[max], arr[k]) < 0) {
+                    max = k;
+                }
+            }
+            j = max;
+        }
+        T rc = arr[s];
+        while (c.compare(arr[j], rc) < 0) {
+            j = (j - 1) >> shift;
+        }
+        T x = rc;
+        while (j > s) {
+            T temp = arr[j];
+            arr[j] = x;
+            x = temp;
+            j = (j - 1) >> shift;
+        }
+        arr[s] = x;
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void heapSort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        heapSort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
 }
@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 直接插入排序
  * <p>
@@ -19,17 +22,39 @@ public class InsertSort {
     public static void sort(int[] arr) {
         int idx; // 有序子表索引位置
         for (int i = 1; i < arr.length; i++) {
-            if (arr[i] < arr[i - 1]) { // 比较，将i插入有序子表
+            if (SortMetrics.less(arr[i], arr[i - 1])) { // 比较，将i插入有序子表
                 int temp = arr[i]; // 待插入元素
-                for (idx = i - 1; idx >= 0 && arr[idx] > temp; idx--) { // 从已排序数列的最后一个比较
+                for (idx = i - 1; idx >= 0 && SortMetrics.less(temp, arr[idx]); idx--) { // 从已排序数列的最后一个比较
                     arr[idx + 1] = arr[idx]; // 记录后移
                 }
                 arr[idx + 1] = temp; // 待排序元素插入
+                SortMetrics.move(i - idx); // 后移 i-1-idx 个，插入 1 个
                 print(arr, i, idx + 1);
             }
         }
     }
 
+    /**
+     * 对子表 arr[low...high] 直接插入排序，不做跟踪输出，供其他排序在小规模子表上调用
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            if (SortMetrics.less(arr[i], arr[i - 1])) {
+                int temp = arr[i];
+                int idx;
+                for (idx = i - 1; idx >= low && SortMetrics.less(temp, arr[idx]); idx--) {
+                    arr[idx + 1] = arr[idx];
+                }
+                arr[idx + 1] = temp;
+                SortMetrics.move(i - idx);
+            }
+        }
+    }
+
     private static void print(int[] arr, int i, int low) {
         System.out.print("第" + i + "次结果: ");
         for (int j = 0; j < arr.length; j++) {
@@ -41,4 +66,46 @@ public class InsertSort {
         }
     }
 
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 对子表 arr[low...high] 按比较器直接插入排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param c
+     */
+    public static <T> void sort(T[] arr, int low, int high, Comparator<? super T> c) {
+        for (int i = low + 1; i <= high; i++) {
+            if (c.compare(arr[i], arr[i - 1]) < 0) {
+                T temp = arr[i];
+                int idx;
+                for (idx = i - 1; idx >= low && c.compare(arr[idx], temp) > 0; idx--) {
+                    arr[idx + 1] = arr[idx];
+                }
+                arr[idx + 1] = temp;
+            }
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
 }
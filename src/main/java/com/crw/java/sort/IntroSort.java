@@ -0,0 +1,234 @@
+package com.crw.java.sort;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 内省排序(Introsort)：以快速排序为主体，结合堆排序和插入排序
+ * <p>
+ * 针对 {@link QuickSort} 的几个问题做了改进：
+ * 1.枢轴选取：小子表取首、中、尾三数中值，大子表取 Tukey 九数中值(ninther)，有序、逆序输入不再退化。
+ * 2.三路划分：将子表分为 小于、等于、大于 枢轴三部分，等于枢轴的部分不再参与递归，大量重复值时接近线性。
+ * 3.递归深度限制：深度超过 2*logN 说明枢轴选取持续失败，转为 {@link HeapSort}，保证最坏 O(N*logN)。
+ * 4.小子表(不超过 INSERTION_SORT_THRESHOLD)：int 使用排序网络({@link SmallSort})，对象使用直接插入排序。
+ * 5.只对较小的一侧递归，较大的一侧循环处理，栈深度不超过 logN。
+ * <p>
+ * 时间复杂度：最坏 O(N*logN)；空间复杂度：O(logN)；不稳定的排序
+ */
+public class IntroSort {
+
+    /**
+     * 子表长度不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = SmallSort.MAX_NETWORK_SIZE;
+
+    /**
+     * 子表长度超过该值时使用九数中值选取枢轴
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        sort(arr);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(int[] arr, int low, int high) {
+        if (low >= high) {
+            return;
+        }
+        introSort(arr, low, high, 2 * log2(high - low + 1));
+    }
+
+    /**
+     * @param arr
+     * @param low
+     * @param high
+     * @param depthLimit 剩余允许的划分深度，耗尽后转为堆排序
+     */
+    private static void introSort(int[] arr, int low, int high, int depthLimit) {
+        SortMetrics.enter();
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                SortMetrics.exit();
+                return;
+            }
+            int pivotkey = pivot(arr, low, high);
+
+            // 三路划分：arr[low...lt-1] < pivotkey, arr[lt...gt] == pivotkey, arr[gt+1...high] > pivotkey
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                if (SortMetrics.less(arr[i], pivotkey)) {
+                    swap(arr, lt++, i++);
+                } else if (SortMetrics.less(pivotkey, arr[i])) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // 对较小的一侧递归，较大的一侧继续循环，保证栈深度为 O(logN)
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+        SortMetrics.exit();
+    }
+
+    /**
+     * 选取枢轴记录的关键字
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @return
+     */
+    private static int pivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr[low], arr[mid], arr[high]);
+        }
+        // 九数中值：三组三数中值再取中值
+        int s = (high - low + 1) / 8;
+        int a = median(arr[low], arr[low + s], arr[low + 2 * s]);
+        int b = median(arr[mid - s], arr[mid], arr[mid + s]);
+        int c = median(arr[high - 2 * s], arr[high - s], arr[high]);
+        return median(a, b, c);
+    }
+
+    private static int median(int a, int b, int c) {
+        if (SortMetrics.less(a, b)) {
+            return SortMetrics.less(b, c) ? b : (SortMetrics.less(a, c) ? c : a);
+        } else {
+            return SortMetrics.less(a, c) ? a : (SortMetrics.less(b, c) ? c : b);
+        }
+    }
+
+    private static int log2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 按比较器对子表 arr[low...high] 排序
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param c
+     */
+    public static <T> void sort(T[] arr, int low, int high, Comparator<? super T> c) {
+        if (low >= high) {
+            return;
+        }
+        introSort(arr, low, high, 2 * log2(high - low + 1), c);
+    }
+
+    private static <T> void introSort(T[] arr, int low, int high, int depthLimit, Comparator<? super T> c) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high, c);
+                return;
+            }
+            T pivotkey = pivot(arr, low, high, c);
+
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int cmp = c.compare(arr[i], pivotkey);
+                if (cmp < 0) {
+                    swap(arr, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit, c);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit, c);
+                high = lt - 1;
+            }
+        }
+        InsertSort.sort(arr, low, high, c);
+    }
+
+    private static <T> T pivot(T[] arr, int low, int high, Comparator<? super T> c) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr[low], arr[mid], arr[high], c);
+        }
+        int s = (high - low + 1) / 8;
+        T a = median(arr[low], arr[low + s], arr[low + 2 * s], c);
+        T b = median(arr[mid - s], arr[mid], arr[mid + s], c);
+        T d = median(arr[high - 2 * s], arr[high - s], arr[high], c);
+        return median(a, b, d, c);
+    }
+
+    private static <T> T median(T a, T b, T d, Comparator<? super T> c) {
+        if (c.compare(a, b) < 0) {
+            return c.compare(b, d) < 0 ? b : (c.compare(a, d) < 0 ? d : a);
+        } else {
+            return c.compare(a, d) < 0 ? a : (c.compare(b, d) < 0 ? d : b);
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
@@ -0,0 +1,99 @@
+package com.crw.java.sort;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按基本类型关键字间接排序
+ * <p>
+ * 使用比较器排序对象时，每次比较都要调用比较器、取出关键字，关键字是包装类型时还要拆箱。
+ * 这里每个对象只提取一次关键字，对 基本类型关键字 + 原下标 排序，再按下标重排对象：
+ * 1.int 关键字：关键字放在 long 的高 32 位、下标放在低 32 位，直接对 long[] 做基数排序。
+ * 2.long 关键字：关键字数组与下标数组同步做基数排序({@link RadixSort#sort(long[], int[])})。
+ * 排序过程不调用比较器，不装箱；相同关键字保持原有顺序，稳定。
+ * <p>
+ * 时间复杂度：O(n)；空间复杂度：O(n)
+ */
+public class KeySort {
+
+    public static void main(String[] args) {
+        String[] arr = {"banana", "kiwi", "apple", "fig", "cherry", "date"};
+        sortByInt(arr, String::length);
+        for (String s : arr) {
+            System.out.print(s + " ");
+        }
+    }
+
+    /**
+     * 按 int 关键字排序，稳定
+     *
+     * @param arr
+     * @param key 关键字提取函数，每个对象只调用一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sortByInt(T[] arr, ToIntFunction<? super T> key) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) key.applyAsInt(arr[i]) << 32) | i;
+        }
+        RadixSort.sort(packed);
+        Object[] copy = arr.clone();
+        for (int i = 0; i < n; i++) {
+            arr[i] = (T) copy[(int) packed[i]];
+        }
+    }
+
+    /**
+     * 按 long 关键字排序，稳定
+     *
+     * @param arr
+     * @param key 关键字提取函数，每个对象只调用一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sortByLong(T[] arr, ToLongFunction<? super T> key) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        long[] keys = new long[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = key.applyAsLong(arr[i]);
+            index[i] = i;
+        }
+        RadixSort.sort(keys, index);
+        Object[] copy = arr.clone();
+        for (int i = 0; i < n; i++) {
+            arr[i] = (T) copy[index[i]];
+        }
+    }
+
+    /**
+     * 按 int 关键字对 List 排序，稳定
+     *
+     * @param list
+     * @param key
+     */
+    public static <T> void sortByInt(List<T> list, ToIntFunction<? super T> key) {
+        T[] arr = ListSortHelper.toArray(list);
+        sortByInt(arr, key);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    /**
+     * 按 long 关键字对 List 排序，稳定
+     *
+     * @param list
+     * @param key
+     */
+    public static <T> void sortByLong(List<T> list, ToLongFunction<? super T> key) {
+        T[] arr = ListSortHelper.toArray(list);
+        sortByLong(arr, key);
+        ListSortHelper.writeBack(list, arr);
+    }
+}
@@ -0,0 +1,28 @@
+package com.crw.java.sort;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * List 排序的辅助方法
+ * <p>
+ * 与 List.sort 的默认实现相同：先拷贝为数组排序，再按顺序写回，LinkedList 也只需 O(n) 次访问。
+ */
+final class ListSortHelper {
+
+    private ListSortHelper() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T[] toArray(List<T> list) {
+        return (T[]) list.toArray();
+    }
+
+    static <T> void writeBack(List<T> list, T[] arr) {
+        ListIterator<T> it = list.listIterator();
+        for (T e : arr) {
+            it.next();
+            it.set(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.crw.java.sort;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 内存映射文件上的 long 数组，下标为 long，支持超过 2GB 的文件
+ * <p>
+ * 一个 MappedByteBuffer 最多映射 Integer.MAX_VALUE 字节，这里把文件分段映射，每段 2^segmentShift 个 long(默认 1GB)，
+ * 下标 i 在第 i >>> segmentShift 段的 i & mask 位置。除最后一段外各段长度相同，定位只需移位和与运算。
+ * 文件内容为小端序的 long，文件长度必须是 8 的整数倍。
+ * <p>
+ * 数据在堆外，只有访问到的页由操作系统调入内存，排序 20GB 的文件不需要 20GB 的堆。
+ * 映射在缓冲区被回收时才解除，Java 8 没有可移植的主动解除方式；修改写回文件由 {@link #force()} 保证。
+ *
+ * @see MappedSort
+ */
+public final class MappedLongArray {
+
+    /**
+     * 默认每段 2^27 个 long，即 1GB，也是允许的最大值：一次映射不能超过 Integer.MAX_VALUE 字节
+     */
+    public static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+    private final LongBuffer[] segments;
+    private final MappedByteBuffer[] mapped;
+    private final int shift;
+    private final long mask;
+    private final long length;
+
+    private MappedLongArray(LongBuffer[] segments, MappedByteBuffer[] mapped, int shift, long length) {
+        this.segments = segments;
+        this.mapped = mapped;
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.length = length;
+    }
+
+    /**
+     * 以读写方式映射整个文件，每段 1GB
+     *
+     * @param channel 以读写方式打开的文件通道
+     * @return
+     * @throws IOException
+     */
+    public static MappedLongArray map(FileChannel channel) throws IOException {
+        return map(channel, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * 以读写方式映射整个文件
+     *
+     * @param channel      以读写方式打开的文件通道
+     * @param segmentShift 每段 2^segmentShift 个 long，1 ~ 27
+     * @return
+     * @throws IOException
+     */
+    public static MappedLongArray map(FileChannel channel, int segmentShift) throws IOException {
+        if (segmentShift < 1 || segmentShift > DEFAULT_SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("segmentShift: " + segmentShift);
+        }
+        long bytes = channel.size();
+        if (bytes % Long.BYTES != 0) {
+            throw new IllegalArgumentException("file size is not a multiple of 8: " + bytes);
+        }
+        long length = bytes / Long.BYTES;
+        long segmentLongs = 1L << segmentShift;
+        int count = (int) ((length + segmentLongs - 1) >>> segmentShift);
+        LongBuffer[] segments = new LongBuffer[count];
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long start = (long) s << segmentShift;
+            long size = Math.min(segmentLongs, length - start) * Long.BYTES;
+            mapped[s] = channel.map(FileChannel.MapMode.READ_WRITE, start * Long.BYTES, size);
+            mapped[s].order(ByteOrder.LITTLE_ENDIAN);
+            segments[s] = mapped[s].asLongBuffer();
+        }
+        return new MappedLongArray(segments, mapped, segmentShift, length);
+    }
+
+    /**
+     * 把一个 LongBuffer(通常是 MappedByteBuffer 的视图)作为单段数组，下标 0 对应 buffer 的当前位置
+     *
+     * @param buffer
+     * @return
+     */
+    public static MappedLongArray wrap(LongBuffer buffer) {
+        LongBuffer slice = buffer.slice();
+        return new MappedLongArray(new LongBuffer[]{slice}, new MappedByteBuffer[0], Integer.SIZE - 1,
+                slice.capacity());
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public long get(long index) {
+        return segments[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    public void set(long index, long value) {
+        segments[(int) (index >>> shift)].put((int) (index & mask), value);
+    }
+
+    /**
+     * 批量读取 [index, index+len) 到 dst[off...off+len)，可以跨段
+     */
+    public void get(long index, long[] dst, int off, int len) {
+        while (len > 0) {
+            LongBuffer segment = segments[(int) (index >>> shift)].duplicate();
+            int pos = (int) (index & mask);
+            int n = Math.min(len, segment.limit() - pos);
+            segment.position(pos);
+            segment.get(dst, off, n);
+            index += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 批量写入 src[off...off+len) 到 [index, index+len)，可以跨段
+     */
+    public void put(long index, long[] src, int off, int len) {
+        while (len > 0) {
+            LongBuffer segment = segments[(int) (index >>> shift)].duplicate();
+            int pos = (int) (index & mask);
+            int n = Math.min(len, segment.limit() - pos);
+            segment.position(pos);
+            segment.put(src, off, n);
+            index += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 把修改写回文件；wrap 得到的数组由创建 buffer 的一方负责
+     */
+    public void force() {
+        for (MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.crw.java.sort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+/**
+ * 堆外排序：原地排序内存映射的 long 文件(小端序)，不把文件读进 Java 堆
+ * <p>
+ * 数据通过 {@link MappedLongArray} 分段映射访问，超过 2GB 的文件也可以排序。
+ * <p>
+ * 1.基数排序：最高位优先的原地基数排序(American flag sort)，不需要与文件等大的辅助空间：
+ * 统计最高字节各桶的记录数，求出每个桶的区间，再沿置换环把每个记录直接交换到所属桶的下一个空位，
+ * 每个记录只读写一次；然后对每个桶按下一个字节递归。
+ * 桶不超过 LEAF_SIZE 个记录时，整块读进一个固定大小的堆上缓冲区排序再写回，缓冲区与文件大小无关。
+ * 对整个文件只需顺序读一趟计数、一趟置换，映射的页大多按顺序访问。
+ * 2.快速排序：与 {@link IntroSort} 相同，三数中值、三路划分，划分次数过多时转为堆排序，完全在映射上原地进行。
+ * <p>
+ * 与 {@link RadixSort} 一样翻转符号位，按有符号 long 排序。
+ * 时间复杂度：基数排序 O(8n)，快速排序 O(nlogn)；堆上空间：O(LEAF_SIZE)
+ *
+ * @see ExternalSort 数据不能原地修改或者带负载的记录
+ */
+public class MappedSort {
+
+    private static final int RADIX = 256;
+
+    private static final int DIGIT_BITS = 8;
+
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /**
+     * 基数排序中桶不超过该长度时读进堆上缓冲区排序，4MB
+     */
+    private static final int LEAF_SIZE = 1 << 19;
+
+    /**
+     * 快速排序中子表不超过该长度时插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    public static void main(String[] args) throws IOException {
+        File file = File.createTempFile("mapped-sort", ".bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            int n = 1000000;
+            raf.setLength((long) n * Long.BYTES);
+            // 每段 2^16 个 long，演示跨段访问
+            MappedLongArray arr = MappedLongArray.map(raf.getChannel(), 16);
+            Random random = new Random(1);
+            for (int i = 0; i < n; i++) {
+                arr.set(i, random.nextLong());
+            }
+            radixSort(arr);
+            for (long i = 1; i < n; i++) {
+                if (arr.get(i - 1) > arr.get(i)) {
+                    System.out.println("not sorted at " + i);
+                    return;
+                }
+            }
+            System.out.println("sorted " + n + " longs");
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * 原地基数排序一个小端序 long 文件
+     *
+     * @param file
+     * @throws IOException
+     */
+    public static void radixSort(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            MappedLongArray arr = MappedLongArray.map(raf.getChannel());
+            radixSort(arr);
+            arr.force();
+        }
+    }
+
+    /**
+     * 原地快速排序一个小端序 long 文件
+     *
+     * @param file
+     * @throws IOException
+     */
+    public static void quickSort(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            MappedLongArray arr = MappedLongArray.map(raf.getChannel());
+            quickSort(arr);
+            arr.force();
+        }
+    }
+
+    /**
+     * 对 buffer 从当前位置到 limit 的部分基数排序
+     *
+     * @param buffer
+     */
+    public static void radixSort(LongBuffer buffer) {
+        radixSort(MappedLongArray.wrap(buffer));
+    }
+
+    /**
+     * 对 buffer 从当前位置到 limit 的部分快速排序
+     *
+     * @param buffer
+     */
+    public static void quickSort(LongBuffer buffer) {
+        quickSort(MappedLongArray.wrap(buffer));
+    }
+
+    public static void radixSort(MappedLongArray arr) {
+        long n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        long[] buffer = new long[(int) Math.min(n, LEAF_SIZE)];
+        radixSort(arr, 0, n, (Long.BYTES - 1) * DIGIT_BITS, buffer);
+    }
+
+    /**
+     * 对 [low, high) 按 shift 位置上的字节及更低的字节排序
+     */
+    private static void radixSort(MappedLongArray arr, long low, long high, int shift, long[] buffer) {
+        long n = high - low;
+        if (n <= LEAF_SIZE) {
+            int len = (int) n;
+            arr.get(low, buffer, 0, len);
+            DualPivotQuickSort.sort(buffer, 0, len - 1);
+            arr.put(low, buffer, 0, len);
+            return;
+        }
+        // 1.计数
+        long[] end = new long[RADIX];
+        for (long i = low; i < high; i++) {
+            end[digit(arr.get(i), shift)]++;
+        }
+        if (end[digit(arr.get(low), shift)] == n) { // 所有记录在该字节上相同
+            if (shift > 0) {
+                radixSort(arr, low, high, shift - DIGIT_BITS, buffer);
+            }
+            return;
+        }
+        // 2.前缀和：next[b] 为桶 b 的下一个空位，end[b] 为桶 b 的结束位置
+        long[] next = new long[RADIX];
+        long sum = low;
+        for (int b = 0; b < RADIX; b++) {
+            next[b] = sum;
+            sum += end[b];
+            end[b] = sum;
+        }
+        // 3.沿置换环交换到位：取出桶 b 空位上的记录，放进它所属的桶，换出那里的记录，直到换回属于桶 b 的记录
+        for (int b = 0; b < RADIX; b++) {
+            while (next[b] < end[b]) {
+                long v = arr.get(next[b]);
+                int d = digit(v, shift);
+                while (d != b) {
+                    long pos = next[d]++;
+                    long t = arr.get(pos);
+                    arr.set(pos, v);
+                    v = t;
+                    d = digit(v, shift);
+                }
+                arr.set(next[b]++, v);
+            }
+        }
+        // 4.递归，此时 end[b] 为桶 b 的结束位置
+        if (shift == 0) {
+            return;
+        }
+        long start = low;
+        for (int b = 0; b < RADIX; b++) {
+            if (end[b] - start > 1) {
+                radixSort(arr, start, end[b], shift - DIGIT_BITS, buffer);
+            }
+            start = end[b];
+        }
+    }
+
+    private static int digit(long v, int shift) {
+        return (int) ((v ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    public static void quickSort(MappedLongArray arr) {
+        long n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        quickSort(arr, 0, n - 1, 2 * (63 - Long.numberOfLeadingZeros(n)));
+    }
+
+    /**
+     * @param depthLimit 剩余允许的划分深度，耗尽后转为堆排序
+     */
+    private static void quickSort(MappedLongArray arr, long low, long high, int depthLimit) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            long mid = (low + high) >>> 1;
+            long a = arr.get(low);
+            long b = arr.get(mid);
+            long c = arr.get(high);
+            long pivotkey = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+
+            // 三路划分：[low...lt-1] < pivotkey, [lt...gt] == pivotkey, [gt+1...high] > pivotkey
+            long lt = low;
+            long gt = high;
+            long i = low;
+            while (i <= gt) {
+                long v = arr.get(i);
+                if (v < pivotkey) {
+                    arr.set(i++, arr.get(lt));
+                    arr.set(lt++, v);
+                } else if (v > pivotkey) {
+                    arr.set(i, arr.get(gt));
+                    arr.set(gt--, v);
+                } else {
+                    i++;
+                }
+            }
+
+            // 对较小的一侧递归，较大的一侧继续循环，栈深度为 O(logN)
+            if (lt - low < high - gt) {
+                quickSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertSort(arr, low, high);
+    }
+
+    private static void insertSort(MappedLongArray arr, long low, long high) {
+        for (long i = low + 1; i <= high; i++) {
+            long temp = arr.get(i);
+            long j;
+            for (j = i - 1; j >= low && arr.get(j) > temp; j--) {
+                arr.set(j + 1, arr.get(j));
+            }
+            arr.set(j + 1, temp);
+        }
+    }
+
+    private static void heapSort(MappedLongArray arr, long low, long high) {
+        long n = high - low + 1;
+        for (long s = n / 2 - 1; s >= 0; s--) {
+            siftDown(arr, low, s, n);
+        }
+        for (long m = n - 1; m > 0; m--) {
+            long t = arr.get(low);
+            arr.set(low, arr.get(low + m));
+            arr.set(low + m, t);
+            siftDown(arr, low, 0, m);
+        }
+    }
+
+    /**
+     * 大顶堆 arr[base...base+m) 中把 s 位置的记录下沉
+     */
+    private static void siftDown(MappedLongArray arr, long base, long s, long m) {
+        long rc = arr.get(base + s);
+        for (long j = 2 * s + 1; j < m; j = 2 * j + 1) {
+            if (j + 1 < m && arr.get(base + j) < arr.get(base + j + 1)) {
+                j++;
+            }
+            if (rc >= arr.get(base + j)) {
+                break;
+            }
+            arr.set(base + s, arr.get(base + j));
+            s = j;
+        }
+        arr.set(base + s, rc);
+    }
+}
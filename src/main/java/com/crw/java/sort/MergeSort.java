@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 归并排序
  * <p>
@@ -9,12 +12,16 @@ package com.crw.java.sort;
  * 而治(conquer)的阶段则将分的阶段得到的各答案"修补"在一起，即分而治之)。
  * <p>
  * 时间复杂度：O(nlogn)。对比于堆排序和快速排序，它是稳定的排序。
+ * <p>
+ * int 数组长度不超过 16 的子表直接用排序网络({@link SmallSort})排序，不再递归到单个记录；基本类型不需要区分相同的值，不影响稳定性。
+ * <p>
+ * 键值同步排序 {@link #sort(long[], int[])} 中相同关键字的 value 需要保持原有次序，小子表改用直接插入排序。
  */
 public class MergeSort {
 
     public static void main(String[] args) {
         int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
-        sort(arr);
+        sort(arr, new int[arr.length], SortListener.PRINT);
         for (int i : arr) {
             System.out.print(i + "\t");
         }
@@ -22,7 +29,50 @@ public class MergeSort {
 
     public static void sort(int[] arr) {
         int[] temp = new int[arr.length];
-        mergeSort(arr, 0, arr.length - 1, temp);
+        SortMetrics.allocate(4L * arr.length);
+        sort(arr, temp, null);
+    }
+
+    /**
+     * 使用调用方提供的辅助数组排序，排序过程中不再分配任何内存，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(int[] arr, int[] temp) {
+        sort(arr, temp, null);
+    }
+
+    /**
+     * 排序，每次合并后回调监听器
+     *
+     * @param arr
+     * @param temp     辅助数组，长度不小于 arr.length
+     * @param listener 监听器，为 null 时不跟踪
+     */
+    public static void sort(int[] arr, int[] temp, SortListener listener) {
+        if (temp.length < arr.length) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (arr.length == 0) {
+            return;
+        }
+        mergeSort(arr, 0, arr.length - 1, temp, listener);
+    }
+
+    /**
+     * 对子表 arr[left...right] 排序，只使用 temp[left...right]，因此不相交的子表可以并发共用同一个辅助数组
+     *
+     * @param arr
+     * @param left
+     * @param right
+     * @param temp  辅助数组，长度不小于 right + 1
+     */
+    public static void sort(int[] arr, int left, int right, int[] temp) {
+        if (left >= right) {
+            return;
+        }
+        mergeSort(arr, left, right, temp, null);
     }
 
     /**
@@ -37,11 +87,11 @@ public class MergeSort {
     private static void merge(int[] arr, int left, int mid, int right, int[] temp) {
         int i = left;//左序列指针
         int j = mid + 1;//右序列指针
-        int k = 0;//临时数组指针
+        int k = left;//临时数组指针
 
         // i:左序列指针, j:右序列指针, k:临时数组指针；循环将arr中记录并入temp中
         for (; i <= mid && j <= right; k++) {
-            if (arr[i] < arr[j]) {
+            if (!SortMetrics.less(arr[j], arr[i])) { // 相等时取左边，保证稳定
                 temp[k] = arr[i++];
             } else {
                 temp[k] = arr[j++];
@@ -56,20 +106,141 @@ public class MergeSort {
 
 
         //将temp中的元素全部拷贝到原数组中
-        k = 0;
+        k = left;
+        SortMetrics.move(2L * (right - left + 1)); // 并入 temp 一次，拷贝回 arr 一次
         while (left <= right) {
             arr[left++] = temp[k++];
         }
 
     }
 
-    private static void mergeSort(int[] arr, int left, int right, int[] temp) {
+    private static void mergeSort(int[] arr, int left, int right, int[] temp, SortListener listener) {
         if (left == right) { // 递归出口
             return;
         }
+        if (listener == null && right - left < SmallSort.MAX_NETWORK_SIZE) { // 小子表用排序网络，跟踪时保持逐层合并的过程
+            SmallSort.sort(arr, left, right);
+            return;
+        }
+        SortMetrics.enter();
         int mid = (left + right) / 2;
-        mergeSort(arr, left, mid, temp); // 左边归并排序，使得左子序列有序
-        mergeSort(arr, mid + 1, right, temp); // 右边归并排序，使得右子序列有序
+        mergeSort(arr, left, mid, temp, listener); // 左边归并排序，使得左子序列有序
+        mergeSort(arr, mid + 1, right, temp, listener); // 右边归并排序，使得右子序列有序
         merge(arr, left, mid, right, temp); // 将两个有序子数组合并操作
+        if (listener != null) {
+            listener.onStep(arr, "合并[" + left + "," + mid + "]与[" + (mid + 1) + "," + right + "]:\t");
+        }
+        SortMetrics.exit();
+    }
+
+    /**
+     * 按 keys 排序，values 与 keys 同步移动(键值同步排序)，稳定
+     *
+     * @param keys
+     * @param values 长度不小于 keys.length
+     */
+    public static void sort(long[] keys, int[] values) {
+        sort(keys, values, new long[keys.length], new int[keys.length]);
+    }
+
+    /**
+     * 键值同步排序，使用调用方提供的辅助数组，排序过程中不再分配任何内存
+     *
+     * @param keys
+     * @param values    长度不小于 keys.length
+     * @param keyTemp   辅助数组，长度不小于 keys.length
+     * @param valueTemp 辅助数组，长度不小于 keys.length
+     */
+    public static void sort(long[] keys, int[] values, long[] keyTemp, int[] valueTemp) {
+        int len = keys.length;
+        if (values.length < len || keyTemp.length < len || valueTemp.length < len) {
+            throw new IllegalArgumentException("values/temp shorter than keys");
+        }
+        if (len < 2) {
+            return;
+        }
+        mergeSort(keys, values, 0, len - 1, keyTemp, valueTemp);
+    }
+
+    private static void mergeSort(long[] keys, int[] values, int left, int right, long[] keyTemp, int[] valueTemp) {
+        if (right - left < SmallSort.MAX_NETWORK_SIZE) {
+            QuickSort.insertSort(keys, values, left, right);
+            return;
+        }
+        int mid = (left + right) >>> 1;
+        mergeSort(keys, values, left, mid, keyTemp, valueTemp);
+        mergeSort(keys, values, mid + 1, right, keyTemp, valueTemp);
+        if (keys[mid] <= keys[mid + 1]) { // 两段已经整体有序
+            return;
+        }
+        int i = left;
+        int j = mid + 1;
+        int k = left;
+        while (i <= mid && j <= right) {
+            if (keys[j] < keys[i]) {
+                keyTemp[k] = keys[j];
+                valueTemp[k++] = values[j++];
+            } else { // 相等时取左边，保证稳定
+                keyTemp[k] = keys[i];
+                valueTemp[k++] = values[i++];
+            }
+        }
+        // 右段剩余的记录已在最终位置，只需拷贝左段剩余的记录
+        System.arraycopy(keys, i, keyTemp, k, mid - i + 1);
+        System.arraycopy(values, i, valueTemp, k, mid - i + 1);
+        int n = j - left;
+        System.arraycopy(keyTemp, left, keys, left, n);
+        System.arraycopy(valueTemp, left, values, left, n);
+    }
+
+    /**
+     * 按比较器排序，稳定
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        if (arr.length < 2) {
+            return;
+        }
+        Object[] temp = new Object[arr.length];
+        mergeSort(arr, 0, arr.length - 1, temp, c);
+    }
+
+    private static <T> void mergeSort(T[] arr, int left, int right, Object[] temp, Comparator<? super T> c) {
+        if (left == right) {
+            return;
+        }
+        int mid = (left + right) >>> 1;
+        mergeSort(arr, left, mid, temp, c);
+        mergeSort(arr, mid + 1, right, temp, c);
+        if (c.compare(arr[mid], arr[mid + 1]) <= 0) { // 两个子表已经有序，不需要合并
+            return;
+        }
+        int i = left;
+        int j = mid + 1;
+        int k = left;
+        while (i <= mid && j <= right) {
+            temp[k++] = c.compare(arr[i], arr[j]) <= 0 ? arr[i++] : arr[j++]; // 相等时取左边，保证稳定
+        }
+        while (i <= mid) {
+            temp[k++] = arr[i++];
+        }
+        while (j <= right) {
+            temp[k++] = arr[j++];
+        }
+        System.arraycopy(temp, left, arr, left, right - left + 1);
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
     }
 }
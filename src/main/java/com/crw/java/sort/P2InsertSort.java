@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 2-路插入排序
  * <p>
@@ -20,18 +23,22 @@ public class P2InsertSort {
         }
     }
 
-    private static void sort(int[] arr) {
+    public static void sort(int[] arr) {
         int len = arr.length;
+        if (len == 0) {
+            return;
+        }
         int first = 0;
         int last = 0;
         int[] tmp = new int[len];
+        SortMetrics.allocate(4L * len);
         tmp[0] = arr[0];
         for (int i = 1; i < len; i++) {
-            if (arr[i] < tmp[first]) { // 待插入元素比最小的元素小
+            if (SortMetrics.less(arr[i], tmp[first])) { // 待插入元素比最小的元素小
                 System.out.print("插入 1.1 路\t");
                 first = (first - 1 + len) % len;
                 tmp[first] = arr[i];
-            } else if (arr[i] > tmp[last]) { // 待插入元素比最大的元素大
+            } else if (SortMetrics.less(tmp[last], arr[i])) { // 待插入元素比最大的元素大
                 System.out.print("插入 1.2 路\t");
                 // last = (last + 1 + len) % len;
                 last++; // 理论上应该按上面这样写，实际上last不会超过 len - 1 。
@@ -40,8 +47,9 @@ public class P2InsertSort {
                 System.out.print("插入 2 路\t");
                 int k;
                 // 使用直接插入
-                for (k = last + 1; arr[i] < tmp[(k - 1 + len) % len]; k = (k - 1 + len) % len) {
+                for (k = last + 1; SortMetrics.less(arr[i], tmp[(k - 1 + len) % len]); k = (k - 1 + len) % len) {
                     tmp[k] = tmp[(k - 1 + len) % len];
+                    SortMetrics.move();
                 }
 
                 tmp[(k + len) % len] = arr[i];
@@ -55,6 +63,7 @@ public class P2InsertSort {
         for (int j = 0; j < len; j++) {
             arr[j] = tmp[(first + j) % len];
         }
+        SortMetrics.move(2L * len); // 每个记录写入 tmp 一次，写回一次
 
     }
 
@@ -69,4 +78,54 @@ public class P2InsertSort {
             }
         }
     }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        int len = arr.length;
+        if (len == 0) {
+            return;
+        }
+        int first = 0;
+        int last = 0;
+        Object[] tmp = new Object[len];
+        tmp[0] = arr[0];
+        for (int i = 1; i < len; i++) {
+            if (c.compare(arr[i], (T) tmp[first]) < 0) { // 待插入元素比最小的元素小
+                first = (first - 1 + len) % len;
+                tmp[first] = arr[i];
+            } else if (c.compare(arr[i], (T) tmp[last]) >= 0) { // 待插入元素不小于最大的元素
+                last++;
+                tmp[last] = arr[i];
+            } else { // 待插入元素比最小大，比最大小，使用直接插入
+                int k;
+                for (k = last + 1; c.compare(arr[i], (T) tmp[(k - 1 + len) % len]) < 0; k = (k - 1 + len) % len) {
+                    tmp[k] = tmp[(k - 1 + len) % len];
+                }
+                tmp[(k + len) % len] = arr[i];
+                last = (last + 1 + len) % len;
+            }
+        }
+        // 将排序记录复制到原来的顺序表里
+        for (int j = 0; j < len; j++) {
+            arr[j] = (T) tmp[(first + j) % len];
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
 }
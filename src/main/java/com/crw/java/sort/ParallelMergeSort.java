@@ -0,0 +1,206 @@
+package com.crw.java.sort;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行归并排序，基于 ForkJoinPool
+ * <p>
+ * 基本思想：
+ * 1.排序：把子表分为四段并行排序(结果在 arr 中)，再把 1、2 段和 3、4 段并行合并到 temp，
+ * 最后把 temp 中的两半合并回 arr。结果在 arr 和 temp 之间来回，不需要额外拷贝，整个排序只使用一个辅助数组。
+ * 子表长度不超过 SEQUENTIAL_THRESHOLD 时直接调用 {@link MergeSort} 串行排序。
+ * 2.合并：取较长有序表的中间记录 x，在另一个有序表中二分查找 x 的位置，
+ * 这样两个有序表各被分成两段，前两段和后两段可以独立并行合并，顶层的合并不再是串行瓶颈。
+ * <p>
+ * 时间复杂度：O(nlogn)，并行度约为 n/log^2(n)；稳定的排序
+ */
+public class ParallelMergeSort {
+
+    /**
+     * 子表长度不超过该值时串行排序
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * 两个有序表总长度不超过该值时串行合并
+     */
+    private static final int MERGE_THRESHOLD = 1 << 13;
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        sort(arr);
+        for (int i : arr) {
+            System.out.print(i + "\t");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, new int[arr.length], ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用调用方提供的辅助数组排序，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(int[] arr, int[] temp) {
+        sort(arr, temp, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中排序
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     * @param pool
+     */
+    public static void sort(int[] arr, int[] temp, ForkJoinPool pool) {
+        if (temp.length < arr.length) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (arr.length <= SEQUENTIAL_THRESHOLD) {
+            MergeSort.sort(arr, 0, arr.length - 1, temp);
+            return;
+        }
+        pool.invoke(new Sorter(arr, temp, 0, arr.length));
+    }
+
+    /**
+     * 排序 arr[base...base+size)，结果在 arr 中，只使用 temp 的相同区间
+     */
+    @SuppressWarnings("serial")
+    private static class Sorter extends RecursiveAction {
+        private final int[] arr;
+        private final int[] temp;
+        private final int base;
+        private final int size;
+
+        Sorter(int[] arr, int[] temp, int base, int size) {
+            this.arr = arr;
+            this.temp = temp;
+            this.base = base;
+            this.size = size;
+        }
+
+        @Override
+        protected void compute() {
+            if (size <= SEQUENTIAL_THRESHOLD) {
+                MergeSort.sort(arr, base, base + size - 1, temp);
+                return;
+            }
+            int h = size >>> 1; // 一半
+            int q = h >>> 1; // 四分之一
+            int u = h + q; // 四分之三
+            // 1.四段并行排序，结果在 arr
+            invokeAll(new Sorter(arr, temp, base, q),
+                    new Sorter(arr, temp, base + q, h - q),
+                    new Sorter(arr, temp, base + h, q),
+                    new Sorter(arr, temp, base + u, size - u));
+            // 2.两两合并到 temp
+            invokeAll(new Merger(arr, temp, base, q, base + q, h - q, base),
+                    new Merger(arr, temp, base + h, q, base + u, size - u, base + h));
+            // 3.合并回 arr
+            new Merger(temp, arr, base, h, base + h, size - h, base).compute();
+        }
+    }
+
+    /**
+     * 把 src 中的有序表 [lbase...lbase+lsize) 和 [rbase...rbase+rsize) 合并到 dst[wbase...)
+     */
+    @SuppressWarnings("serial")
+    private static class Merger extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int lbase;
+        private final int lsize;
+        private final int rbase;
+        private final int rsize;
+        private final int wbase;
+
+        Merger(int[] src, int[] dst, int lbase, int lsize, int rbase, int rsize, int wbase) {
+            this.src = src;
+            this.dst = dst;
+            this.lbase = lbase;
+            this.lsize = lsize;
+            this.rbase = rbase;
+            this.rsize = rsize;
+            this.wbase = wbase;
+        }
+
+        @Override
+        protected void compute() {
+            if (lsize + rsize <= MERGE_THRESHOLD) {
+                merge(src, dst, lbase, lsize, rbase, rsize, wbase);
+                return;
+            }
+            int lh;
+            int rh;
+            if (lsize >= rsize) {
+                // 左表中间记录 x，右表中小于 x 的记录排在 x 前面
+                lh = lsize >>> 1;
+                rh = lowerBound(src, rbase, rsize, src[lbase + lh]);
+            } else {
+                // 右表中间记录 y，左表中小于等于 y 的记录排在 y 前面，保证稳定
+                rh = rsize >>> 1;
+                lh = upperBound(src, lbase, lsize, src[rbase + rh]);
+            }
+            invokeAll(new Merger(src, dst, lbase, lh, rbase, rh, wbase),
+                    new Merger(src, dst, lbase + lh, lsize - lh, rbase + rh, rsize - rh, wbase + lh + rh));
+        }
+    }
+
+    /**
+     * 串行合并，相等时取左边，保证稳定
+     */
+    private static void merge(int[] src, int[] dst, int lbase, int lsize, int rbase, int rsize, int wbase) {
+        int i = lbase;
+        int lend = lbase + lsize;
+        int j = rbase;
+        int rend = rbase + rsize;
+        int k = wbase;
+        while (i < lend && j < rend) {
+            dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+        }
+        if (i < lend) {
+            System.arraycopy(src, i, dst, k, lend - i);
+        } else if (j < rend) {
+            System.arraycopy(src, j, dst, k, rend - j);
+        }
+    }
+
+    /**
+     * src[base...base+size) 中小于 key 的记录个数
+     */
+    private static int lowerBound(int[] src, int base, int size, int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (src[base + mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * src[base...base+size) 中小于等于 key 的记录个数
+     */
+    private static int upperBound(int[] src, int base, int size, int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (src[base + mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
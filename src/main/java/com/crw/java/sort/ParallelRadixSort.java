@@ -0,0 +1,482 @@
+package com.crw.java.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行基数排序，最高位优先(MSD)，基于 ForkJoinPool
+ * <p>
+ * 以字节为位次，从最高字节开始：
+ * 1.计数：把子表分为若干块，每块在各自的线程中统计直方图，互不争用。
+ * 2.前缀和：按 桶 -> 块 的顺序求前缀和，得到每一块、每个桶在辅助数组中的起始位置。
+ * 3.分配：各块并行把记录写入自己的位置，写入区间互不重叠，不需要同步；分配是稳定的。
+ * 4.递归：每个桶内的记录最高字节相同，作为独立子问题提交到线程池，按下一个字节继续排序。
+ * 子表较小时在当前线程内串行递归，很小时直接插入排序。
+ * 原数组和辅助数组每层交替使用，只在递归结束时把仍在辅助数组中的桶拷贝回来。
+ * 与 {@link RadixSort} 一样翻转符号位，支持负数。
+ * <p>
+ * 时间复杂度：O(d*n)，d 为字节数；空间复杂度：O(n)
+ */
+public class ParallelRadixSort {
+
+    /**
+     * 基数，每个位次一个字节
+     */
+    private static final int RADIX = 256;
+
+    private static final int DIGIT_BITS = 8;
+
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /**
+     * 子表长度不超过该值时插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    /**
+     * 子表长度不超过该值时串行递归
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    /**
+     * 并行计数、分配时每块的最小长度
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    public static void main(String[] args) {
+        long[] arr = {4, 2, 5601, -2303, 72897, 3312, 0, -189, 241548};
+        sort(arr);
+        for (long i : arr) {
+            System.out.print(i + "\t");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, new int[arr.length], ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中排序
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length，可在多次调用间复用
+     * @param pool
+     */
+    public static void sort(int[] arr, int[] temp, ForkJoinPool pool) {
+        if (temp.length < arr.length) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        int topShift = (Integer.BYTES - 1) * DIGIT_BITS;
+        if (arr.length <= SEQUENTIAL_THRESHOLD) {
+            sequentialSort(arr, temp, 0, arr.length, topShift, false, new int[Integer.BYTES][RADIX]);
+            return;
+        }
+        pool.invoke(new IntSorter(arr, temp, 0, arr.length, topShift, false, pool.getParallelism()));
+    }
+
+    /**
+     * 对 [low, high) 按 shift 位置上的字节及更低的字节排序
+     *
+     * @param inTemp 当前数据在 temp 中还是在 arr 中，结果总是写回 arr
+     * @param counts 每一层递归复用的计数数组，下标为递归深度
+     */
+    private static void sequentialSort(int[] arr, int[] temp, int low, int high, int shift, boolean inTemp,
+                                       int[][] counts) {
+        int n = high - low;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            finish(arr, temp, low, high, inTemp);
+            return;
+        }
+        int[] from = inTemp ? temp : arr;
+        int[] to = inTemp ? arr : temp;
+        int[] count = counts[shift / DIGIT_BITS];
+
+        // 1.计数
+        Arrays.fill(count, 0);
+        for (int i = low; i < high; i++) {
+            count[digit(from[i], shift)]++;
+        }
+        if (count[digit(from[low], shift)] == n) { // 所有记录在该字节上相同，不需要分配
+            if (shift == 0) {
+                finish(arr, temp, low, high, inTemp);
+            } else {
+                sequentialSort(arr, temp, low, high, shift - DIGIT_BITS, inTemp, counts);
+            }
+            return;
+        }
+        // 2.前缀和，count[b] 为桶 b 的起始位置
+        int sum = low;
+        for (int b = 0; b < RADIX; b++) {
+            int c = count[b];
+            count[b] = sum;
+            sum += c;
+        }
+        // 3.分配
+        for (int i = low; i < high; i++) {
+            int v = from[i];
+            to[count[digit(v, shift)]++] = v;
+        }
+        // 4.递归，此时 count[b] 为桶 b 的结束位置
+        int start = low;
+        for (int b = 0; b < RADIX; b++) {
+            int end = count[b];
+            if (end > start) {
+                if (shift == 0) {
+                    finish(arr, temp, start, end, !inTemp);
+                } else {
+                    sequentialSort(arr, temp, start, end, shift - DIGIT_BITS, !inTemp, counts);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 递归结束：数据在 temp 中则拷贝回 arr，然后插入排序
+     */
+    private static void finish(int[] arr, int[] temp, int low, int high, boolean inTemp) {
+        if (inTemp) {
+            System.arraycopy(temp, low, arr, low, high - low);
+        }
+        for (int i = low + 1; i < high; i++) {
+            int v = arr[i];
+            int j;
+            for (j = i - 1; j >= low && arr[j] > v; j--) {
+                arr[j + 1] = arr[j];
+            }
+            arr[j + 1] = v;
+        }
+    }
+
+    private static int digit(int v, int shift) {
+        return ((v ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    /**
+     * 并行排序 [low, high)
+     */
+    @SuppressWarnings("serial")
+    private static class IntSorter extends RecursiveAction {
+        private final int[] arr;
+        private final int[] temp;
+        private final int low;
+        private final int high;
+        private final int shift;
+        private final boolean inTemp;
+        private final int parallelism;
+
+        IntSorter(int[] arr, int[] temp, int low, int high, int shift, boolean inTemp, int parallelism) {
+            this.arr = arr;
+            this.temp = temp;
+            this.low = low;
+            this.high = high;
+            this.shift = shift;
+            this.inTemp = inTemp;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            int n = high - low;
+            if (n <= SEQUENTIAL_THRESHOLD) {
+                sequentialSort(arr, temp, low, high, shift, inTemp, new int[Integer.BYTES][RADIX]);
+                return;
+            }
+            int[] from = inTemp ? temp : arr;
+            int[] to = inTemp ? arr : temp;
+
+            // 1.分块并行计数
+            int chunks = Math.max(1, Math.min(parallelism * 4, n / MIN_CHUNK));
+            int chunkSize = (n + chunks - 1) / chunks;
+            int[][] hist = new int[chunks][RADIX];
+            RecursiveAction[] tasks = new RecursiveAction[chunks];
+            for (int c = 0; c < chunks; c++) {
+                final int[] h = hist[c];
+                final int from0 = low + c * chunkSize;
+                final int to0 = Math.min(high, from0 + chunkSize);
+                tasks[c] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from0; i < to0; i++) {
+                            h[digit(from[i], shift)]++;
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 2.前缀和：按 桶 -> 块 的顺序，hist[c][b] 变为块 c 中桶 b 的起始位置
+            int[] bucketEnd = new int[RADIX];
+            int sum = low;
+            boolean single = false;
+            for (int b = 0; b < RADIX; b++) {
+                int bucketSize = 0;
+                for (int c = 0; c < chunks; c++) {
+                    int cnt = hist[c][b];
+                    hist[c][b] = sum;
+                    sum += cnt;
+                    bucketSize += cnt;
+                }
+                bucketEnd[b] = sum;
+                single |= bucketSize == n;
+            }
+            if (single) { // 所有记录在该字节上相同，不需要分配
+                if (shift == 0) {
+                    finish(arr, temp, low, high, inTemp);
+                } else {
+                    new IntSorter(arr, temp, low, high, shift - DIGIT_BITS, inTemp, parallelism).compute();
+                }
+                return;
+            }
+
+            // 3.分块并行分配
+            for (int c = 0; c < chunks; c++) {
+                final int[] offset = hist[c];
+                final int from0 = low + c * chunkSize;
+                final int to0 = Math.min(high, from0 + chunkSize);
+                tasks[c] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from0; i < to0; i++) {
+                            int v = from[i];
+                            to[offset[digit(v, shift)]++] = v;
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 4.各个桶作为子问题并行排序
+            List<RecursiveAction> buckets = new ArrayList<>();
+            int start = low;
+            for (int b = 0; b < RADIX; b++) {
+                int end = bucketEnd[b];
+                if (end > start) {
+                    if (shift == 0) {
+                        finish(arr, temp, start, end, !inTemp);
+                    } else {
+                        buckets.add(new IntSorter(arr, temp, start, end, shift - DIGIT_BITS, !inTemp, parallelism));
+                    }
+                }
+                start = end;
+            }
+            invokeAll(buckets);
+        }
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, new long[arr.length], ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中排序
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length，可在多次调用间复用
+     * @param pool
+     */
+    public static void sort(long[] arr, long[] temp, ForkJoinPool pool) {
+        if (temp.length < arr.length) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        int topShift = (Long.BYTES - 1) * DIGIT_BITS;
+        if (arr.length <= SEQUENTIAL_THRESHOLD) {
+            sequentialSort(arr, temp, 0, arr.length, topShift, false, new int[Long.BYTES][RADIX]);
+            return;
+        }
+        pool.invoke(new LongSorter(arr, temp, 0, arr.length, topShift, false, pool.getParallelism()));
+    }
+
+    /**
+     * 对 [low, high) 按 shift 位置上的字节及更低的字节排序
+     *
+     * @param inTemp 当前数据在 temp 中还是在 arr 中，结果总是写回 arr
+     * @param counts 每一层递归复用的计数数组，下标为递归深度
+     */
+    private static void sequentialSort(long[] arr, long[] temp, int low, int high, int shift, boolean inTemp,
+                                       int[][] counts) {
+        int n = high - low;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            finish(arr, temp, low, high, inTemp);
+            return;
+        }
+        long[] from = inTemp ? temp : arr;
+        long[] to = inTemp ? arr : temp;
+        int[] count = counts[shift / DIGIT_BITS];
+
+        // 1.计数
+        Arrays.fill(count, 0);
+        for (int i = low; i < high; i++) {
+            count[digit(from[i], shift)]++;
+        }
+        if (count[digit(from[low], shift)] == n) { // 所有记录在该字节上相同，不需要分配
+            if (shift == 0) {
+                finish(arr, temp, low, high, inTemp);
+            } else {
+                sequentialSort(arr, temp, low, high, shift - DIGIT_BITS, inTemp, counts);
+            }
+            return;
+        }
+        // 2.前缀和，count[b] 为桶 b 的起始位置
+        int sum = low;
+        for (int b = 0; b < RADIX; b++) {
+            int c = count[b];
+            count[b] = sum;
+            sum += c;
+        }
+        // 3.分配
+        for (int i = low; i < high; i++) {
+            long v = from[i];
+            to[count[digit(v, shift)]++] = v;
+        }
+        // 4.递归，此时 count[b] 为桶 b 的结束位置
+        int start = low;
+        for (int b = 0; b < RADIX; b++) {
+            int end = count[b];
+            if (end > start) {
+                if (shift == 0) {
+                    finish(arr, temp, start, end, !inTemp);
+                } else {
+                    sequentialSort(arr, temp, start, end, shift - DIGIT_BITS, !inTemp, counts);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 递归结束：数据在 temp 中则拷贝回 arr，然后插入排序
+     */
+    private static void finish(long[] arr, long[] temp, int low, int high, boolean inTemp) {
+        if (inTemp) {
+            System.arraycopy(temp, low, arr, low, high - low);
+        }
+        for (int i = low + 1; i < high; i++) {
+            long v = arr[i];
+            int j;
+            for (j = i - 1; j >= low && arr[j] > v; j--) {
+                arr[j + 1] = arr[j];
+            }
+            arr[j + 1] = v;
+        }
+    }
+
+    private static int digit(long v, int shift) {
+        return (int) ((v ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    /**
+     * 并行排序 [low, high)
+     */
+    @SuppressWarnings("serial")
+    private static class LongSorter extends RecursiveAction {
+        private final long[] arr;
+        private final long[] temp;
+        private final int low;
+        private final int high;
+        private final int shift;
+        private final boolean inTemp;
+        private final int parallelism;
+
+        LongSorter(long[] arr, long[] temp, int low, int high, int shift, boolean inTemp, int parallelism) {
+            this.arr = arr;
+            this.temp = temp;
+            this.low = low;
+            this.high = high;
+            this.shift = shift;
+            this.inTemp = inTemp;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            int n = high - low;
+            if (n <= SEQUENTIAL_THRESHOLD) {
+                sequentialSort(arr, temp, low, high, shift, inTemp, new int[Long.BYTES][RADIX]);
+                return;
+            }
+            long[] from = inTemp ? temp : arr;
+            long[] to = inTemp ? arr : temp;
+
+            // 1.分块并行计数
+            int chunks = Math.max(1, Math.min(parallelism * 4, n / MIN_CHUNK));
+            int chunkSize = (n + chunks - 1) / chunks;
+            int[][] hist = new int[chunks][RADIX];
+            RecursiveAction[] tasks = new RecursiveAction[chunks];
+            for (int c = 0; c < chunks; c++) {
+                final int[] h = hist[c];
+                final int from0 = low + c * chunkSize;
+                final int to0 = Math.min(high, from0 + chunkSize);
+                tasks[c] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from0; i < to0; i++) {
+                            h[digit(from[i], shift)]++;
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 2.前缀和：按 桶 -> 块 的顺序，hist[c][b] 变为块 c 中桶 b 的起始位置
+            int[] bucketEnd = new int[RADIX];
+            int sum = low;
+            boolean single = false;
+            for (int b = 0; b < RADIX; b++) {
+                int bucketSize = 0;
+                for (int c = 0; c < chunks; c++) {
+                    int cnt = hist[c][b];
+                    hist[c][b] = sum;
+                    sum += cnt;
+                    bucketSize += cnt;
+                }
+                bucketEnd[b] = sum;
+                single |= bucketSize == n;
+            }
+            if (single) { // 所有记录在该字节上相同，不需要分配
+                if (shift == 0) {
+                    finish(arr, temp, low, high, inTemp);
+                } else {
+                    new LongSorter(arr, temp, low, high, shift - DIGIT_BITS, inTemp, parallelism).compute();
+                }
+                return;
+            }
+
+            // 3.分块并行分配
+            for (int c = 0; c < chunks; c++) {
+                final int[] offset = hist[c];
+                final int from0 = low + c * chunkSize;
+                final int to0 = Math.min(high, from0 + chunkSize);
+                tasks[c] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from0; i < to0; i++) {
+                            long v = from[i];
+                            to[offset[digit(v, shift)]++] = v;
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 4.各个桶作为子问题并行排序
+            List<RecursiveAction> buckets = new ArrayList<>();
+            int start = low;
+            for (int b = 0; b < RADIX; b++) {
+                int end = bucketEnd[b];
+                if (end > start) {
+                    if (shift == 0) {
+                        finish(arr, temp, start, end, !inTemp);
+                    } else {
+                        buckets.add(new LongSorter(arr, temp, start, end, shift - DIGIT_BITS, !inTemp, parallelism));
+                    }
+                }
+                start = end;
+            }
+            invokeAll(buckets);
+        }
+    }
+}
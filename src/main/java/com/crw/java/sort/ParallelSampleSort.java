@@ -0,0 +1,276 @@
+package com.crw.java.sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行样本排序(Sample Sort)，按比较器对大对象数组排序，基于 ForkJoinPool
+ * <p>
+ * 基本思想：快速排序每层只有一个枢轴，顶层划分是串行瓶颈；样本排序一次选出 k-1 个分割元素，把数组分成 k 个桶：
+ * 1.过采样：随机抽取 k*OVERSAMPLING 个样本排序，每隔 OVERSAMPLING 个取一个作为分割元素，桶的大小比较均匀。
+ * 分割元素在样本中重复出现说明这是一个高频关键字，单独为它开一个相等桶，相等桶内的记录不需要再排序。
+ * 2.分类：把数组分为若干块，各块并行对每个记录二分查找所属的桶，桶号记在 oracle 中，同时统计每块的直方图。
+ * 3.分配：按 桶 -> 块 的顺序求前缀和，各块并行把记录写入辅助数组中自己的位置，写入区间互不重叠；分配是稳定的。
+ * 4.排序：各个桶作为独立子问题提交到线程池，排序后拷贝回原数组；仍然很大的桶(分割元素选得不好)递归样本排序。
+ * <p>
+ * 结果是确定的：抽样使用固定的种子，分块和分桶只取决于数组长度，与线程数和调度无关，
+ * 相等记录的相对次序每次都一样。stable 为 true 时桶内使用 {@link TimSort}，由于分配是稳定的，整体也是稳定的；
+ * 否则桶内使用 {@link IntroSort}。
+ * <p>
+ * 时间复杂度：O(nlogn)；空间复杂度：O(n)，一个辅助数组和每个记录 2 字节的桶号
+ *
+ * @see ParallelMergeSort int[] 的并行排序
+ */
+public class ParallelSampleSort {
+
+    /**
+     * 数组长度不超过该值时串行排序
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    /**
+     * 每个分割元素对应的样本数
+     */
+    private static final int OVERSAMPLING = 16;
+
+    /**
+     * 桶的期望大小，决定桶的个数
+     */
+    private static final int BUCKET_SIZE = 1 << 14;
+
+    /**
+     * 分割元素的最大个数，桶号(包括相等桶)不超过 2*MAX_SPLITTERS，可以用 char 存放
+     */
+    private static final int MAX_SPLITTERS = 1 << 10;
+
+    /**
+     * 并行分类、分配时每块的长度
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * 桶的递归深度超过该值时不再样本排序，直接串行排序
+     */
+    private static final int MAX_DEPTH = 4;
+
+    /**
+     * 抽样的种子，固定以保证结果确定
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    public static void main(String[] args) {
+        String[] arr = {"pear", "apple", "fig", "banana", "kiwi", "cherry", "date", "grape"};
+        sort(arr, Comparator.comparingInt(String::length), true);
+        for (String s : arr) {
+            System.out.print(s + " ");
+        }
+    }
+
+    /**
+     * 按比较器排序，不稳定
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, c, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     * @param stable 是否保持相等记录的原有次序
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c, boolean stable) {
+        sort(arr, c, stable, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中排序
+     *
+     * @param arr
+     * @param c
+     * @param stable 是否保持相等记录的原有次序
+     * @param pool
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c, boolean stable, ForkJoinPool pool) {
+        if (arr.length <= SEQUENTIAL_THRESHOLD) {
+            sequentialSort(arr, 0, arr.length - 1, c, stable);
+            return;
+        }
+        pool.invoke(new Sorter<>(arr, new Object[arr.length], 0, arr.length, c, stable, 0));
+    }
+
+    private static <T> void sequentialSort(T[] arr, int low, int high, Comparator<? super T> c, boolean stable) {
+        if (stable) {
+            TimSort.sort(arr, low, high, c);
+        } else {
+            IntroSort.sort(arr, low, high, c);
+        }
+    }
+
+    /**
+     * 排序 arr[low, high)，只使用 temp 的相同区间
+     */
+    @SuppressWarnings({"unchecked", "serial"})
+    private static class Sorter<T> extends RecursiveAction {
+        private final T[] arr;
+        private final Object[] temp;
+        private final int low;
+        private final int high;
+        private final Comparator<? super T> c;
+        private final boolean stable;
+        private final int depth;
+
+        Sorter(T[] arr, Object[] temp, int low, int high, Comparator<? super T> c, boolean stable, int depth) {
+            this.arr = arr;
+            this.temp = temp;
+            this.low = low;
+            this.high = high;
+            this.c = c;
+            this.stable = stable;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            int n = high - low;
+            if (n <= SEQUENTIAL_THRESHOLD || depth >= MAX_DEPTH) {
+                sequentialSort(arr, low, high - 1, c, stable);
+                return;
+            }
+
+            // 1.过采样，选出分割元素
+            int k = Math.min(MAX_SPLITTERS + 1, n / BUCKET_SIZE + 1); // 普通桶的个数
+            Object[] sample = new Object[k * OVERSAMPLING - 1];
+            Random random = new Random(SEED + n);
+            for (int i = 0; i < sample.length; i++) {
+                sample[i] = arr[low + random.nextInt(n)];
+            }
+            IntroSort.sort((T[]) sample, c);
+            List<T> splitterList = new ArrayList<>(k - 1);
+            List<Boolean> heavyList = new ArrayList<>(k - 1);
+            for (int i = 1; i < k; i++) {
+                T s = (T) sample[i * OVERSAMPLING - 1];
+                int last = splitterList.size() - 1;
+                if (last >= 0 && c.compare(splitterList.get(last), s) == 0) {
+                    heavyList.set(last, true); // 重复的分割元素，为它开相等桶
+                } else {
+                    splitterList.add(s);
+                    heavyList.add(c.compare((T) sample[i * OVERSAMPLING - 2], s) == 0);
+                }
+            }
+            Object[] splitters = splitterList.toArray();
+            boolean[] heavy = new boolean[splitters.length];
+            for (int i = 0; i < heavy.length; i++) {
+                heavy[i] = heavyList.get(i);
+            }
+            // 桶 2i：(splitters[i-1], splitters[i])；桶 2i+1：等于 splitters[i] 的相等桶(heavy[i] 时才使用)
+            int buckets = 2 * splitters.length + 1;
+
+            // 2.分块并行分类，hist[b][bucket] 为块 b 中各桶的记录数
+            char[] oracle = new char[n];
+            int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int[][] hist = new int[chunks][buckets];
+            RecursiveAction[] tasks = new RecursiveAction[chunks];
+            for (int b = 0; b < chunks; b++) {
+                final int[] h = hist[b];
+                final int from = low + b * CHUNK_SIZE;
+                final int to = Math.min(high, from + CHUNK_SIZE);
+                tasks[b] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from; i < to; i++) {
+                            int bucket = classify(arr[i], (T[]) splitters, heavy, c);
+                            oracle[i - low] = (char) bucket;
+                            h[bucket]++;
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 3.前缀和：按 桶 -> 块 的顺序，hist[b][bucket] 变为块 b 中该桶在辅助数组中的起始位置
+            int[] bucketEnd = new int[buckets];
+            int sum = low;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                for (int b = 0; b < chunks; b++) {
+                    int cnt = hist[b][bucket];
+                    hist[b][bucket] = sum;
+                    sum += cnt;
+                }
+                bucketEnd[bucket] = sum;
+            }
+
+            // 分块并行分配到 temp
+            for (int b = 0; b < chunks; b++) {
+                final int[] offset = hist[b];
+                final int from = low + b * CHUNK_SIZE;
+                final int to = Math.min(high, from + CHUNK_SIZE);
+                tasks[b] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int i = from; i < to; i++) {
+                            temp[offset[oracle[i - low]]++] = arr[i];
+                        }
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            // 4.各个桶拷贝回 arr 并行排序，相等桶只需拷贝
+            List<RecursiveAction> sorters = new ArrayList<>();
+            int start = low;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                final int from = start;
+                final int to = bucketEnd[bucket];
+                start = to;
+                if (to == from) {
+                    continue;
+                }
+                if ((bucket & 1) == 1 || to - from == 1) {
+                    System.arraycopy(temp, from, arr, from, to - from);
+                } else if (to - from > 2 * BUCKET_SIZE && to - from < n) {
+                    System.arraycopy(temp, from, arr, from, to - from);
+                    sorters.add(new Sorter<>(arr, temp, from, to, c, stable, depth + 1));
+                } else {
+                    sorters.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            System.arraycopy(temp, from, arr, from, to - from);
+                            sequentialSort(arr, from, to - 1, c, stable);
+                        }
+                    });
+                }
+            }
+            invokeAll(sorters);
+        }
+    }
+
+    /**
+     * 记录 x 所属的桶：二分查找第一个不小于 x 的分割元素 splitters[i]，
+     * x 等于它并且它有相等桶时为 2i+1，否则为 2i
+     */
+    private static <T> int classify(T x, T[] splitters, boolean[] heavy, Comparator<? super T> c) {
+        int lo = 0;
+        int hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(splitters[mid], x) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo < splitters.length && heavy[lo] && c.compare(x, splitters[lo]) == 0) {
+            return 2 * lo + 1;
+        }
+        return 2 * lo;
+    }
+}
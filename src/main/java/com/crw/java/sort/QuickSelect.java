@@ -0,0 +1,281 @@
+package com.crw.java.sort;
+
+import java.util.Comparator;
+
+/**
+ * 快速选择(Quickselect)与部分排序
+ * <p>
+ * 只需要第 k 小的记录(例如中位数)或前 k 小的记录时，不必对整个表排序：
+ * 1.选择：与快速排序一样做三路划分，但只进入包含下标 k 的一侧，平均比较次数约 3.4n，O(n)。
+ * 2.最坏情况保证(Introselect)：枢轴先用三数中值/九数中值选取，一旦某次划分后保留的一侧超过子表的 3/4，
+ * 说明枢轴选取失败，之后改用 五数分组中值的中值(median of medians) 作为枢轴。中值的中值本身也只用中值的中值递归选出，
+ * 不再尝试九数中值。前一阶段每次划分至少丢掉 1/4 的记录，后一阶段每次至少丢掉约 3/10，两阶段都是 O(n)，最坏 O(n)。
+ * 3.部分排序：先选出第 k 小的记录，此时前 k 个记录恰是最小的 k 个，再对这 k 个记录排序，O(n + k*logk)。
+ * <p>
+ * 下标 k 从 0 开始。选择完成后 arr[k] 就是排好序后应在该位置的记录，左边的都不大于它，右边的都不小于它(即 C++ 的 nth_element)。
+ * 时间复杂度：最坏 O(n)；空间复杂度：O(logN)；不稳定
+ *
+ * @see TopK 数据以流的形式到达、不能全部放进数组时
+ */
+public class QuickSelect {
+
+    /**
+     * 子表长度不超过该值时直接排序：int 使用排序网络({@link SmallSort})，对象使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 子表长度超过该值时使用九数中值选取枢轴
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        System.out.println("median: " + select(arr, arr.length / 2));
+        partialSort(arr, 3);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    /**
+     * 选择第 k 小的记录(k 从 0 开始)，arr 被重新排列，使 arr[k] 归位
+     *
+     * @param arr
+     * @param k
+     * @return arr[k]
+     */
+    public static int select(int[] arr, int k) {
+        return select(arr, 0, arr.length - 1, k);
+    }
+
+    /**
+     * 在子表 arr[low...high] 中选择，使 arr[k] 归位
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param k    low <= k <= high
+     * @return arr[k]
+     */
+    public static int select(int[] arr, int low, int high, int k) {
+        if (k < low || k > high) {
+            throw new IndexOutOfBoundsException("k: " + k + ", range: [" + low + ", " + high + "]");
+        }
+        return select(arr, low, high, k, true);
+    }
+
+    /**
+     * @param ninther 为 false 时只用中值的中值选取枢轴
+     */
+    private static int select(int[] arr, int low, int high, int k, boolean ninther) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            int size = high - low + 1;
+            int pivotkey = ninther ? pivot(arr, low, high) : medianOfMedians(arr, low, high);
+
+            // 三路划分：arr[low...lt-1] < pivotkey, arr[lt...gt] == pivotkey, arr[gt+1...high] > pivotkey
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                if (SortMetrics.less(arr[i], pivotkey)) {
+                    swap(arr, lt++, i++);
+                } else if (SortMetrics.less(pivotkey, arr[i])) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // 只进入包含 k 的一侧
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return arr[k];
+            }
+            // 保留的一侧超过 3/4，此后改用中值的中值
+            if (high - low + 1 > size - (size >>> 2)) {
+                ninther = false;
+            }
+        }
+        SmallSort.sort(arr, low, high);
+        return arr[k];
+    }
+
+    /**
+     * 部分排序：arr[0...k-1] 为最小的 k 个记录并且升序，其余记录顺序不定
+     *
+     * @param arr
+     * @param k
+     */
+    public static void partialSort(int[] arr, int k) {
+        if (k <= 0) {
+            return;
+        }
+        if (k >= arr.length) {
+            IntroSort.sort(arr);
+            return;
+        }
+        select(arr, 0, arr.length - 1, k - 1);
+        IntroSort.sort(arr, 0, k - 2);
+    }
+
+    /**
+     * 选取枢轴记录的关键字
+     */
+    private static int pivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr[low], arr[mid], arr[high]);
+        }
+        int s = (high - low + 1) / 8;
+        int a = median(arr[low], arr[low + s], arr[low + 2 * s]);
+        int b = median(arr[mid - s], arr[mid], arr[mid + s]);
+        int c = median(arr[high - 2 * s], arr[high - s], arr[high]);
+        return median(a, b, c);
+    }
+
+    /**
+     * 中值的中值：每 5 个一组排序，各组中值移到子表前部，再递归选出这些中值的中值
+     */
+    private static int medianOfMedians(int[] arr, int low, int high) {
+        int groups = 0;
+        for (int i = low; i <= high; i += 5) {
+            int end = Math.min(i + 4, high);
+            SmallSort.sort(arr, i, end);
+            swap(arr, low + groups++, (i + end) >>> 1);
+        }
+        int mid = low + (groups - 1) / 2;
+        return select(arr, low, low + groups - 1, mid, false);
+    }
+
+    private static int median(int a, int b, int c) {
+        if (SortMetrics.less(a, b)) {
+            return SortMetrics.less(b, c) ? b : (SortMetrics.less(a, c) ? c : a);
+        } else {
+            return SortMetrics.less(a, c) ? a : (SortMetrics.less(b, c) ? c : b);
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * 按比较器选择第 k 小的记录
+     *
+     * @param arr
+     * @param k
+     * @param c
+     * @return arr[k]
+     */
+    public static <T> T select(T[] arr, int k, Comparator<? super T> c) {
+        return select(arr, 0, arr.length - 1, k, c);
+    }
+
+    public static <T> T select(T[] arr, int low, int high, int k, Comparator<? super T> c) {
+        if (k < low || k > high) {
+            throw new IndexOutOfBoundsException("k: " + k + ", range: [" + low + ", " + high + "]");
+        }
+        return select(arr, low, high, k, c, true);
+    }
+
+    /**
+     * @param ninther 为 false 时只用中值的中值选取枢轴
+     */
+    private static <T> T select(T[] arr, int low, int high, int k, Comparator<? super T> c, boolean ninther) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            int size = high - low + 1;
+            T pivotkey = ninther ? pivot(arr, low, high, c) : medianOfMedians(arr, low, high, c);
+
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int cmp = c.compare(arr[i], pivotkey);
+                if (cmp < 0) {
+                    swap(arr, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return arr[k];
+            }
+            // 保留的一侧超过 3/4，此后改用中值的中值
+            if (high - low + 1 > size - (size >>> 2)) {
+                ninther = false;
+            }
+        }
+        InsertSort.sort(arr, low, high, c);
+        return arr[k];
+    }
+
+    /**
+     * 按比较器部分排序：arr[0...k-1] 为最小的 k 个记录并且升序
+     *
+     * @param arr
+     * @param k
+     * @param c
+     */
+    public static <T> void partialSort(T[] arr, int k, Comparator<? super T> c) {
+        if (k <= 0) {
+            return;
+        }
+        if (k >= arr.length) {
+            IntroSort.sort(arr, c);
+            return;
+        }
+        select(arr, 0, arr.length - 1, k - 1, c);
+        IntroSort.sort(arr, 0, k - 2, c);
+    }
+
+    private static <T> T pivot(T[] arr, int low, int high, Comparator<? super T> c) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median(arr[low], arr[mid], arr[high], c);
+        }
+        int s = (high - low + 1) / 8;
+        T a = median(arr[low], arr[low + s], arr[low + 2 * s], c);
+        T b = median(arr[mid - s], arr[mid], arr[mid + s], c);
+        T d = median(arr[high - 2 * s], arr[high - s], arr[high], c);
+        return median(a, b, d, c);
+    }
+
+    private static <T> T medianOfMedians(T[] arr, int low, int high, Comparator<? super T> c) {
+        int groups = 0;
+        for (int i = low; i <= high; i += 5) {
+            int end = Math.min(i + 4, high);
+            InsertSort.sort(arr, i, end, c);
+            swap(arr, low + groups++, (i + end) >>> 1);
+        }
+        int mid = low + (groups - 1) / 2;
+        return select(arr, low, low + groups - 1, mid, c, false);
+    }
+
+    private static <T> T median(T a, T b, T d, Comparator<? super T> c) {
+        if (c.compare(a, b) < 0) {
+            return c.compare(b, d) < 0 ? b : (c.compare(a, d) < 0 ? d : a);
+        } else {
+            return c.compare(a, d) < 0 ? a : (c.compare(b, d) < 0 ? d : b);
+        }
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 快速排序：对冒泡排序的一种改进
  * <p>
@@ -14,55 +17,282 @@ package com.crw.java.sort;
  * 3.再对左右区间重复第二步，直到各区间只有一个数
  * <p>
  * 时间复杂度：O(N*logN)
+ * <p>
+ * 长度不超过 16 的子表不再划分，直接用排序网络({@link SmallSort})排序。
+ * <p>
+ * int 版本以子表第一个记录为枢轴，有序或逆序输入会退化为 O(N^2)，递归深度达到 N 导致栈溢出；
+ * 对大规模数据请使用 {@link IntroSort}。
+ * <p>
+ * 键值同步排序 {@link #sort(long[], int[])} 和比较器版本 {@link #sort(Object[], Comparator)} 单独实现：
+ * 三数中值取枢轴、三路划分，对较小的一侧递归，有序输入和大量重复关键字都不会退化，栈深度为 O(logN)。
  */
 public class QuickSort {
 
     public static void main(String[] args) {
         int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
-        sort(arr);
+        sort(arr, SortListener.PRINT);
         for (int i : arr) {
             System.out.print(i + " ");
         }
     }
 
+    /**
+     * 排序，不做任何跟踪输出
+     *
+     * @param arr
+     */
     public static void sort(int[] arr) {
-        quickSort(arr, 0, arr.length - 1);
+        quickSort(arr, 0, arr.length - 1, null);
+    }
+
+    /**
+     * 排序，每次划分后回调监听器
+     *
+     * @param arr
+     * @param listener 监听器，为 null 时不跟踪
+     */
+    public static void sort(int[] arr, SortListener listener) {
+        quickSort(arr, 0, arr.length - 1, listener);
     }
 
     private static int partition(int[] arr, int low, int high) {
         int pivotkey = arr[low]; // 子表第一个记录做枢轴记录key
         while (low < high) {
-            while (arr[high] >= pivotkey && high > low) { // 从后往前扫，将小的数移到低端
+            while (high > low && !SortMetrics.less(arr[high], pivotkey)) { // 从后往前扫，将小的数移到低端
                 high--;
             }
             arr[low] = arr[high];
-            while (arr[low] <= pivotkey && high > low) { // 从前往后扫，将大的数移到高端
+            while (high > low && !SortMetrics.less(pivotkey, arr[low])) { // 从前往后扫，将大的数移到高端
                 low++;
             }
             arr[high] = arr[low];
+            SortMetrics.move(2);
         }
         arr[low] = pivotkey;
-
-        print(arr, low, high, pivotkey);
+        SortMetrics.move();
         return low;
     }
 
     public static void quickSort(int[] arr, int low, int high) {
+        quickSort(arr, low, high, null);
+    }
+
+    private static void quickSort(int[] arr, int low, int high, SortListener listener) {
         if (low >= high) {
             return;
         }
+        if (listener == null && high - low < SmallSort.MAX_NETWORK_SIZE) { // 小子表用排序网络，跟踪时保持逐次划分的过程
+            SmallSort.sort(arr, low, high);
+            return;
+        }
+        SortMetrics.enter();
         int pivotloc = partition(arr, low, high); // 将arr一分为二，pivotloc是枢轴位置
-        quickSort(arr, low, pivotloc - 1); // 对低子表递归
-        quickSort(arr, pivotloc + 1, high); // 对高子表递归
+        if (listener != null) {
+            listener.onStep(arr, "low:" + low + "\t,high:" + high + "\t,基准数:" + arr[pivotloc] + "\t,此轮快排结果:\t");
+        }
+        quickSort(arr, low, pivotloc - 1, listener); // 对低子表递归
+        quickSort(arr, pivotloc + 1, high, listener); // 对高子表递归
+        SortMetrics.exit();
     }
 
-    private static void print(int[] arr, int low, int high, int pivotkey) {
-        System.out.print("low:" + low + "\t,high:" + high + "\t,基准数:" + pivotkey + "\t,此轮快排结果:\t");
-        for (int j = 0; j < arr.length; j++) {
-            System.out.print(arr[j] + " ");
-            if (j == arr.length - 1) {
-                System.out.println();
+    /**
+     * 按 keys 排序，values 与 keys 同步移动(键值同步排序)，不稳定，不需要辅助空间
+     *
+     * @param keys
+     * @param values 长度不小于 keys.length
+     */
+    public static void sort(long[] keys, int[] values) {
+        if (values.length < keys.length) {
+            throw new IllegalArgumentException("values.length < keys.length");
+        }
+        quickSort(keys, values, 0, keys.length - 1);
+    }
+
+    private static void quickSort(long[] keys, int[] values, int low, int high) {
+        while (high - low >= SmallSort.MAX_NETWORK_SIZE) {
+            // 三数中值做枢轴
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < keys[low]) {
+                swap(keys, values, low, mid);
+            }
+            if (keys[high] < keys[low]) {
+                swap(keys, values, low, high);
+            }
+            if (keys[high] < keys[mid]) {
+                swap(keys, values, mid, high);
+            }
+            swap(keys, values, low, mid);
+            long pivotkey = keys[low];
+
+            // 三路划分(Bentley-McIlroy)：两端扫描，等于枢轴的记录先换到子表两端
+            int i = low;
+            int j = high + 1;
+            int p = low;
+            int q = high + 1;
+            while (true) {
+                while (keys[++i] < pivotkey) {
+                    if (i == high) {
+                        break;
+                    }
+                }
+                while (pivotkey < keys[--j]) {
+                    if (j == low) {
+                        break;
+                    }
+                }
+                if (i == j && keys[i] == pivotkey) {
+                    swap(keys, values, ++p, i);
+                }
+                if (i >= j) {
+                    break;
+                }
+                swap(keys, values, i, j);
+                if (keys[i] == pivotkey) {
+                    swap(keys, values, ++p, i);
+                }
+                if (keys[j] == pivotkey) {
+                    swap(keys, values, --q, j);
+                }
+            }
+            // 两端等于枢轴的记录换到中间：[low...j] < pivotkey, [j+1...i-1] == pivotkey, [i...high] > pivotkey
+            i = j + 1;
+            for (int k = low; k <= p; k++) {
+                swap(keys, values, k, j--);
+            }
+            for (int k = high; k >= q; k--) {
+                swap(keys, values, k, i++);
+            }
+
+            // 对较小的一侧递归，较大的一侧继续循环，栈深度为 O(logN)
+            if (j - low < high - i) {
+                quickSort(keys, values, low, j);
+                low = i;
+            } else {
+                quickSort(keys, values, i, high);
+                high = j;
             }
         }
+        insertSort(keys, values, low, high);
+    }
+
+    /**
+     * 键值同步的直接插入排序
+     */
+    static void insertSort(long[] keys, int[] values, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long key = keys[i];
+            int value = values[i];
+            int j;
+            for (j = i - 1; j >= low && keys[j] > key; j--) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static void swap(long[] keys, int[] values, int i, int j) {
+        long k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+    }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        quickSort(arr, 0, arr.length - 1, c);
+    }
+
+    private static <T> void quickSort(T[] arr, int low, int high, Comparator<? super T> c) {
+        while (high - low >= SmallSort.MAX_NETWORK_SIZE) {
+            // 三数中值做枢轴
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], arr[low]) < 0) {
+                swap(arr, low, mid);
+            }
+            if (c.compare(arr[high], arr[low]) < 0) {
+                swap(arr, low, high);
+            }
+            if (c.compare(arr[high], arr[mid]) < 0) {
+                swap(arr, mid, high);
+            }
+            swap(arr, low, mid);
+            T pivotkey = arr[low];
+
+            // 三路划分(Bentley-McIlroy)：两端扫描，等于枢轴的记录先换到子表两端
+            int i = low;
+            int j = high + 1;
+            int p = low;
+            int q = high + 1;
+            while (true) {
+                while (c.compare(arr[++i], pivotkey) < 0) {
+                    if (i == high) {
+                        break;
+                    }
+                }
+                while (c.compare(pivotkey, arr[--j]) < 0) {
+                    if (j == low) {
+                        break;
+                    }
+                }
+                if (i == j && c.compare(arr[i], pivotkey) == 0) {
+                    swap(arr, ++p, i);
+                }
+                if (i >= j) {
+                    break;
+                }
+                swap(arr, i, j);
+                if (c.compare(arr[i], pivotkey) == 0) {
+                    swap(arr, ++p, i);
+                }
+                if (c.compare(arr[j], pivotkey) == 0) {
+                    swap(arr, --q, j);
+                }
+            }
+            // 两端等于枢轴的记录换到中间：[low...j] < pivotkey, [j+1...i-1] == pivotkey, [i...high] > pivotkey
+            i = j + 1;
+            for (int k = low; k <= p; k++) {
+                swap(arr, k, j--);
+            }
+            for (int k = high; k >= q; k--) {
+                swap(arr, k, i++);
+            }
+
+            // 对较小的一侧递归，较大的一侧继续循环
+            if (j - low < high - i) {
+                quickSort(arr, low, j, c);
+                low = i;
+            } else {
+                quickSort(arr, i, high, c);
+                high = j;
+            }
+        }
+        InsertSort.sort(arr, low, high, c);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
     }
 }
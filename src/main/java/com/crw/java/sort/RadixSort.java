@@ -1,11 +1,25 @@
 package com.crw.java.sort;
 
+import java.util.Arrays;
+
 /**
  * 基数排序
  * <p>
  * 基数排序不同于之前所介绍的各类排序，前边介绍到的排序方法或多或少的是通过使用比较和移动记录来实现排序，
  * 而基数排序的实现不需要进行对关键字的比较，只需要对关键字进行“分配”与“收集”两种操作即可完成。
  * <p>
+ * 这里是最低位优先(LSD)的实现，以字节(8位)为一个位次，int 需要 4 趟，long 需要 8 趟：
+ * 1.计数：一次遍历统计出所有位次上每个桶的记录数。
+ * 2.跳过：如果某个位次上所有记录都落在同一个桶里，这一趟分配不会改变顺序，直接跳过。
+ * 3.前缀和：桶的计数转为该桶在辅助数组中的起始位置。
+ * 4.分配：按原顺序把记录放到对应位置，保证稳定；原数组和辅助数组交替使用，不需要每趟拷贝回去。
+ * <p>
+ * 关键字变换使得按无符号字节比较即为正确顺序：
+ * - int/long：翻转符号位，负数排在正数之前。
+ * - float/double：正数翻转符号位，负数翻转所有位(IEEE 754 位模式的技巧)。
+ * 与 Arrays.sort 的顺序一致：-0.0 排在 0.0 之前，NaN 排在最后。
+ * <p>
+ * 计数数组每个线程缓存一份，排序过程中除调用方提供的辅助数组外不分配内存。
  * <p>
  * 时间复杂度(d 为位数，r 为基数，n 为数组个数)：
  * 平均情况:O(d*(n+r))
@@ -16,67 +30,357 @@ package com.crw.java.sort;
  */
 public class RadixSort {
 
+    /**
+     * 基数，每个位次一个字节
+     */
+    public static final int RADIX = 256;
+
+    /**
+     * 每个位次的位数
+     */
+    private static final int DIGIT_BITS = 8;
+
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /**
+     * 每个线程复用的计数数组，按 long 的 8 个位次分配
+     */
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[Long.BYTES * RADIX]);
+
     public static void main(String[] args) {
-        int[] arr = {4, 2, 5601, 2303, 72897, 3312, 189, 241548};
-        sort(arr);
+        int[] arr = {4, 2, 5601, -2303, 72897, 3312, 0, -189, 241548};
+        sort(arr, new int[arr.length], SortListener.PRINT);
         for (int i : arr) {
             System.out.print(i + "\t");
         }
     }
 
     public static void sort(int[] arr) {
-        int max = getMax(arr);
+        SortMetrics.allocate((long) arr.length * Integer.BYTES);
+        sort(arr, new int[arr.length], null);
+    }
+
+    /**
+     * 使用调用方提供的辅助数组排序，排序过程中不再分配任何内存，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(int[] arr, int[] temp) {
+        sort(arr, temp, null);
+    }
+
+    /**
+     * 排序，每一位次分配后回调监听器
+     *
+     * @param arr
+     * @param temp     辅助数组，长度不小于 arr.length
+     * @param listener 监听器，为 null 时不跟踪
+     */
+    public static void sort(int[] arr, int[] temp, SortListener listener) {
         int len = arr.length;
+        if (temp.length < len) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (len < 2) {
+            return;
+        }
+        int[] counts = COUNTS.get();
+        int digits = Integer.BYTES;
 
-        // 1.按位次遍历: 需要遍历的次数由数组最大值的位数来决定
-        for (int i = 1; max / i > 0; i *= 10) {
-            int[][] buckets = new int[10][len];
+        // 1.计数：一次遍历统计所有位次
+        Arrays.fill(counts, 0, digits * RADIX, 0);
+        for (int i = 0; i < len; i++) {
+            int key = arr[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < digits; d++) {
+                counts[d * RADIX + ((key >>> (d * DIGIT_BITS)) & DIGIT_MASK)]++;
+            }
+        }
+
+        int[] src = arr;
+        int[] dst = temp;
+        for (int d = 0; d < digits; d++) {
+            int base = d * RADIX;
+            int shift = d * DIGIT_BITS;
+            // 2.所有记录在该位次上相同，跳过
+            if (counts[base + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK)] == len) {
+                continue;
+            }
+            // 3.前缀和：桶的起始位置
+            prefixSum(counts, base);
+            // 4.分配
+            for (int i = 0; i < len; i++) {
+                int v = src[i];
+                dst[counts[base + (((v ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK)]++] = v;
+            }
+            SortMetrics.move(len);
+            if (listener != null) {
+                // 跟踪时每趟收集回原数组，便于观察
+                System.arraycopy(dst, 0, arr, 0, len);
+                listener.onStep(arr, "第" + d + "字节:\t\t");
+            } else {
+                int[] t = src;
+                src = dst;
+                dst = t;
+            }
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, len);
+        }
+    }
 
-            // 2.分配操作：获取每一位数字(个、十、百、千位...分配到桶子里)
-            for (int j = 0; j < len; j++) {
+    public static void sort(long[] arr) {
+        sort(arr, new long[arr.length]);
+    }
 
-                int num = (arr[j] / i) % 10;
+    /**
+     * 使用调用方提供的辅助数组排序，排序过程中不再分配任何内存，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(long[] arr, long[] temp) {
+        int len = arr.length;
+        if (temp.length < len) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (len < 2) {
+            return;
+        }
+        int[] counts = COUNTS.get();
+        int digits = Long.BYTES;
 
-                //将其放入桶子里
-                buckets[num][j] = arr[j];
+        Arrays.fill(counts, 0, digits * RADIX, 0);
+        for (int i = 0; i < len; i++) {
+            long key = key(arr[i]);
+            for (int d = 0; d < digits; d++) {
+                counts[d * RADIX + ((int) (key >>> (d * DIGIT_BITS)) & DIGIT_MASK)]++;
             }
+        }
 
-            // 3.收集操作：回收桶子里的元素
-            int k = 0;
-            // 遍历这10个桶
-            for (int j = 0; j < 10; j++) {
-                // 对每个桶子里的元素进行回收
-                for (int p = 0; p < len; p++) {
-                    //如果桶子里面有元素就回收(数据初始化会为0)
-                    if (buckets[j][p] != 0) {
-                        arr[k++] = buckets[j][p];
-                    }
-                }
+        long[] src = arr;
+        long[] dst = temp;
+        for (int d = 0; d < digits; d++) {
+            int base = d * RADIX;
+            int shift = d * DIGIT_BITS;
+            if (counts[base + ((int) (key(src[0]) >>> shift) & DIGIT_MASK)] == len) {
+                continue;
             }
+            prefixSum(counts, base);
+            for (int i = 0; i < len; i++) {
+                long v = src[i];
+                dst[counts[base + ((int) (key(v) >>> shift) & DIGIT_MASK)]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, len);
+        }
+    }
 
-            print(arr, i);
+    /**
+     * 按 keys 排序，values 与 keys 同步移动(键值同步排序)，稳定
+     *
+     * @param keys
+     * @param values 长度不小于 keys.length
+     */
+    public static void sort(long[] keys, int[] values) {
+        sort(keys, values, new long[keys.length], new int[keys.length]);
+    }
+
+    /**
+     * 键值同步排序，使用调用方提供的辅助数组，排序过程中不再分配任何内存
+     *
+     * @param keys
+     * @param values    长度不小于 keys.length
+     * @param keyTemp   辅助数组，长度不小于 keys.length
+     * @param valueTemp 辅助数组，长度不小于 keys.length
+     */
+    public static void sort(long[] keys, int[] values, long[] keyTemp, int[] valueTemp) {
+        int len = keys.length;
+        if (values.length < len || keyTemp.length < len || valueTemp.length < len) {
+            throw new IllegalArgumentException("values/temp shorter than keys");
+        }
+        if (len < 2) {
+            return;
         }
+        int[] counts = COUNTS.get();
+        int digits = Long.BYTES;
 
+        Arrays.fill(counts, 0, digits * RADIX, 0);
+        for (int i = 0; i < len; i++) {
+            long key = key(keys[i]);
+            for (int d = 0; d < digits; d++) {
+                counts[d * RADIX + ((int) (key >>> (d * DIGIT_BITS)) & DIGIT_MASK)]++;
+            }
+        }
 
+        long[] src = keys;
+        long[] dst = keyTemp;
+        int[] vsrc = values;
+        int[] vdst = valueTemp;
+        for (int d = 0; d < digits; d++) {
+            int base = d * RADIX;
+            int shift = d * DIGIT_BITS;
+            if (counts[base + ((int) (key(src[0]) >>> shift) & DIGIT_MASK)] == len) {
+                continue;
+            }
+            prefixSum(counts, base);
+            for (int i = 0; i < len; i++) {
+                long v = src[i];
+                int pos = counts[base + ((int) (key(v) >>> shift) & DIGIT_MASK)]++;
+                dst[pos] = v;
+                vdst[pos] = vsrc[i];
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int[] vt = vsrc;
+            vsrc = vdst;
+            vdst = vt;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, len);
+            System.arraycopy(vsrc, 0, values, 0, len);
+        }
     }
 
-    private static void print(int[] arr, int d) {
-        System.out.print("第:" + d + "位次:\t\t");
-        for (int j = 0; j < arr.length; j++) {
-            System.out.print(arr[j] + " ");
-            if (j == arr.length - 1) {
-                System.out.println();
+    public static void sort(float[] arr) {
+        sort(arr, new float[arr.length]);
+    }
+
+    /**
+     * 使用调用方提供的辅助数组排序，排序过程中不再分配任何内存，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(float[] arr, float[] temp) {
+        int len = arr.length;
+        if (temp.length < len) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (len < 2) {
+            return;
+        }
+        int[] counts = COUNTS.get();
+        int digits = Float.BYTES;
+
+        Arrays.fill(counts, 0, digits * RADIX, 0);
+        for (int i = 0; i < len; i++) {
+            int key = key(arr[i]);
+            for (int d = 0; d < digits; d++) {
+                counts[d * RADIX + ((key >>> (d * DIGIT_BITS)) & DIGIT_MASK)]++;
+            }
+        }
+
+        float[] src = arr;
+        float[] dst = temp;
+        for (int d = 0; d < digits; d++) {
+            int base = d * RADIX;
+            int shift = d * DIGIT_BITS;
+            if (counts[base + ((key(src[0]) >>> shift) & DIGIT_MASK)] == len) {
+                continue;
+            }
+            prefixSum(counts, base);
+            for (int i = 0; i < len; i++) {
+                float v = src[i];
+                dst[counts[base + ((key(v) >>> shift) & DIGIT_MASK)]++] = v;
             }
+            float[] t = src;
+            src = dst;
+            dst = t;
         }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, len);
+        }
+    }
+
+    public static void sort(double[] arr) {
+        sort(arr, new double[arr.length]);
     }
 
-    private static int getMax(int[] arr) {
-        int max = arr[0];
-        for (int i = 1; i < arr.length; i++) {
-            if (arr[i] > arr[i - 1]) {
-                max = arr[i];
+    /**
+     * 使用调用方提供的辅助数组排序，排序过程中不再分配任何内存，辅助数组可在多次调用间复用
+     *
+     * @param arr
+     * @param temp 辅助数组，长度不小于 arr.length
+     */
+    public static void sort(double[] arr, double[] temp) {
+        int len = arr.length;
+        if (temp.length < len) {
+            throw new IllegalArgumentException("temp.length < arr.length");
+        }
+        if (len < 2) {
+            return;
+        }
+        int[] counts = COUNTS.get();
+        int digits = Double.BYTES;
+
+        Arrays.fill(counts, 0, digits * RADIX, 0);
+        for (int i = 0; i < len; i++) {
+            long key = key(arr[i]);
+            for (int d = 0; d < digits; d++) {
+                counts[d * RADIX + ((int) (key >>> (d * DIGIT_BITS)) & DIGIT_MASK)]++;
             }
         }
-        return max;
+
+        double[] src = arr;
+        double[] dst = temp;
+        for (int d = 0; d < digits; d++) {
+            int base = d * RADIX;
+            int shift = d * DIGIT_BITS;
+            if (counts[base + ((int) (key(src[0]) >>> shift) & DIGIT_MASK)] == len) {
+                continue;
+            }
+            prefixSum(counts, base);
+            for (int i = 0; i < len; i++) {
+                double v = src[i];
+                dst[counts[base + ((int) (key(v) >>> shift) & DIGIT_MASK)]++] = v;
+            }
+            double[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, len);
+        }
+    }
+
+    /**
+     * counts[base...base+RADIX) 由计数转为起始位置(不含自身的前缀和)
+     */
+    private static void prefixSum(int[] counts, int base) {
+        int sum = 0;
+        for (int j = base; j < base + RADIX; j++) {
+            int c = counts[j];
+            counts[j] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * long 关键字：翻转符号位，按无符号比较即为有符号顺序
+     */
+    static long key(long x) {
+        return x ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * float 关键字：正数翻转符号位，负数翻转所有位；NaN 统一为 Float.NaN 的位模式，排在最后
+     */
+    static int key(float x) {
+        int bits = Float.floatToIntBits(x);
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+
+    /**
+     * double 关键字：正数翻转符号位，负数翻转所有位；NaN 统一为 Double.NaN 的位模式，排在最后
+     */
+    static long key(double x) {
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
     }
 }
@@ -1,5 +1,8 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 简单选择排序
  * <p>
@@ -28,8 +31,8 @@ public class SelectSort {
     private static int selectMinKey(int[] arr, int i) {
         int min = i;
         // 从下标为 i+1 开始，一直遍历至最后一个关键字，找到最小值所在的位置v
-        while (i + 1 < arr.length - 1) {
-            if (arr[min] > arr[i + 1]) {
+        while (i + 1 < arr.length) {
+            if (SortMetrics.less(arr[i + 1], arr[min])) {
                 min = i + 1;
             }
             i++;
@@ -38,8 +41,47 @@ public class SelectSort {
     }
 
     private static void swap(int[] arr, int i, int j) {
+        SortMetrics.swap();
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
+
+    /**
+     * 按比较器排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        for (int i = 0; i < arr.length; i++) {
+            int min = i; // 找到剩下子表中最小的key
+            for (int j = i + 1; j < arr.length; j++) {
+                if (c.compare(arr[j], arr[min]) < 0) {
+                    min = j;
+                }
+            }
+            if (i != min) {
+                swap(arr, i, min);
+            }
+        }
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
 }
@@ -1,15 +1,23 @@
 package com.crw.java.sort;
 
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * 希尔排序，又称“缩小增量排序”，也是插入排序的一种。
  * <p>
  * 希尔排序的具体实现思路是：先将整个记录表分割成若干部分，分别进行直接插入排序，然后再对整个记录表进行一次直接插入排序。
+ * <p>
+ * int 数组长度不超过 16 时直接用排序网络({@link SmallSort})排序；更长的数组按增量分组插入排序，不使用排序网络。
+ * <p>
+ * shellSort 使用 Shell 原始的折半增量 n/2, n/4 ... 1，最坏 O(n^2)，用于演示每趟的过程；
+ * sort 使用可替换的增量序列({@link GapSequence})，默认 Ciura 序列。
  */
 public class ShellSort {
 
     public static void main(String[] args) {
         int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
-        shellSort(arr);
+        shellSort(arr, SortListener.PRINT);
         System.out.print("最终结果：\t");
         for (int i : arr) {
             System.out.print(i + "\t");
@@ -32,13 +40,14 @@ public class ShellSort {
      */
     private static void shellInsert(int[] arr, int dk) {
         for (int i = dk; i < arr.length; i++) {
-            if (arr[i] < arr[i - dk]) { // 需要将arr[i]插入有序增量子表
+            if (SortMetrics.less(arr[i], arr[i - dk])) { // 需要将arr[i]插入有序增量子表
                 int temp = arr[i]; // 暂存arr[i]
                 int j;
-                for (j = i - dk; j >= 0 && temp < arr[j]; j -= dk) {
+                for (j = i - dk; j >= 0 && SortMetrics.less(temp, arr[j]); j -= dk) {
                     arr[j + dk] = arr[j]; // 记录后移
                 }
                 arr[j + dk] = temp; // 插入
+                SortMetrics.move((i - j) / dk);
             }
         }
     }
@@ -46,49 +55,135 @@ public class ShellSort {
     /**
      * 通过调用不同的增量值（记录），实现对多个子表分别进行直接插入排序
      */
-    private static void shellSort(int[] arr) {
-        int[] dlta = dlta(arr.length);
-        for (int i = 0; i < dlta.length; i++) {
-            shellInsert(arr, dlta[i]);
-        }
+    public static void shellSort(int[] arr) {
+        shellSort(arr, null);
     }
 
     /**
-     * 获取步长dk的数组
+     * 希尔排序，每趟增量插入排序后回调监听器
+     * <p>
+     * 增量序列 n/2, n/4 ... 1 逐个计算，不再分配增量数组
      *
-     * @param len 元素组长度
-     * @return
+     * @param arr
+     * @param listener 监听器，为 null 时不跟踪
      */
-    private static int[] dlta(int len) {
-        int[] dlta = new int[(int) Math.sqrt(len) + 1];
-        int gap = len / 2;
-        int i = 0;
-        while (gap > 0) {
-            dlta[i] = gap;
-            gap /= 2;
-            i++;
+    public static void shellSort(int[] arr, SortListener listener) {
+        if (listener == null && arr.length <= SmallSort.MAX_NETWORK_SIZE) {
+            SmallSort.sort(arr, 0, arr.length - 1);
+            return;
+        }
+        for (int dk = arr.length / 2; dk > 0; dk /= 2) {
+            shellInsert(arr, dk);
+            if (listener != null) {
+                listener.onStep(arr, "增量" + dk + ":\t");
+            }
         }
-        return dlta;
     }
 
 
     /**
-     * 希尔排序2
+     * 希尔排序2，使用 Ciura 增量序列
+     *
+     * @param arr
+     */
+    public static void sort(int[] arr) {
+        sort(arr, GapSequences.CIURA);
+    }
+
+    /**
+     * 使用指定的增量序列排序
      *
      * @param arr
+     * @param sequence 增量序列，见 {@link GapSequences}
      */
-    private static void sort(int[] arr) {
+    public static void sort(int[] arr, GapSequence sequence) {
+        if (arr.length <= SmallSort.MAX_NETWORK_SIZE) {
+            SmallSort.sort(arr, 0, arr.length - 1);
+            return;
+        }
+        int[] gaps = sequence.gaps();
+        int k = startIndex(gaps, arr.length);
         int j; // 插入的位置
-        for (int gap = arr.length / 2; gap > 0; gap /= 2) { // 步长
+        for (; k >= 0; k--) {
+            int gap = gaps[k]; // 步长
             for (int i = gap; i < arr.length; i++) {
-                if (arr[i] < arr[i - gap]) { // 则进行一次希尔插入
+                if (SortMetrics.less(arr[i], arr[i - gap])) { // 则进行一次希尔插入
                     int tmp = arr[i];
-                    for (j = i; j >= gap && tmp < arr[j - gap]; j -= gap) {
+                    for (j = i; j >= gap && SortMetrics.less(tmp, arr[j - gap]); j -= gap) {
                         arr[j] = arr[j - gap]; // 后移gap
                     }
                     arr[j] = tmp; // 插入
+                    SortMetrics.move((i - j) / gap + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 小于 n 的最大增量的下标
+     */
+    private static int startIndex(int[] gaps, int n) {
+        int k = gaps.length - 1;
+        while (k > 0 && gaps[k] >= n) {
+            k--;
+        }
+        return k;
+    }
+
+    /**
+     * 按比较器希尔排序
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void shellSort(T[] arr, Comparator<? super T> c) {
+        for (int dk = arr.length / 2; dk > 0; dk /= 2) {
+            for (int i = dk; i < arr.length; i++) {
+                if (c.compare(arr[i], arr[i - dk]) < 0) {
+                    T temp = arr[i];
+                    int j;
+                    for (j = i - dk; j >= 0 && c.compare(temp, arr[j]) < 0; j -= dk) {
+                        arr[j + dk] = arr[j];
+                    }
+                    arr[j + dk] = temp;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按比较器排序，使用指定的增量序列
+     *
+     * @param arr
+     * @param sequence 增量序列，见 {@link GapSequences}
+     * @param c
+     */
+    public static <T> void sort(T[] arr, GapSequence sequence, Comparator<? super T> c) {
+        int[] gaps = sequence.gaps();
+        for (int k = startIndex(gaps, arr.length); k >= 0; k--) {
+            int dk = gaps[k];
+            for (int i = dk; i < arr.length; i++) {
+                if (c.compare(arr[i], arr[i - dk]) < 0) {
+                    T temp = arr[i];
+                    int j;
+                    for (j = i - dk; j >= 0 && c.compare(temp, arr[j]) < 0; j -= dk) {
+                        arr[j + dk] = arr[j];
+                    }
+                    arr[j + dk] = temp;
                 }
             }
         }
     }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void shellSort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        shellSort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
 }
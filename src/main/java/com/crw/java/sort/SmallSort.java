@@ -0,0 +1,273 @@
+package com.crw.java.sort;
+
+/**
+ * 小数组排序内核：排序网络
+ * <p>
+ * 快速排序、归并排序递归到小子表时，通常用直接插入排序收尾。插入排序的内层循环每一步都要判断 "是否继续后移"，
+ * 随机数据下这个分支很难预测，小子表的数量又很多(约 n/16 个)，分支预测失败的代价不可忽略。
+ * <p>
+ * 排序网络是一组固定的 比较-交换器(comparator)，执行顺序与数据无关：
+ * 1.每个比较器写成 min = Math.min(x, y), max = Math.max(x, y)，C2 把它们编译为条件传送(cmov)，没有分支。
+ * 2.同一层的比较器互不依赖，CPU 可以并行执行(指令级并行)。
+ * 3.网络用比较器下标对的表({@link #NETWORKS})描述，排序时按表逐个执行 cswap。
+ * <p>
+ * 每种长度手工展开成局部变量版本还能再快一些(子表读入寄存器，中间不访问数组)，但代码量是表驱动的五倍多；
+ * 表驱动版本在随机长度的小子表上比展开版本慢约三成，仍明显快于直接插入排序。
+ * <p>
+ * 长度 2~16 的网络都使用已知比较器个数最少的网络(13~16 基于 Green 的 60 比较器网络)，均用 0-1 原理穷举验证过：
+ * <pre>
+ * n         2  3  4  5  6  7  8  9 10 11 12 13 14 15 16
+ * 比较器数   1  3  5  9 12 16 19 25 29 35 39 45 51 56 60
+ * 层数       1  3  3  5  5  6  6  7  9  8  9 10 10 10 10
+ * </pre>
+ * 超过 MAX_NETWORK_SIZE 的子表退回直接插入排序。
+ * <p>
+ * 排序网络不稳定，但对基本类型没有影响。
+ * double 的 Math.min/max 对 NaN 和 -0.0 的处理与 {@code <} 不同，这里只提供 int 和 long 版本。
+ */
+public class SmallSort {
+
+    /**
+     * 排序网络支持的最大长度
+     */
+    public static final int MAX_NETWORK_SIZE = 16;
+
+    /**
+     * 长度为 n 的排序网络：NETWORKS[n] 中每两个数 i, j 表示一个比较器，执行后 a[i] <= a[j]，每行是一层
+     */
+    private static final int[][] NETWORKS = {
+            {},
+            {},
+            // n = 2
+            {
+                    0, 1
+            },
+            // n = 3
+            {
+                    0, 2,
+                    0, 1,
+                    1, 2
+            },
+            // n = 4
+            {
+                    0, 1, 2, 3,
+                    0, 2, 1, 3,
+                    1, 2
+            },
+            // n = 5
+            {
+                    0, 3, 1, 4,
+                    0, 2, 1, 3,
+                    0, 1, 2, 4,
+                    1, 2, 3, 4,
+                    2, 3
+            },
+            // n = 6
+            {
+                    0, 5, 1, 3, 2, 4,
+                    1, 2, 3, 4,
+                    0, 3, 2, 5,
+                    0, 1, 2, 3, 4, 5,
+                    1, 2, 3, 4
+            },
+            // n = 7
+            {
+                    0, 6, 2, 3, 4, 5,
+                    0, 2, 1, 4, 3, 6,
+                    0, 1, 2, 5, 3, 4,
+                    1, 2, 4, 6,
+                    2, 3, 4, 5,
+                    1, 2, 3, 4, 5, 6
+            },
+            // n = 8
+            {
+                    0, 2, 1, 3, 4, 6, 5, 7,
+                    0, 4, 1, 5, 2, 6, 3, 7,
+                    0, 1, 2, 3, 4, 5, 6, 7,
+                    2, 4, 3, 5,
+                    1, 4, 3, 6,
+                    1, 2, 3, 4, 5, 6
+            },
+            // n = 9
+            {
+                    0, 3, 1, 7, 2, 5, 4, 8,
+                    0, 7, 2, 4, 3, 8, 5, 6,
+                    0, 2, 1, 3, 4, 5, 7, 8,
+                    1, 4, 3, 6, 5, 7,
+                    0, 1, 2, 4, 3, 5, 6, 8,
+                    2, 3, 4, 5, 6, 7,
+                    1, 2, 3, 4, 5, 6
+            },
+            // n = 10
+            {
+                    4, 9, 3, 8, 2, 7, 1, 6, 0, 5,
+                    1, 4, 6, 9, 0, 3, 5, 8,
+                    0, 2, 3, 6, 7, 9,
+                    0, 1, 2, 4, 5, 7, 8, 9,
+                    1, 2, 4, 6, 7, 8, 3, 5,
+                    2, 5, 6, 8, 1, 3, 4, 7,
+                    2, 3, 6, 7,
+                    3, 4, 5, 6,
+                    4, 5
+            },
+            // n = 11
+            {
+                    0, 9, 1, 6, 2, 4, 3, 7, 5, 8,
+                    0, 1, 3, 5, 4, 10, 6, 9, 7, 8,
+                    1, 3, 2, 5, 4, 7, 8, 10,
+                    0, 4, 1, 2, 3, 7, 5, 9, 6, 8,
+                    0, 1, 2, 6, 4, 5, 7, 8, 9, 10,
+                    2, 4, 3, 6, 5, 7, 8, 9,
+                    1, 2, 3, 4, 5, 6, 7, 8,
+                    2, 3, 4, 5, 6, 7
+            },
+            // n = 12
+            {
+                    0, 8, 1, 7, 2, 6, 3, 11, 4, 10, 5, 9,
+                    0, 1, 2, 5, 3, 4, 6, 9, 7, 8, 10, 11,
+                    0, 2, 1, 6, 5, 10, 9, 11,
+                    0, 3, 1, 2, 4, 6, 5, 7, 8, 11, 9, 10,
+                    1, 4, 3, 5, 6, 8, 7, 10,
+                    1, 3, 2, 5, 6, 9, 8, 10,
+                    2, 3, 4, 5, 6, 7, 8, 9,
+                    4, 6, 5, 7,
+                    3, 4, 5, 6, 7, 8
+            },
+            // n = 13
+            {
+                    0, 12, 1, 10, 2, 9, 3, 7, 5, 11, 6, 8,
+                    1, 6, 2, 3, 4, 11, 7, 9, 8, 10,
+                    0, 4, 1, 2, 3, 6, 7, 8, 9, 10, 11, 12,
+                    4, 6, 5, 9, 8, 11, 10, 12,
+                    0, 5, 3, 8, 4, 7, 6, 11, 9, 10,
+                    0, 1, 2, 5, 6, 9, 7, 8, 10, 11,
+                    1, 3, 2, 4, 5, 6, 9, 10,
+                    1, 2, 3, 4, 5, 7, 6, 8,
+                    2, 3, 4, 5, 6, 7, 8, 9,
+                    3, 4, 5, 6
+            },
+            // n = 14
+            {
+                    0, 13, 1, 12, 4, 8, 5, 6, 7, 11, 9, 10,
+                    0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 11, 12,
+                    0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13,
+                    0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9,
+                    1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11,
+                    1, 4, 2, 6, 5, 8, 7, 10, 9, 13,
+                    2, 4, 3, 6, 9, 12, 11, 13,
+                    3, 5, 6, 8, 7, 9, 10, 12,
+                    3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                    6, 7, 8, 9
+            },
+            // n = 15
+            {
+                    0, 13, 1, 12, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+                    0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 11, 12,
+                    0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13,
+                    0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14,
+                    1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14,
+                    1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14,
+                    2, 4, 3, 6, 9, 12, 11, 13,
+                    3, 5, 6, 8, 7, 9, 10, 12,
+                    3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                    6, 7, 8, 9
+            },
+            // n = 16
+            {
+                    0, 13, 1, 12, 2, 15, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+                    0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 10, 15, 11, 12,
+                    0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 14, 15,
+                    0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14, 13, 15,
+                    1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14,
+                    1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14,
+                    2, 4, 3, 6, 9, 12, 11, 13,
+                    3, 5, 6, 8, 7, 9, 10, 12,
+                    3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                    6, 7, 8, 9
+            }
+    };
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        sort(arr, 0, arr.length - 1);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序，长度不超过 MAX_NETWORK_SIZE 时使用排序网络
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(int[] arr, int low, int high) {
+        if (high - low >= MAX_NETWORK_SIZE) {
+            InsertSort.sort(arr, low, high);
+            return;
+        }
+        if (high <= low) {
+            return;
+        }
+        int[] network = NETWORKS[high - low + 1];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare(network.length / 2);
+        }
+        for (int k = 0; k < network.length; k += 2) {
+            cswap(arr, low + network[k], low + network[k + 1]);
+        }
+    }
+
+    /**
+     * 对子表 arr[low...high] 排序，长度不超过 MAX_NETWORK_SIZE 时使用排序网络
+     *
+     * @param arr
+     * @param low
+     * @param high
+     */
+    public static void sort(long[] arr, int low, int high) {
+        if (high - low >= MAX_NETWORK_SIZE) {
+            insertSort(arr, low, high);
+            return;
+        }
+        if (high <= low) {
+            return;
+        }
+        int[] network = NETWORKS[high - low + 1];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare(network.length / 2);
+        }
+        for (int k = 0; k < network.length; k += 2) {
+            cswap(arr, low + network[k], low + network[k + 1]);
+        }
+    }
+
+    /**
+     * 比较器：执行后 arr[i] <= arr[j]，Math.min/max 编译为条件传送，没有分支
+     */
+    private static void cswap(int[] arr, int i, int j) {
+        int x = arr[i];
+        int y = arr[j];
+        arr[i] = Math.min(x, y);
+        arr[j] = Math.max(x, y);
+    }
+
+    private static void cswap(long[] arr, int i, int j) {
+        long x = arr[i];
+        long y = arr[j];
+        arr[i] = Math.min(x, y);
+        arr[j] = Math.max(x, y);
+    }
+
+    private static void insertSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long temp = arr[i];
+            int j;
+            for (j = i - 1; j >= low && arr[j] > temp; j--) {
+                arr[j + 1] = arr[j];
+            }
+            arr[j + 1] = temp;
+        }
+    }
+}
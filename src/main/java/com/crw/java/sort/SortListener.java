@@ -0,0 +1,31 @@
+package com.crw.java.sort;
+
+/**
+ * 排序过程监听器，用于按需观察每一趟排序的中间结果
+ * <p>
+ * 排序方法默认不做任何跟踪输出；只有显式传入监听器时才会回调，便于教学演示和调试。
+ */
+public interface SortListener {
+
+    /**
+     * 直接打印到控制台的监听器，格式为：步骤描述 + 当前数组
+     */
+    SortListener PRINT = new SortListener() {
+        @Override
+        public void onStep(int[] arr, String step) {
+            System.out.print(step);
+            for (int j = 0; j < arr.length; j++) {
+                System.out.print(arr[j] + " ");
+            }
+            System.out.println();
+        }
+    };
+
+    /**
+     * 完成一趟排序时回调
+     *
+     * @param arr  当前数组，回调中不应修改
+     * @param step 本趟步骤的描述
+     */
+    void onStep(int[] arr, String step);
+}
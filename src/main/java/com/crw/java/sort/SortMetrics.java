@@ -0,0 +1,340 @@
+package com.crw.java.sort;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 排序度量：比较次数、交换次数、移动次数、递归深度、辅助空间字节数
+ * <p>
+ * 默认关闭，启动参数 -Dcom.crw.java.sort.metrics=true 打开。
+ * ENABLED 是 static final 常量，关闭时 JIT 把 {@code if (ENABLED)} 整段消除，各排序方法里的计数调用内联后不产生任何代码。
+ * <p>
+ * 计数器每个线程一份，只由所在线程写入：
+ * 1.单次排序：{@link #reset()} 后排序，再 {@link #snapshot()}，或者直接 {@link #measure(Runnable)}。
+ * 并行排序的工作线程计数不在调用线程里，只体现在全局汇总中。
+ * 2.全局汇总：{@link #total()}，以及 JMX 的 com.crw.java.sort:type=SortMetrics(打开时注册)。
+ * 汇总时读取其他线程的计数器不加锁，是近似值，适合监控。
+ * 线程结束后，它的计数在下次汇总或有新线程开始计数时并入一份累计值，然后丢弃该线程的计数器，
+ * 线程池不断换线程时计数器不会越积越多。
+ * JMX 注册失败(例如另一个类加载器已经注册了同名的 MBean)时跳过注册，计数照常进行。
+ * <p>
+ * 各计数的口径：
+ * - comparisons：关键字之间的比较，排序网络按比较器个数计；
+ * - swaps：两个记录的交换；
+ * - moves：单个记录的写入(插入排序的后移、归并和分配时的拷贝)；
+ * - maxDepth：递归的最大深度；
+ * - scratchBytes：排序方法自己分配的辅助数组字节数，调用方传入的辅助数组不计。
+ * 只统计 int[] 的排序(各排序类的 int 版本)；比较器版本可以用计数的 Comparator 统计比较次数。
+ */
+public final class SortMetrics {
+
+    /**
+     * 是否打开度量
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("com.crw.java.sort.metrics");
+
+    /**
+     * 存活线程的计数器
+     */
+    private static final Queue<Counters> ALL = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已结束线程的计数之和，由 SortMetrics.class 保护
+     */
+    private static Snapshot retired = Snapshot.EMPTY;
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(() -> {
+        retireDead();
+        Counters counters = new Counters(Thread.currentThread());
+        ALL.add(counters);
+        return counters;
+    });
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(SortMetricsMXBean.OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                // 不能因为监控不可用而让所有排序类初始化失败，跳过注册
+            }
+        }
+    }
+
+    private SortMetrics() {
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24, 9, 71, 3, 15, 60, 8, 41, 27, 36, 5};
+        if (!ENABLED) {
+            System.out.println("run with -Dcom.crw.java.sort.metrics=true");
+            return;
+        }
+        System.out.println(measure(() -> IntroSort.sort(arr.clone())));
+        System.out.println(measure(() -> HeapSort.heapSort(arr.clone())));
+        System.out.println(measure(() -> MergeSort.sort(arr.clone())));
+    }
+
+    /**
+     * 清零当前线程的计数
+     */
+    public static void reset() {
+        if (ENABLED) {
+            COUNTERS.get().reset();
+        }
+    }
+
+    /**
+     * 当前线程自上次 reset 以来的计数
+     *
+     * @return
+     */
+    public static Snapshot snapshot() {
+        return ENABLED ? COUNTERS.get().snapshot() : Snapshot.EMPTY;
+    }
+
+    /**
+     * 所有线程的计数之和，maxDepth 取最大值
+     *
+     * @return
+     */
+    public static synchronized Snapshot total() {
+        retireDead();
+        Snapshot total = retired;
+        for (Counters counters : ALL) {
+            total = total.plus(counters.snapshot());
+        }
+        return total;
+    }
+
+    /**
+     * 清零所有线程的计数
+     */
+    public static synchronized void resetAll() {
+        retireDead();
+        retired = Snapshot.EMPTY;
+        for (Counters counters : ALL) {
+            counters.reset();
+        }
+    }
+
+    /**
+     * 已结束线程的计数并入 retired，不再保留它的计数器。线程结束后不会再写，并入的是准确值
+     */
+    private static synchronized void retireDead() {
+        for (Iterator<Counters> it = ALL.iterator(); it.hasNext(); ) {
+            Counters counters = it.next();
+            Thread owner = counters.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                retired = retired.plus(counters.snapshot());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 在当前线程中执行一次排序并返回它的计数
+     *
+     * @param sort
+     * @return
+     */
+    public static Snapshot measure(Runnable sort) {
+        reset();
+        sort.run();
+        return snapshot();
+    }
+
+    // 以下由排序方法调用
+
+    static void compare() {
+        if (ENABLED) {
+            COUNTERS.get().comparisons++;
+        }
+    }
+
+    static void compare(long n) {
+        if (ENABLED) {
+            COUNTERS.get().comparisons += n;
+        }
+    }
+
+    /**
+     * 计一次比较，返回 a < b
+     */
+    static boolean less(int a, int b) {
+        if (ENABLED) {
+            COUNTERS.get().comparisons++;
+        }
+        return a < b;
+    }
+
+    static boolean less(long a, long b) {
+        if (ENABLED) {
+            COUNTERS.get().comparisons++;
+        }
+        return a < b;
+    }
+
+    static void swap() {
+        if (ENABLED) {
+            COUNTERS.get().swaps++;
+        }
+    }
+
+    static void move() {
+        if (ENABLED) {
+            COUNTERS.get().moves++;
+        }
+    }
+
+    static void move(long n) {
+        if (ENABLED) {
+            COUNTERS.get().moves += n;
+        }
+    }
+
+    /**
+     * 进入一层递归
+     */
+    static void enter() {
+        if (ENABLED) {
+            Counters counters = COUNTERS.get();
+            if (++counters.depth > counters.maxDepth) {
+                counters.maxDepth = counters.depth;
+            }
+        }
+    }
+
+    /**
+     * 退出一层递归
+     */
+    static void exit() {
+        if (ENABLED) {
+            COUNTERS.get().depth--;
+        }
+    }
+
+    static void allocate(long bytes) {
+        if (ENABLED) {
+            COUNTERS.get().scratchBytes += bytes;
+        }
+    }
+
+    private static final class Counters {
+        /**
+         * 弱引用，计数器不阻止线程对象被回收
+         */
+        final WeakReference<Thread> owner;
+        long comparisons;
+        long swaps;
+        long moves;
+        long scratchBytes;
+        int depth;
+        int maxDepth;
+
+        Counters(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        void reset() {
+            comparisons = 0;
+            swaps = 0;
+            moves = 0;
+            scratchBytes = 0;
+            maxDepth = depth;
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(comparisons, swaps, moves, maxDepth, scratchBytes);
+        }
+    }
+
+    /**
+     * 计数的快照，不可变
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0);
+
+        private final long comparisons;
+        private final long swaps;
+        private final long moves;
+        private final int maxDepth;
+        private final long scratchBytes;
+
+        Snapshot(long comparisons, long swaps, long moves, int maxDepth, long scratchBytes) {
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.moves = moves;
+            this.maxDepth = maxDepth;
+            this.scratchBytes = scratchBytes;
+        }
+
+        Snapshot plus(Snapshot o) {
+            return new Snapshot(comparisons + o.comparisons, swaps + o.swaps, moves + o.moves,
+                    Math.max(maxDepth, o.maxDepth), scratchBytes + o.scratchBytes);
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public long getSwaps() {
+            return swaps;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public long getScratchBytes() {
+            return scratchBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "comparisons=" + comparisons + ", swaps=" + swaps + ", moves=" + moves
+                    + ", maxDepth=" + maxDepth + ", scratchBytes=" + scratchBytes;
+        }
+    }
+
+    private static final class Bean implements SortMetricsMXBean {
+        @Override
+        public long getComparisons() {
+            return total().getComparisons();
+        }
+
+        @Override
+        public long getSwaps() {
+            return total().getSwaps();
+        }
+
+        @Override
+        public long getMoves() {
+            return total().getMoves();
+        }
+
+        @Override
+        public int getMaxDepth() {
+            return total().getMaxDepth();
+        }
+
+        @Override
+        public long getScratchBytes() {
+            return total().getScratchBytes();
+        }
+
+        @Override
+        public void reset() {
+            resetAll();
+        }
+    }
+}
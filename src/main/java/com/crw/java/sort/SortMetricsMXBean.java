@@ -0,0 +1,24 @@
+package com.crw.java.sort;
+
+/**
+ * 排序度量的 JMX 接口，数值为所有线程的汇总，见 {@link SortMetrics}
+ */
+public interface SortMetricsMXBean {
+
+    String OBJECT_NAME = "com.crw.java.sort:type=SortMetrics";
+
+    long getComparisons();
+
+    long getSwaps();
+
+    long getMoves();
+
+    int getMaxDepth();
+
+    long getScratchBytes();
+
+    /**
+     * 清零所有线程的计数
+     */
+    void reset();
+}
@@ -0,0 +1,994 @@
+package com.crw.java.sort;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * TimSort：自适应、稳定的归并排序
+ * <p>
+ * 基本思想：现实中的数据往往已经部分有序(例如追加写入的日志，只有少数记录迟到)，
+ * {@link MergeSort} 总是从长度为 1 的子表开始归并 logN 趟，没有利用这种有序性。
+ * 1.识别自然有序段(run)：从左往右找最长的非递减段或严格递减段，递减段原地翻转。
+ * 2.扩展短段：长度不足 minRun 的段，用 {@link BinaryInsertSort} 把后续记录折半插入，补足到 minRun。
+ * 3.归并：有序段依次入栈，维持 栈中各段长度 的不变式(类似斐波那契增长)，保证归并平衡，栈深度为 O(logN)。
+ * 4.飞奔模式(galloping)：归并时若某一段连续胜出 minGallop 次，改用指数查找 + 二分查找一次定位一大块，
+ * 整块拷贝；对交错很少的两段，比逐个比较快得多。
+ * <p>
+ * 时间复杂度：最坏 O(nlogn)，已有序或逆序时 O(n)，近乎有序时接近线性；空间复杂度：O(n)；稳定的排序
+ * <p>
+ * 有序段栈及归并次序由 RunStack 统一维护；IntMerger 与 ObjectMerger 的飞奔查找和 mergeLo/mergeHi 逐行对应，
+ * 是为了让 int 版本直接比较基本类型(不装箱、不经过比较器)而有意保留的重复，修改其中一个时要同步修改另一个。
+ * <p>
+ * 参考：Tim Peters, listsort.txt；栈不变式采用 de Gouw 等人修正后的版本。
+ */
+public class TimSort {
+
+    /**
+     * 短于该长度的数组直接折半插入排序
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * 进入飞奔模式的初始阈值
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * 有序段栈的最大深度，足以容纳 Integer.MAX_VALUE 个记录
+     */
+    private static final int MAX_STACK = 49;
+
+    public static void main(String[] args) {
+        int[] arr = {1, 2, 3, 4, 56, 57, 60, 12, 5, 6, 7, 8, 100, 99, 98, 9, 10};
+        sort(arr);
+        for (int i : arr) {
+            System.out.print(i + " ");
+        }
+    }
+
+    public static void sort(int[] arr) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        IntMerger m = new IntMerger(arr);
+        if (n < MIN_MERGE) {
+            int runLen = m.countRunAndMakeAscending(0, n);
+            BinaryInsertSort.insert(arr, 0, runLen, n - 1);
+            return;
+        }
+        int low = 0;
+        int remaining = n;
+        int minRun = minRunLength(n);
+        do {
+            // 1.识别自然有序段
+            int runLen = m.countRunAndMakeAscending(low, low + remaining);
+            // 2.太短则扩展到 minRun
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                BinaryInsertSort.insert(arr, low, low + runLen, low + force - 1);
+                runLen = force;
+            }
+            // 3.入栈并按不变式归并
+            m.pushRun(low, runLen);
+            m.mergeCollapse();
+            low += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+        m.mergeForceCollapse();
+    }
+
+    /**
+     * 按比较器排序，稳定
+     *
+     * @param arr
+     * @param c
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 按比较器对子表 arr[low...high] 排序，稳定
+     *
+     * @param arr
+     * @param low
+     * @param high
+     * @param c
+     */
+    public static <T> void sort(T[] arr, int low, int high, Comparator<? super T> c) {
+        int n = high - low + 1;
+        if (n < 2) {
+            return;
+        }
+        ObjectMerger<T> m = new ObjectMerger<>(arr, c);
+        if (n < MIN_MERGE) {
+            int runLen = m.countRunAndMakeAscending(low, low + n);
+            BinaryInsertSort.insert(arr, low, low + runLen, high, c);
+            return;
+        }
+        int remaining = n;
+        int minRun = minRunLength(n);
+        do {
+            int runLen = m.countRunAndMakeAscending(low, low + remaining);
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                BinaryInsertSort.insert(arr, low, low + runLen, low + force - 1, c);
+                runLen = force;
+            }
+            m.pushRun(low, runLen);
+            m.mergeCollapse();
+            low += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+        m.mergeForceCollapse();
+    }
+
+    /**
+     * 对 List 排序，拷贝为数组排序后写回
+     *
+     * @param list
+     * @param c
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        T[] arr = ListSortHelper.toArray(list);
+        sort(arr, c);
+        ListSortHelper.writeBack(list, arr);
+    }
+
+    /**
+     * 最小段长度：n 不断右移直到小于 MIN_MERGE，若移出的位中有 1 则加 1。
+     * 这样 n / minRun 恰好等于或略小于 2 的幂，最后几次归并的两段长度接近。
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * 有序段栈：入栈，并按不变式选出要归并的相邻两段，int 与对象版本共用；两段的归并由子类按元素类型实现
+     */
+    private abstract static class RunStack {
+        final int[] runBase = new int[MAX_STACK];
+        final int[] runLen = new int[MAX_STACK];
+        int stackSize = 0;
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * 维持栈不变式：runLen[i-2] > runLen[i-1] + runLen[i] 且 runLen[i-1] > runLen[i]
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中剩余的所有段
+         */
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中第 i 和 i+1 个段
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            mergeRuns(base1, len1, base2, len2);
+        }
+
+        /**
+         * 归并相邻的两段 arr[base1...base1+len1) 与 arr[base2...base2+len2)
+         */
+        abstract void mergeRuns(int base1, int len1, int base2, int len2);
+    }
+
+    /**
+     * 归并状态：待排序数组、辅助数组、当前飞奔阈值
+     */
+    private static class IntMerger extends RunStack {
+        private final int[] arr;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        IntMerger(int[] arr) {
+            this.arr = arr;
+            this.tmp = new int[Math.min(arr.length, 256)];
+            SortMetrics.allocate((long) tmp.length * Integer.BYTES);
+        }
+
+        /**
+         * 从 low 开始的最长自然有序段的长度，严格递减段翻转为递增(严格递减才能翻转，保证稳定)
+         */
+        int countRunAndMakeAscending(int low, int high) {
+            int runHi = low + 1;
+            if (runHi == high) {
+                return 1;
+            }
+            if (SortMetrics.less(arr[runHi++], arr[low])) { // 严格递减
+                while (runHi < high && SortMetrics.less(arr[runHi], arr[runHi - 1])) {
+                    runHi++;
+                }
+                reverse(low, runHi - 1);
+            } else { // 非递减
+                while (runHi < high && !SortMetrics.less(arr[runHi], arr[runHi - 1])) {
+                    runHi++;
+                }
+            }
+            return runHi - low;
+        }
+
+        private void reverse(int low, int high) {
+            while (low < high) {
+                int t = arr[low];
+                arr[low++] = arr[high];
+                arr[high--] = t;
+            }
+        }
+
+        /**
+         * 归并相邻的两段 arr[base1...base1+len1) 与 arr[base2...base2+len2)
+         */
+        @Override
+        void mergeRuns(int base1, int len1, int base2, int len2) {
+            // 第一段中不大于 arr[base2] 的前缀已经就位
+            int k = gallopRight(arr[base2], arr, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            // 第二段中不小于第一段末尾的后缀已经就位
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2, len2 - 1);
+            if (len2 == 0) {
+                return;
+            }
+            // 较短的一段拷贝到辅助数组
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * 在有序的 a[base...base+len) 中查找 key 最左侧的插入位置 k：a[base+k-1] < key <= a[base+k]。
+         * 从 hint 开始按 1,3,7,15... 的步长指数查找，再在最后一个区间内二分。
+         */
+        private int gallopLeft(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (SortMetrics.less(a[base + hint], key)) {
+                // 向右飞奔，直到 a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && SortMetrics.less(a[base + hint + ofs], key)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) { // 溢出
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                // 向左飞奔，直到 a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && !SortMetrics.less(a[base + hint - ofs], key)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+            // a[base+lastOfs] < key <= a[base+ofs]，二分
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (SortMetrics.less(a[base + m], key)) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 与 gallopLeft 相同，但返回最右侧的插入位置 k：a[base+k-1] <= key < a[base+k]
+         */
+        private int gallopRight(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (SortMetrics.less(key, a[base + hint])) {
+                // 向左飞奔，直到 a[base+hint-ofs] <= key < a[base+hint-lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && SortMetrics.less(key, a[base + hint - ofs])) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                // 向右飞奔，直到 a[base+hint+lastOfs] <= key < a[base+hint+ofs]
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && !SortMetrics.less(key, a[base + hint + ofs])) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (SortMetrics.less(key, a[base + m])) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 从左往右归并，第一段(较短)拷贝到辅助数组。调用前已保证：
+         * 第一段的首记录大于第二段的首记录，第一段的末记录大于第二段的所有记录。
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = arr;
+            int[] t = ensureCapacity(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+            SortMetrics.move(2L * len1 + len2); // 拷贝到辅助数组，再归并写回
+            int cursor1 = 0; // 辅助数组中第一段的游标
+            int cursor2 = base2; // 第二段的游标
+            int dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(t, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0; // 第一段连续胜出的次数
+                int count2 = 0; // 第二段连续胜出的次数
+
+                // 逐个比较，直到某一段连续胜出 minGallop 次
+                do {
+                    if (SortMetrics.less(a[cursor2], t[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = t[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // 飞奔模式，直到两段都不再成块胜出
+                do {
+                    count1 = gallopRight(a[cursor2], t, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(t, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(t[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = t[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    minGallop--; // 飞奔有效，降低下次进入的门槛
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2; // 退出飞奔模式，提高下次进入的门槛
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1]; // 第一段的最后一个记录最大
+            } else if (len1 == 0) {
+                throw new IllegalArgumentException("Comparison method violates its general contract!");
+            } else {
+                System.arraycopy(t, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * 从右往左归并，第二段(较短)拷贝到辅助数组，与 mergeLo 对称
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = arr;
+            int[] t = ensureCapacity(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+            SortMetrics.move(len1 + 2L * len2);
+            int cursor1 = base1 + len1 - 1; // 第一段的游标
+            int cursor2 = len2 - 1; // 辅助数组中第二段的游标
+            int dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (SortMetrics.less(t[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = t[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(t[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = t[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = len2 - gallopLeft(a[cursor1], t, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(t, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2]; // 第二段的第一个记录最小
+            } else if (len2 == 0) {
+                throw new IllegalArgumentException("Comparison method violates its general contract!");
+            } else {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        /**
+         * 辅助数组按需扩容，至多为数组长度的一半
+         */
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.min(newSize, arr.length >>> 1);
+                }
+                tmp = new int[newSize];
+                SortMetrics.allocate((long) newSize * Integer.BYTES);
+            }
+            return tmp;
+        }
+    }
+
+    /**
+     * 归并状态：待排序数组、辅助数组、当前飞奔阈值
+     */
+    @SuppressWarnings("unchecked")
+    private static class ObjectMerger<T> extends RunStack {
+        private final T[] arr;
+        private final Comparator<? super T> c;
+        private T[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        ObjectMerger(T[] arr, Comparator<? super T> c) {
+            this.arr = arr;
+            this.c = c;
+            this.tmp = (T[]) new Object[Math.min(arr.length, 256)];
+        }
+
+        /**
+         * 从 low 开始的最长自然有序段的长度，严格递减段翻转为递增(严格递减才能翻转，保证稳定)
+         */
+        int countRunAndMakeAscending(int low, int high) {
+            int runHi = low + 1;
+            if (runHi == high) {
+                return 1;
+            }
+            if (c.compare(arr[runHi++], arr[low]) < 0) { // 严格递减
+                while (runHi < high && c.compare(arr[runHi], arr[runHi - 1]) < 0) {
+                    runHi++;
+                }
+                reverse(low, runHi - 1);
+            } else { // 非递减
+                while (runHi < high && c.compare(arr[runHi], arr[runHi - 1]) >= 0) {
+                    runHi++;
+                }
+            }
+            return runHi - low;
+        }
+
+        private void reverse(int low, int high) {
+            while (low < high) {
+                T t = arr[low];
+                arr[low++] = arr[high];
+                arr[high--] = t;
+            }
+        }
+
+        /**
+         * 归并相邻的两段 arr[base1...base1+len1) 与 arr[base2...base2+len2)
+         */
+        @Override
+        void mergeRuns(int base1, int len1, int base2, int len2) {
+            // 第一段中不大于 arr[base2] 的前缀已经就位
+            int k = gallopRight(arr[base2], arr, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            // 第二段中不小于第一段末尾的后缀已经就位
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2, len2 - 1);
+            if (len2 == 0) {
+                return;
+            }
+            // 较短的一段拷贝到辅助数组
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * 在有序的 a[base...base+len) 中查找 key 最左侧的插入位置 k：a[base+k-1] < key <= a[base+k]。
+         * 从 hint 开始按 1,3,7,15... 的步长指数查找，再在最后一个区间内二分。
+         */
+        private int gallopLeft(T key, T[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (c.compare(a[base + hint], key) < 0) {
+                // 向右飞奔，直到 a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && c.compare(a[base + hint + ofs], key) < 0) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) { // 溢出
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                // 向左飞奔，直到 a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && c.compare(a[base + hint - ofs], key) >= 0) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+            // a[base+lastOfs] < key <= a[base+ofs]，二分
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (c.compare(a[base + m], key) < 0) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 与 gallopLeft 相同，但返回最右侧的插入位置 k：a[base+k-1] <= key < a[base+k]
+         */
+        private int gallopRight(T key, T[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (c.compare(key, a[base + hint]) < 0) {
+                // 向左飞奔，直到 a[base+hint-ofs] <= key < a[base+hint-lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && c.compare(key, a[base + hint - ofs]) < 0) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                // 向右飞奔，直到 a[base+hint+lastOfs] <= key < a[base+hint+ofs]
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && c.compare(key, a[base + hint + ofs]) >= 0) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (c.compare(key, a[base + m]) < 0) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 从左往右归并，第一段(较短)拷贝到辅助数组。调用前已保证：
+         * 第一段的首记录大于第二段的首记录，第一段的末记录大于第二段的所有记录。
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] a = arr;
+            T[] t = ensureCapacity(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+            int cursor1 = 0; // 辅助数组中第一段的游标
+            int cursor2 = base2; // 第二段的游标
+            int dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(t, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0; // 第一段连续胜出的次数
+                int count2 = 0; // 第二段连续胜出的次数
+
+                // 逐个比较，直到某一段连续胜出 minGallop 次
+                do {
+                    if (c.compare(a[cursor2], t[cursor1]) < 0) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = t[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // 飞奔模式，直到两段都不再成块胜出
+                do {
+                    count1 = gallopRight(a[cursor2], t, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(t, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(t[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = t[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    minGallop--; // 飞奔有效，降低下次进入的门槛
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2; // 退出飞奔模式，提高下次进入的门槛
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1]; // 第一段的最后一个记录最大
+            } else if (len1 == 0) {
+                throw new IllegalArgumentException("Comparison method violates its general contract!");
+            } else {
+                System.arraycopy(t, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * 从右往左归并，第二段(较短)拷贝到辅助数组，与 mergeLo 对称
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] a = arr;
+            T[] t = ensureCapacity(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+            int cursor1 = base1 + len1 - 1; // 第一段的游标
+            int cursor2 = len2 - 1; // 辅助数组中第二段的游标
+            int dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (c.compare(t[cursor2], a[cursor1]) < 0) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = t[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(t[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = t[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = len2 - gallopLeft(a[cursor1], t, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(t, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2]; // 第二段的第一个记录最小
+            } else if (len2 == 0) {
+                throw new IllegalArgumentException("Comparison method violates its general contract!");
+            } else {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        /**
+         * 辅助数组按需扩容，至多为数组长度的一半
+         */
+        private T[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.min(newSize, arr.length >>> 1);
+                }
+                tmp = (T[]) new Object[newSize];
+            }
+            return tmp;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.crw.java.sort;
+
+import com.crw.java.heap.BinaryHeap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 流式 Top-K：在数据流中保留最大的 k 个记录
+ * <p>
+ * 基本思想：用容量固定为 k 的小顶堆 {@link BinaryHeap} 保存当前最大的 k 个记录，堆顶是其中最小的(门槛)。
+ * 新记录不大于门槛时直接丢弃，否则替换堆顶并下滤一次。
+ * 不需要把全部数据放进内存，适合从 5000 万条记录中取前 100 这类场景；
+ * 随机输入下绝大多数记录只和门槛比较一次就被丢弃。
+ * <p>
+ * 时间复杂度：O(n*logk)，随机输入平均接近 O(n)；空间复杂度：O(k)
+ *
+ * @param <T>
+ * @see QuickSelect 数据已经全部在数组中时
+ */
+public class TopK<T extends Comparable<? super T>> {
+
+    private final int k;
+    private final BinaryHeap<T> heap;
+
+    public static void main(String[] args) {
+        TopK<Integer> top = new TopK<>(3);
+        int[] arr = {4, 2, 56, 23, 12, 33, 18, 24};
+        for (int i : arr) {
+            top.offer(i);
+        }
+        System.out.println(top.toList());
+    }
+
+    /**
+     * @param k 保留的记录个数，大于 0
+     */
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k <= 0");
+        }
+        this.k = k;
+        this.heap = new BinaryHeap<>(k);
+    }
+
+    /**
+     * 提交一个记录
+     *
+     * @param item
+     * @return 该记录当前是否在前 k 个之中
+     */
+    public boolean offer(T item) {
+        if (heap.size() < k) {
+            heap.insert(item);
+            return true;
+        }
+        if (item.compareTo(heap.findMin()) <= 0) {
+            return false;
+        }
+        heap.replaceMin(item);
+        return true;
+    }
+
+    /**
+     * 当前第 k 大的记录，即进入前 k 的门槛
+     *
+     * @return 不足 k 个时返回 null
+     */
+    public T threshold() {
+        return heap.size() < k ? null : heap.findMin();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * 当前前 k 个记录，从大到小排列，不影响后续 offer
+     *
+     * @return
+     */
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.deleteMin());
+        }
+        // 按升序放回，每次插入的都不小于已有记录，不需要上滤
+        for (T item : result) {
+            heap.insert(item);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -1,5 +1,7 @@
 package com.crw.java.tree;
 
+import java.util.function.Consumer;
+
 /**
  * AVL树
  * 1.提供节点，节点中需有树高属性
@@ -30,7 +32,7 @@ public class AvlTree<T extends Comparable<? super T>> {
             this.element = element;
             this.left = left;
             this.right = right;
-            this.height = 0;
+            this.height = 1; // 叶子节点高度为 1，空树高度为 0
         }
     }
 
@@ -158,19 +160,21 @@ public class AvlTree<T extends Comparable<? super T>> {
         }
 
         if (height(node.left) - height(node.right) > 1) { // 左子树比右子树高度之差大于等于2，不平衡
-            if (height(node.left.left) > height(node.left.right)) { // 左子树的左子树 比 左子树的右子树高，属于LL情况
-                leftLeftRotation(node);
+            if (height(node.left.left) >= height(node.left.right)) { // 左子树的左子树 不比 左子树的右子树矮，属于LL情况(删除时可能相等)
+                node = leftLeftRotation(node);
             } else { // 否则，属于 LR情况
-                leftRightRotation(node);
+                node = leftRightRotation(node);
             }
         } else if (height(node.right) - height(node.left) > 1) { // 右子树比左子树高度之差大于等于2，不平衡
-            if (height(node.left.left) > height(node.left.right)) { // 右子树的左子树 比 右子树的右子树高，属于RL情况
-                rightLeftRotation(node);
-            } else { // 否则，属于 RR情况
-                rightRightRotation(node);
+            if (height(node.right.right) >= height(node.right.left)) { // 右子树的右子树 不比 右子树的左子树矮，属于RR情况
+                node = rightRightRotation(node);
+            } else { // 否则，属于 RL情况
+                node = rightLeftRotation(node);
             }
+        } else { // 平衡，只需更新高度；旋转时已经更新过
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
         }
-        return node;
+        return node; // 旋转后子树的根节点
     }
 
 
@@ -178,6 +182,27 @@ public class AvlTree<T extends Comparable<? super T>> {
         return this.root == null;
     }
 
+    /**
+     * 是否包含，与二叉查找树相同，树高为 O(logN)
+     *
+     * @param x
+     * @return
+     */
+    public boolean contains(T x) {
+        AVLNode<T> node = root;
+        while (node != null) {
+            int compareResult = x.compareTo(node.element);
+            if (compareResult < 0) {
+                node = node.left;
+            } else if (compareResult > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public T findMin() {
         if (isEmpty()) {
             return null;
@@ -268,11 +293,11 @@ public class AvlTree<T extends Comparable<? super T>> {
         } else { // node就是要删除的节点
             if ((node.left != null) && (node.right != null)) { // 当前节点有俩个孩子
                 if (height(node.left) > height(node.right)) { // 左子树比右子树高，则1.找到左子树的最大节点；2.将该值赋值给当前节点node；3.删除该最大节点
-                    AVLNode<T> max = findMax(node);
+                    AVLNode<T> max = findMax(node.left);
                     node.element = max.element;
                     node.left = remove(max.element, node.left);
                 } else { // 右子树比左子树高，则1.找到右子树的最小节点；2.将该值赋值给当前节点node；3.删除该最小节点
-                    AVLNode<T> min = findMin(node);
+                    AVLNode<T> min = findMin(node.right);
                     node.element = min.element;
                     node.right = remove(min.element, node.right);
                 }
@@ -284,7 +309,7 @@ public class AvlTree<T extends Comparable<? super T>> {
         return balance(node);
     }
 
-    private void remove(T t) {
+    public void remove(T t) {
         root = remove(t, root);
     }
 
@@ -319,6 +344,23 @@ public class AvlTree<T extends Comparable<? super T>> {
         inOrder(root);
     }
 
+    private void inOrder(AVLNode<T> node, Consumer<? super T> action) {
+        if (node != null) {
+            inOrder(node.left, action);
+            action.accept(node.element);
+            inOrder(node.right, action);
+        }
+    }
+
+    /**
+     * 按中序(从小到大)遍历所有元素
+     *
+     * @param action
+     */
+    public void forEach(Consumer<? super T> action) {
+        inOrder(root, action);
+    }
+
     /*
      * 后序遍历"AVL树"
      */